@@ -1,63 +1,485 @@
 package Calendar;
 
 import Calendar.Events.Event;
+import Calendar.Events.SourceEvenements;
+import Calendar.Serialization.CalendarSerializer;
 import Calendar.Serialization.JsonCalendarSerializer;
 import Calendar.Util.EventConflitDetector;
+import Calendar.Util.VerrousParProprietaire;
 import Calendar.vo.EventId;
 import Calendar.vo.Periode;
+import Calendar.vo.ProprietaireEvenement;
 import Calendar.Events.Evenements;
 
 import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
 import java.util.*;
 import java.util.Spliterator;
 import java.util.Spliterators;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 import java.util.stream.StreamSupport;
 
+/**
+ * Point d'entrée du calendrier, utilisable depuis plusieurs threads : les écritures d'un même
+ * propriétaire sont sérialisées par un verrou réparti, les lectures n'en prennent aucun.
+ */
 public class CalendarManager {
 
     private final Evenements evenements;
     private final EventConflitDetector conflitDetector;
+    private final VerrousParProprietaire verrous;
+    private final List<EcouteurCalendrier> ecouteurs;
+    // Null : modifications non journalisées
+    private volatile JournalModifications journal;
 
     public CalendarManager() {
-        this.evenements = new Evenements();
-        this.conflitDetector = new EventConflitDetector();
+        this(new Evenements());
     }
 
+    /**
+     * Calendrier sur un rangement choisi, par exemple {@link Evenements#enColonnes()}
+     */
+    public CalendarManager(Evenements evenements) {
+        this(evenements, new EventConflitDetector());
+    }
+
+    /**
+     * Calendrier dont les conflits sont détectés par {@code conflitDetector}, par exemple
+     * avec un horizon limitant les occurrences examinées des séries récurrentes
+     */
+    public CalendarManager(Evenements evenements, EventConflitDetector conflitDetector) {
+        this.evenements = evenements;
+        this.conflitDetector = conflitDetector;
+        this.verrous = new VerrousParProprietaire();
+        this.ecouteurs = new CopyOnWriteArrayList<>();
+    }
+
+    public void ajouterEcouteur(EcouteurCalendrier ecouteur) {
+        ecouteurs.add(ecouteur);
+    }
+
+    public void retirerEcouteur(EcouteurCalendrier ecouteur) {
+        ecouteurs.remove(ecouteur);
+    }
+
+    /**
+     * Journalise désormais chaque modification avant de l'appliquer : une modification dont
+     * l'enregistrement échoue n'est pas appliquée, et ne rend la main qu'une fois sur disque
+     */
+    public void brancherJournal(JournalModifications journal) {
+        this.journal = Objects.requireNonNull(journal);
+    }
+
+    public void debrancherJournal(JournalModifications journal) {
+        verrous.executerSurTous(() -> {
+            if (this.journal == journal) {
+                this.journal = null;
+            }
+        });
+    }
+
+    /**
+     * Exécute l'action sous les verrous de tous les propriétaires : aucune modification n'est
+     * alors en cours, et toute modification journalisée a été appliquée et signalée aux écouteurs
+     */
+    public <T> T calculerSansModification(Supplier<T> action) {
+        return verrous.calculerSurTous(action);
+    }
+
+    /**
+     * Branche des événements en lecture seule (archives, instantané) : ils sont consultés par
+     * les recherches et la détection de conflits, mais ne font pas partie de getAllEvents()
+     */
+    public void ajouterSource(SourceEvenements source) {
+        evenements.ajouterSource(source);
+    }
+
+    public void retirerSource(SourceEvenements source) {
+        evenements.retirerSource(source);
+    }
+
+    /**
+     * Vérifie les conflits puis ajoute l'événement, de façon atomique pour son propriétaire
+     */
     public void ajouterEvenement(Event evenement) {
-        List<Event> conflits = detecterConflits(evenement);
+        JournalModifications journal = this.journal;
+        long enregistrement = verrous.calculer(evenement.getProprietaire(), () -> {
+            List<Event> conflits = detecterConflits(evenement);
+
+            if (!conflits.isEmpty()) {
+                throw new ConflitEvenementException(evenement, conflits);
+            }
+            if (evenements.trouverParId(evenement.getId()).isPresent()) {
+                throw new IllegalArgumentException("Un événement avec l'identifiant " + evenement.getId() + " existe déjà.");
+            }
+
+            long numero = journaliser(journal, j -> j.journaliserAjouts(List.of(evenement)));
+            evenements.ajouter(evenement);
+            ecouteurs.forEach(ecouteur -> ecouteur.evenementAjoute(evenement));
+            return numero;
+        });
+        attendreDurable(journal, enregistrement);
+    }
+
+    /**
+     * Ajoute un lot d'événements en une seule passe, au lieu d'un appel à
+     * {@link #ajouterEvenement(Event)} par événement.
+     * <p>
+     * Le lot de chaque propriétaire est trié une fois puis balayé par début croissant :
+     * toutes les paires en conflit sont relevées, et un événement n'est retenu que s'il ne
+     * chevauche ni un événement existant ni un événement déjà retenu du lot. Les index sont
+     * ensuite construits en bloc. Rien n'est levé : le rapport décrit ce qui a été écarté.
+     */
+    public RapportChargement ajouterEnMasse(Iterable<? extends Event> lot) {
+        List<Event> rejetes = new ArrayList<>();
+        Map<ProprietaireEvenement, List<Event>> parProprietaire = grouperParProprietaire(lot, rejetes);
+
+        List<PaireEnConflit> conflits = new ArrayList<>();
+        JournalModifications journal = this.journal;
+        long[] enregistrement = {0};
+        int ajoutes = 0;
+        for (Map.Entry<ProprietaireEvenement, List<Event>> entree : parProprietaire.entrySet()) {
+            ajoutes += verrous.calculer(entree.getKey(),
+                    () -> ajouterLot(entree.getKey(), entree.getValue(), conflits, rejetes, journal, enregistrement));
+        }
+        attendreDurable(journal, enregistrement[0]);
+        return new RapportChargement(ajoutes, conflits, rejetes);
+    }
+
+    /**
+     * Remplace tout le contenu du calendrier par le lot, comme {@link #ajouterEnMasse(Iterable)}.
+     * Le lot est entièrement parcouru avant de vider le calendrier : si sa lecture échoue,
+     * le calendrier reste intact.
+     */
+    public RapportChargement remplacerEnMasse(Iterable<? extends Event> lot) {
+        List<Event> rejetes = new ArrayList<>();
+        Map<ProprietaireEvenement, List<Event>> parProprietaire = grouperParProprietaire(lot, rejetes);
+
+        List<PaireEnConflit> conflits = new ArrayList<>();
+        JournalModifications journal = this.journal;
+        long[] enregistrement = {0};
+        int[] ajoutes = {0};
+        verrous.executerSurTous(() -> {
+            enregistrement[0] = journaliser(journal, JournalModifications::journaliserVidage);
+            evenements.clear();
+            ecouteurs.forEach(EcouteurCalendrier::calendrierVide);
+            parProprietaire.forEach((proprietaire, evenementsDuLot) -> ajoutes[0] +=
+                    ajouterLot(proprietaire, evenementsDuLot, conflits, rejetes, journal, enregistrement));
+        });
+        attendreDurable(journal, enregistrement[0]);
+        return new RapportChargement(ajoutes[0], conflits, rejetes);
+    }
+
+    private static Map<ProprietaireEvenement, List<Event>> grouperParProprietaire(Iterable<? extends Event> lot,
+                                                                                 List<Event> rejetes) {
+        Map<ProprietaireEvenement, List<Event>> parProprietaire = new LinkedHashMap<>();
+        Set<EventId> identifiants = new HashSet<>();
+        for (Event e : lot) {
+            if (!identifiants.add(e.getId())) {
+                rejetes.add(e);
+                continue;
+            }
+            parProprietaire.computeIfAbsent(e.getProprietaire(), p -> new ArrayList<>()).add(e);
+        }
+        return parProprietaire;
+    }
+
+    /**
+     * @param enregistrement reçoit le numéro du dernier enregistrement du journal, s'il y en a un
+     */
+    private int ajouterLot(ProprietaireEvenement proprietaire, List<Event> lot,
+                           List<PaireEnConflit> conflits, List<Event> rejetes,
+                           JournalModifications journal, long[] enregistrement) {
+        lot.sort(Comparator.comparingLong(Event::debutEnMinutes));
+
+        List<Event> retenus = new ArrayList<>(lot.size());
+        // Événements du lot encore en cours au début courant, par fin croissante
+        PriorityQueue<Event> enCours = new PriorityQueue<>(Comparator.comparingLong(Event::finEnMinutes));
+        long finRetenus = Long.MIN_VALUE;
+        // Séries dont les occurrences suivantes peuvent encore rencontrer le reste du lot
+        List<Event> seriesExistantes = evenements.recurrents(proprietaire);
+        List<Event> seriesRetenues = new ArrayList<>();
+        for (Event e : lot) {
+            if (evenements.trouverParId(e.getId()).isPresent()) {
+                rejetes.add(e);
+                continue;
+            }
+            long debut = e.debutEnMinutes();
+            long fin = e.finEnMinutes();
+            while (!enCours.isEmpty() && enCours.peek().finEnMinutes() <= debut) {
+                enCours.poll();
+            }
+            for (Event autre : enCours) {
+                conflits.add(new PaireEnConflit(autre, e));
+            }
+            boolean enConflit = debut < finRetenus;
+            for (Event existant : evenements.chevauchements(proprietaire, debut, conflitDetector.finDesOccurrences(e))) {
+                if (!existant.estRecurrent() && conflitDetector.detectConflict(e, existant)) {
+                    conflits.add(new PaireEnConflit(existant, e));
+                    enConflit = true;
+                }
+            }
+            for (Event serie : seriesExistantes) {
+                if (conflitDetector.detectConflict(e, serie)) {
+                    conflits.add(new PaireEnConflit(serie, e));
+                    enConflit = true;
+                }
+            }
+            for (Event serie : seriesRetenues) {
+                // Un premier créneau encore en cours a déjà été relevé avec enCours
+                if (serie.finEnMinutes() <= debut && conflitDetector.detectConflict(e, serie)) {
+                    conflits.add(new PaireEnConflit(serie, e));
+                    enConflit = true;
+                }
+            }
+            enCours.add(e);
 
-        if (!conflits.isEmpty()) {
-            throw new ConflitEvenementException(evenement, conflits);
+            if (enConflit) {
+                rejetes.add(e);
+            } else {
+                retenus.add(e);
+                finRetenus = Math.max(fin, finRetenus);
+                if (e.estRecurrent()) {
+                    seriesRetenues.add(e);
+                }
+            }
+        }
+
+        if (retenus.isEmpty()) {
+            return 0;
+        }
+        List<Event> ajoutes = Collections.unmodifiableList(retenus);
+        long numero = journaliser(journal, j -> j.journaliserAjouts(ajoutes));
+        if (numero != 0) {
+            enregistrement[0] = numero;
         }
+        evenements.ajouterTries(proprietaire, retenus);
+        ecouteurs.forEach(ecouteur -> ecouteur.evenementsAjoutes(ajoutes));
+        return retenus.size();
+    }
+
+    /**
+     * Enregistrement d'une modification pas encore appliquée
+     */
+    @FunctionalInterface
+    private interface Journalisation {
+        long appliquer(JournalModifications journal) throws IOException;
+    }
 
-        evenements.ajouter(evenement);
+    /**
+     * Journalise sous le verrou, avant la modification : si l'ajout au journal échoue,
+     * l'exception remonte et la modification n'est pas appliquée
+     *
+     * @return le numéro de l'enregistrement, 0 sans journal
+     */
+    private static long journaliser(JournalModifications journal, Journalisation journalisation) {
+        if (journal == null) {
+            return 0;
+        }
+        try {
+            return journalisation.appliquer(journal);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Modification non journalisée, donc non appliquée", e);
+        }
+    }
+
+    /**
+     * Attend, hors des verrous, que l'enregistrement soit sur disque
+     */
+    private static void attendreDurable(JournalModifications journal, long enregistrement) {
+        if (journal == null || enregistrement == 0) {
+            return;
+        }
+        try {
+            journal.attendreDurable(enregistrement);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Modification appliquée mais pas encore sur disque", e);
+        }
     }
 
     private List<Event> detecterConflits(Event nouvelEvenement) {
         List<Event> conflits = new ArrayList<>();
+        ProprietaireEvenement proprietaire = nouvelEvenement.getProprietaire();
 
-        Iterator<Event> it = evenements.iterator();
-        while (it.hasNext()) {
-            Event existingEvent = it.next();
-            if (conflitDetector.detectConflict(nouvelEvenement, existingEvent)) {
+        // Seuls les événements qui chevauchent les créneaux du nouvel événement sont examinés,
+        // ainsi que les séries du propriétaire, dont les occurrences dépassent le premier créneau
+        List<Event> candidats = evenements.chevauchements(proprietaire,
+                nouvelEvenement.debutEnMinutes(), conflitDetector.finDesOccurrences(nouvelEvenement));
+        for (Event existingEvent : candidats) {
+            if (!existingEvent.estRecurrent() && conflitDetector.detectConflict(nouvelEvenement, existingEvent)) {
                 conflits.add(existingEvent);
             }
         }
+        for (Event serie : evenements.recurrents(proprietaire)) {
+            if (conflitDetector.detectConflict(nouvelEvenement, serie)) {
+                conflits.add(serie);
+            }
+        }
 
         return conflits;
     }
 
     public List<Event> eventsDansPeriode(Periode periode) {
-        Iterator<Event> it = evenements.occurrences(periode);
+        return fluxDansPeriode(periode).collect(Collectors.toList());
+    }
+
+    /**
+     * Événements d'un seul propriétaire dans une période, sans parcourir ceux des autres
+     */
+    public List<Event> eventsDansPeriode(ProprietaireEvenement proprietaire, Periode periode) {
+        return fluxDansPeriode(proprietaire, periode).collect(Collectors.toList());
+    }
+
+    /**
+     * Occurrences de la période dans l'ordre chronologique, calculées à la demande :
+     * une vue d'agenda peut s'arrêter aux N premières sans payer pour les suivantes
+     */
+    public Stream<Event> fluxDansPeriode(Periode periode) {
+        return enFlux(evenements.occurrences(periode));
+    }
+
+    public Stream<Event> fluxDansPeriode(ProprietaireEvenement proprietaire, Periode periode) {
+        return enFlux(evenements.occurrences(proprietaire, periode));
+    }
+
+    private static Stream<Event> enFlux(Iterator<Event> it) {
         return StreamSupport.stream(
                 Spliterators.spliteratorUnknownSize(it, Spliterator.ORDERED),
                 false
-        ).collect(Collectors.toList());
+        );
+    }
+
+    /**
+     * Créneaux occupés et libres d'un propriétaire sur la période, occurrences des séries
+     * récurrentes comprises. Seuls les événements qui chevauchent la période sont lus ; leurs
+     * débuts et leurs fins, en minutes, sont triés séparément puis fusionnés en un balayage.
+     * Deux créneaux qui se touchent forment un seul créneau occupé.
+     */
+    public Disponibilites freeBusy(ProprietaireEvenement proprietaire, Periode periode) {
+        long debut = Event.enMinutes(periode.debut());
+        long fin = Event.enMinutesParExces(periode.fin());
+        Creneaux creneaux = new Creneaux();
+        for (Event e : evenements.chevauchements(proprietaire, debut, fin)) {
+            if (!e.estRecurrent()) {
+                creneaux.ajouter(Math.max(e.debutEnMinutes(), debut), Math.min(e.finEnMinutes(), fin));
+            }
+        }
+        for (Event serie : evenements.recurrents(proprietaire)) {
+            long periodeSerie = serie.periodeEnMinutes();
+            long duree = serie.finEnMinutes() - serie.debutEnMinutes();
+            // Première occurrence qui finit après le début de la période
+            long rang = Math.max(0, Math.floorDiv(debut - duree - serie.debutEnMinutes(), periodeSerie) + 1);
+            for (long occurrence = serie.debutEnMinutes() + rang * periodeSerie; occurrence < fin;
+                 occurrence += periodeSerie) {
+                creneaux.ajouter(Math.max(occurrence, debut), Math.min(occurrence + duree, fin));
+            }
+        }
+
+        List<Periode> occupes = new ArrayList<>();
+        List<Periode> libres = new ArrayList<>();
+        LocalDateTime curseur = periode.debut();
+        long[] debuts = creneaux.debuts();
+        long[] fins = creneaux.fins();
+        int enCours = 0;
+        long debutOccupe = 0;
+        for (int i = 0, j = 0; j < fins.length; ) {
+            // À égalité, le début passe d'abord : des créneaux contigus sont fusionnés
+            if (i < debuts.length && debuts[i] <= fins[j]) {
+                if (enCours++ == 0) {
+                    debutOccupe = debuts[i];
+                }
+                i++;
+            } else {
+                if (--enCours == 0 && debutOccupe < fins[j]) {
+                    LocalDateTime de = max(periode.debut(), enDate(debutOccupe));
+                    LocalDateTime a = min(periode.fin(), enDate(fins[j]));
+                    if (curseur.isBefore(de)) {
+                        libres.add(new Periode(curseur, de));
+                    }
+                    occupes.add(new Periode(de, a));
+                    curseur = a;
+                }
+                j++;
+            }
+        }
+        if (curseur.isBefore(periode.fin())) {
+            libres.add(new Periode(curseur, periode.fin()));
+        }
+        return new Disponibilites(occupes, libres);
+    }
+
+    private static LocalDateTime enDate(long minutes) {
+        return LocalDateTime.ofEpochSecond(minutes * 60, 0, ZoneOffset.UTC);
+    }
+
+    private static LocalDateTime max(LocalDateTime a, LocalDateTime b) {
+        return a.isAfter(b) ? a : b;
+    }
+
+    private static LocalDateTime min(LocalDateTime a, LocalDateTime b) {
+        return a.isBefore(b) ? a : b;
     }
 
+    /**
+     * Débuts et fins de créneaux en minutes, dans deux tableaux de {@code long}
+     */
+    private static final class Creneaux {
+        private long[] debuts = new long[64];
+        private long[] fins = new long[64];
+        private int nombre;
+
+        void ajouter(long debut, long fin) {
+            if (nombre == debuts.length) {
+                debuts = Arrays.copyOf(debuts, nombre * 2);
+                fins = Arrays.copyOf(fins, nombre * 2);
+            }
+            debuts[nombre] = debut;
+            fins[nombre] = fin;
+            nombre++;
+        }
+
+        long[] debuts() {
+            long[] tries = Arrays.copyOf(debuts, nombre);
+            Arrays.sort(tries);
+            return tries;
+        }
+
+        long[] fins() {
+            long[] tries = Arrays.copyOf(fins, nombre);
+            Arrays.sort(tries);
+            return tries;
+        }
+    }
+
+    /**
+     * Supprime un événement en mémoire. Ceux des sources (archives, instantané) sont en
+     * lecture seule : rien n'est alors journalisé ni signalé, et la méthode renvoie false.
+     */
     public boolean supprimerEvenement(EventId id) {
-        return evenements.supprimer(id);
+        Optional<Event> cible = evenements.trouverEnMemoire(id);
+        if (cible.isEmpty()) {
+            return false;
+        }
+        JournalModifications journal = this.journal;
+        long enregistrement = verrous.calculer(cible.get().getProprietaire(), () -> {
+            if (evenements.trouverEnMemoire(id).isEmpty()) {
+                return -1L;
+            }
+            long numero = journaliser(journal, j -> j.journaliserSuppression(id));
+            evenements.supprimer(id);
+            ecouteurs.forEach(ecouteur -> ecouteur.evenementSupprime(cible.get()));
+            return numero;
+        });
+        if (enregistrement < 0) {
+            return false;
+        }
+        attendreDurable(journal, enregistrement);
+        return true;
     }
 
     public Optional<Event> trouverParId(EventId id) {
@@ -92,15 +514,57 @@ public class CalendarManager {
         }
     }
 
+    /**
+     * Deux événements d'un même propriétaire dont les créneaux se chevauchent
+     */
+    public record PaireEnConflit(Event premier, Event second) {
+    }
+
+    /**
+     * Bilan d'un {@link #ajouterEnMasse(Iterable)} : nombre d'événements ajoutés, paires en
+     * conflit relevées et événements écartés (conflit ou identifiant déjà présent)
+     */
+    public record RapportChargement(int ajoutes, List<PaireEnConflit> conflits, List<Event> rejetes) {
+
+        public RapportChargement {
+            conflits = List.copyOf(conflits);
+            rejetes = List.copyOf(rejetes);
+        }
+
+        public boolean estComplet() {
+            return rejetes.isEmpty();
+        }
+    }
+
+    /**
+     * Résultat de {@link #freeBusy(ProprietaireEvenement, Periode)} : créneaux occupés fusionnés
+     * et créneaux libres qui les complètent, par ordre chronologique, bornés à la période
+     */
+    public record Disponibilites(List<Periode> occupes, List<Periode> libres) {
+
+        public Disponibilites {
+            occupes = List.copyOf(occupes);
+            libres = List.copyOf(libres);
+        }
+    }
+
+    /**
+     * Vue immuable de tous les événements, partagée tant que le calendrier n'est pas modifié
+     */
     public List<Event> getAllEvents() {
-        List<Event> result = new ArrayList<>();
-        evenements.iterator().forEachRemaining(result::add);
-        return result;
+        return evenements.instantane();
     }
 
 
     public void clearEvents() {
-        evenements.clear();
+        JournalModifications journal = this.journal;
+        long enregistrement = verrous.calculerSurTous(() -> {
+            long numero = journaliser(journal, JournalModifications::journaliserVidage);
+            evenements.clear();
+            ecouteurs.forEach(EcouteurCalendrier::calendrierVide);
+            return numero;
+        });
+        attendreDurable(journal, enregistrement);
     }
 
     /**
@@ -114,8 +578,22 @@ public class CalendarManager {
     /**
      * Charge le calendrier depuis un fichier JSON
      */
-    public void loadFromJson(String filePath) throws IOException {
+    public RapportChargement loadFromJson(String filePath) throws IOException {
         JsonCalendarSerializer serializer = new JsonCalendarSerializer();
-        serializer.loadCalendarFromFile(this, filePath);
+        return serializer.loadCalendarFromFile(this, filePath);
+    }
+
+    /**
+     * Sauvegarde le calendrier dans le format correspondant à l'extension du fichier
+     */
+    public void sauvegarder(String filePath) throws IOException {
+        CalendarSerializer.pourFichier(filePath).saveCalendarToFile(this, filePath);
+    }
+
+    /**
+     * Charge le calendrier depuis un fichier, dans le format correspondant à son extension
+     */
+    public RapportChargement charger(String filePath) throws IOException {
+        return CalendarSerializer.pourFichier(filePath).loadCalendarFromFile(this, filePath);
     }
-}
\ No newline at end of file
+}
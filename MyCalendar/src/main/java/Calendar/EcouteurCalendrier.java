@@ -0,0 +1,26 @@
+package Calendar;
+
+import Calendar.Events.Event;
+
+import java.util.List;
+
+/**
+ * Reçoit les modifications d'un {@link CalendarManager}, une fois appliquées.
+ * Les notifications d'un même propriétaire arrivent dans l'ordre des modifications,
+ * sous le verrou de ce propriétaire : un écouteur doit donc rester bref.
+ */
+public interface EcouteurCalendrier {
+
+    void evenementAjoute(Event evenement);
+
+    /**
+     * Ajout en bloc d'événements d'un même propriétaire
+     */
+    default void evenementsAjoutes(List<Event> evenements) {
+        evenements.forEach(this::evenementAjoute);
+    }
+
+    void evenementSupprime(Event evenement);
+
+    void calendrierVide();
+}
@@ -104,7 +104,7 @@ public class EventRegistry {
      */
     private EventBasicInfo collectBasicEventInfo(Scanner scanner) {
         System.out.print("Titre : ");
-        TitreEvenement titre = new TitreEvenement(scanner.nextLine());
+        TitreEvenement titre = TitreEvenement.de(scanner.nextLine());
 
         LocalDateTime ldt;
         try {
@@ -147,7 +147,7 @@ public class EventRegistry {
                 info.date(),
                 info.heureDebut(),
                 info.duree(),
-                new ProprietaireEvenement(user.username())
+                ProprietaireEvenement.de(user.username())
         );
     }
 
@@ -168,7 +168,7 @@ public class EventRegistry {
                 info.heureDebut(),
                 info.duree(),
                 new LieuEvenement(lieu),
-                new ProprietaireEvenement(user.username()),
+                ProprietaireEvenement.de(user.username()),
                 new Participants(participantsArray)
         );
     }
@@ -194,7 +194,7 @@ public class EventRegistry {
                 info.heureDebut(),
                 info.duree(),
                 periode,
-                new ProprietaireEvenement(user.username())
+                ProprietaireEvenement.de(user.username())
         );
     }
 
@@ -210,7 +210,7 @@ public class EventRegistry {
                 info.date(),
                 info.heureDebut(),
                 info.duree(),
-                new ProprietaireEvenement(user.username()),
+                ProprietaireEvenement.de(user.username()),
                 personneFetee
         );
     }
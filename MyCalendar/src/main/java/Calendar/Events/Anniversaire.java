@@ -28,6 +28,20 @@ public class Anniversaire extends Event {
         this.personneFetee = personneFetee;
     }
 
+    // Constructeur avec un identifiant existant, pour le rechargement depuis un fichier
+    public Anniversaire(
+            EventId id,
+            TitreEvenement titre,
+            DateEvenement dateDebut,
+            HeureDebut heureDebut,
+            DureeEvenement duree,
+            ProprietaireEvenement proprietaire,
+            String personneFetee
+    ) {
+        super(id, titre, dateDebut, heureDebut, duree, proprietaire);
+        this.personneFetee = personneFetee;
+    }
+
     @Override
     public String description() {
         return "Anniversaire : " + titre.valeur()
@@ -0,0 +1,265 @@
+package Calendar.Events;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Arbre d'intervalles augmenté (AVL) indexant les événements sur [début, fin), en minutes
+ * depuis l'epoch ({@link Event#debutEnMinutes()}) : la recherche ne compare que des entiers.
+ * Chaque nœud regroupe les événements qui commencent au même instant et retient
+ * la plus grande fin de son sous-arbre, ce qui permet d'élaguer la recherche.
+ * <p>
+ * L'arbre est persistant : ajouter et supprimer renvoient un nouvel arbre qui partage
+ * les nœuds non modifiés. Une version publiée peut donc être lue sans verrou pendant
+ * qu'un écrivain en prépare la suivante.
+ */
+final class ArbreIntervalles {
+
+    public static final ArbreIntervalles VIDE = new ArbreIntervalles(null, 0);
+
+    private final Noeud racine;
+    private final int taille;
+
+    private ArbreIntervalles(Noeud racine, int taille) {
+        this.racine = racine;
+        this.taille = taille;
+    }
+
+    /**
+     * Construit en O(n) un arbre équilibré à partir d'événements déjà triés par début
+     */
+    public static ArbreIntervalles construire(List<Event> triesParDebut) {
+        long[] debuts = new long[triesParDebut.size()];
+        List<Event[]> groupes = new ArrayList<>();
+        int i = 0;
+        while (i < triesParDebut.size()) {
+            long debut = triesParDebut.get(i).debutEnMinutes();
+            int j = i + 1;
+            while (j < triesParDebut.size() && triesParDebut.get(j).debutEnMinutes() == debut) {
+                j++;
+            }
+            debuts[groupes.size()] = debut;
+            groupes.add(triesParDebut.subList(i, j).toArray(new Event[0]));
+            i = j;
+        }
+        return new ArbreIntervalles(construire(debuts, groupes, 0, groupes.size()), triesParDebut.size());
+    }
+
+    private static Noeud construire(long[] debuts, List<Event[]> groupes, int de, int a) {
+        if (de >= a) {
+            return null;
+        }
+        int milieu = (de + a) >>> 1;
+        return new Noeud(debuts[milieu], groupes.get(milieu),
+                construire(debuts, groupes, de, milieu), construire(debuts, groupes, milieu + 1, a));
+    }
+
+    public ArbreIntervalles ajouter(Event e) {
+        return new ArbreIntervalles(inserer(racine, e.debutEnMinutes(), e), taille + 1);
+    }
+
+    /**
+     * Renvoie l'arbre sans cet événement (comparé par identité), ou {@code this} s'il en est absent
+     */
+    public ArbreIntervalles supprimer(Event e) {
+        Noeud nouvelleRacine = retirer(racine, e.debutEnMinutes(), e);
+        if (nouvelleRacine == racine) {
+            return this;
+        }
+        return new ArbreIntervalles(nouvelleRacine, taille - 1);
+    }
+
+    /**
+     * Parcourt les événements dont l'intervalle chevauche [debut, fin)
+     */
+    public void chevauchements(long debut, long fin, Consumer<Event> action) {
+        collecter(racine, debut, fin, action);
+    }
+
+    public List<Event> chevauchements(long debut, long fin) {
+        List<Event> resultat = new ArrayList<>();
+        chevauchements(debut, fin, resultat::add);
+        return resultat;
+    }
+
+    /**
+     * Parcourt tous les événements par début croissant
+     */
+    public void parcourir(Consumer<Event> action) {
+        parcourir(racine, action);
+    }
+
+    public int taille() {
+        return taille;
+    }
+
+    public boolean estVide() {
+        return taille == 0;
+    }
+
+    private static void parcourir(Noeud n, Consumer<Event> action) {
+        if (n == null) {
+            return;
+        }
+        parcourir(n.gauche, action);
+        for (Event e : n.evenements) {
+            action.accept(e);
+        }
+        parcourir(n.droite, action);
+    }
+
+    private static void collecter(Noeud n, long debut, long fin, Consumer<Event> action) {
+        // Aucun intervalle du sous-arbre ne se termine après le début recherché
+        if (n == null || n.finMax <= debut) {
+            return;
+        }
+        collecter(n.gauche, debut, fin, action);
+        // Ce nœud et tout le sous-arbre droit commencent trop tard
+        if (n.debut >= fin) {
+            return;
+        }
+        for (Event e : n.evenements) {
+            if (e.finEnMinutes() > debut) {
+                action.accept(e);
+            }
+        }
+        collecter(n.droite, debut, fin, action);
+    }
+
+    private static Noeud inserer(Noeud n, long debut, Event e) {
+        if (n == null) {
+            return new Noeud(debut, new Event[]{e}, null, null);
+        }
+        int cmp = Long.compare(debut, n.debut);
+        if (cmp == 0) {
+            Event[] evenements = Arrays.copyOf(n.evenements, n.evenements.length + 1);
+            evenements[n.evenements.length] = e;
+            return new Noeud(n.debut, evenements, n.gauche, n.droite);
+        }
+        if (cmp < 0) {
+            return equilibrer(n.debut, n.evenements, inserer(n.gauche, debut, e), n.droite);
+        }
+        return equilibrer(n.debut, n.evenements, n.gauche, inserer(n.droite, debut, e));
+    }
+
+    /**
+     * Renvoie le même nœud (par identité) lorsque l'événement est absent
+     */
+    private static Noeud retirer(Noeud n, long debut, Event e) {
+        if (n == null) {
+            return null;
+        }
+        int cmp = Long.compare(debut, n.debut);
+        if (cmp < 0) {
+            Noeud gauche = retirer(n.gauche, debut, e);
+            return gauche == n.gauche ? n : equilibrer(n.debut, n.evenements, gauche, n.droite);
+        }
+        if (cmp > 0) {
+            Noeud droite = retirer(n.droite, debut, e);
+            return droite == n.droite ? n : equilibrer(n.debut, n.evenements, n.gauche, droite);
+        }
+        int position = indexDe(n.evenements, e);
+        if (position < 0) {
+            return n;
+        }
+        if (n.evenements.length > 1) {
+            Event[] restants = new Event[n.evenements.length - 1];
+            System.arraycopy(n.evenements, 0, restants, 0, position);
+            System.arraycopy(n.evenements, position + 1, restants, position, restants.length - position);
+            return new Noeud(n.debut, restants, n.gauche, n.droite);
+        }
+        // Le nœud devient vide : suppression AVL classique
+        if (n.gauche == null) {
+            return n.droite;
+        }
+        if (n.droite == null) {
+            return n.gauche;
+        }
+        Noeud successeur = n.droite;
+        while (successeur.gauche != null) {
+            successeur = successeur.gauche;
+        }
+        return equilibrer(successeur.debut, successeur.evenements, n.gauche, detacherMinimum(n.droite));
+    }
+
+    private static int indexDe(Event[] evenements, Event e) {
+        for (int i = 0; i < evenements.length; i++) {
+            if (evenements[i] == e) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static Noeud detacherMinimum(Noeud n) {
+        if (n.gauche == null) {
+            return n.droite;
+        }
+        return equilibrer(n.debut, n.evenements, detacherMinimum(n.gauche), n.droite);
+    }
+
+    private static Noeud equilibrer(long debut, Event[] evenements, Noeud gauche, Noeud droite) {
+        int facteur = hauteur(gauche) - hauteur(droite);
+        if (facteur > 1) {
+            if (hauteur(gauche.gauche) < hauteur(gauche.droite)) {
+                gauche = rotationGauche(gauche);
+            }
+            return new Noeud(gauche.debut, gauche.evenements, gauche.gauche,
+                    new Noeud(debut, evenements, gauche.droite, droite));
+        }
+        if (facteur < -1) {
+            if (hauteur(droite.droite) < hauteur(droite.gauche)) {
+                droite = rotationDroite(droite);
+            }
+            return new Noeud(droite.debut, droite.evenements,
+                    new Noeud(debut, evenements, gauche, droite.gauche), droite.droite);
+        }
+        return new Noeud(debut, evenements, gauche, droite);
+    }
+
+    private static Noeud rotationDroite(Noeud n) {
+        Noeud pivot = n.gauche;
+        return new Noeud(pivot.debut, pivot.evenements, pivot.gauche,
+                new Noeud(n.debut, n.evenements, pivot.droite, n.droite));
+    }
+
+    private static Noeud rotationGauche(Noeud n) {
+        Noeud pivot = n.droite;
+        return new Noeud(pivot.debut, pivot.evenements,
+                new Noeud(n.debut, n.evenements, n.gauche, pivot.gauche), pivot.droite);
+    }
+
+    private static int hauteur(Noeud n) {
+        return n == null ? 0 : n.hauteur;
+    }
+
+    private static final class Noeud {
+        private final long debut;
+        private final Event[] evenements;
+        private final long finMax;
+        private final int hauteur;
+        private final Noeud gauche;
+        private final Noeud droite;
+
+        private Noeud(long debut, Event[] evenements, Noeud gauche, Noeud droite) {
+            this.debut = debut;
+            this.evenements = evenements;
+            this.gauche = gauche;
+            this.droite = droite;
+            this.hauteur = 1 + Math.max(ArbreIntervalles.hauteur(gauche), ArbreIntervalles.hauteur(droite));
+            long max = evenements[0].finEnMinutes();
+            for (int i = 1; i < evenements.length; i++) {
+                max = Math.max(max, evenements[i].finEnMinutes());
+            }
+            if (gauche != null) {
+                max = Math.max(max, gauche.finMax);
+            }
+            if (droite != null) {
+                max = Math.max(max, droite.finMax);
+            }
+            this.finMax = max;
+        }
+    }
+}
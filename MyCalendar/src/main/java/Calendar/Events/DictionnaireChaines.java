@@ -0,0 +1,152 @@
+package Calendar.Events;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Dictionnaire de chaînes pour {@link MagasinColonnes} : chaque chaîne distincte est rangée
+ * une seule fois, en UTF-8, dans de grandes pages d'octets, et désignée par un code entier.
+ * La table de hachage ne contient que des entiers : aucun objet n'est conservé par chaîne.
+ * <p>
+ * Une chaîne n'est jamais retirée : le magasin recopie celles de ses lignes vivantes dans un
+ * nouveau dictionnaire quand il se compacte ({@link #recopier(DictionnaireChaines, int)}).
+ * <p>
+ * Non synchronisé : le magasin le protège par son verrou.
+ */
+final class DictionnaireChaines {
+
+    private static final int TAILLE_PAGE = 1 << 20;
+    // Au-delà, une chaîne occupe une page à elle seule
+    private static final int LONGUEUR_MAX_PARTAGEE = TAILLE_PAGE / 16;
+
+    private byte[][] pages = new byte[8][];
+    private int nombrePages;
+    private int positionPage = TAILLE_PAGE;
+    private int pageCourante = -1;
+
+    // Par code : page << 32 | position, longueur en octets et hachage
+    private long[] adresses = new long[64];
+    private int[] longueurs = new int[64];
+    private int[] hachages = new int[64];
+    private int nombre;
+    // Code + 1 par case, 0 pour une case vide (sondage linéaire)
+    private int[] table = new int[128];
+
+    /**
+     * Code de la chaîne, qui est ajoutée si elle est absente
+     */
+    int coder(String chaine) {
+        byte[] octets = chaine.getBytes(StandardCharsets.UTF_8);
+        return coder(octets, 0, octets.length, hacher(octets));
+    }
+
+    /**
+     * Code dans ce dictionnaire d'une chaîne d'un autre dictionnaire, recopiée sans être décodée
+     */
+    int recopier(DictionnaireChaines source, int code) {
+        long adresse = source.adresses[code];
+        return coder(source.pages[(int) (adresse >>> 32)], (int) adresse, source.longueurs[code], source.hachages[code]);
+    }
+
+    private int coder(byte[] octets, int debut, int longueur, int hachage) {
+        int masque = table.length - 1;
+        int i = hachage & masque;
+        while (table[i] != 0) {
+            if (egale(table[i] - 1, octets, debut, longueur, hachage)) {
+                return table[i] - 1;
+            }
+            i = (i + 1) & masque;
+        }
+        int code = nombre++;
+        if (code == adresses.length) {
+            int capacite = code * 2;
+            adresses = Arrays.copyOf(adresses, capacite);
+            longueurs = Arrays.copyOf(longueurs, capacite);
+            hachages = Arrays.copyOf(hachages, capacite);
+        }
+        adresses[code] = ranger(octets, debut, longueur);
+        longueurs[code] = longueur;
+        hachages[code] = hachage;
+        table[i] = code + 1;
+        if (nombre * 2 > table.length) {
+            agrandirTable();
+        }
+        return code;
+    }
+
+    /**
+     * Code de la chaîne, ou -1 si elle n'a jamais été codée
+     */
+    int chercher(String chaine) {
+        byte[] octets = chaine.getBytes(StandardCharsets.UTF_8);
+        int hachage = hacher(octets);
+        int masque = table.length - 1;
+        for (int i = hachage & masque; table[i] != 0; i = (i + 1) & masque) {
+            if (egale(table[i] - 1, octets, 0, octets.length, hachage)) {
+                return table[i] - 1;
+            }
+        }
+        return -1;
+    }
+
+    String decoder(int code) {
+        long adresse = adresses[code];
+        return new String(pages[(int) (adresse >>> 32)], (int) adresse, longueurs[code], StandardCharsets.UTF_8);
+    }
+
+    int taille() {
+        return nombre;
+    }
+
+    private boolean egale(int code, byte[] octets, int debut, int longueur, int hachage) {
+        if (hachages[code] != hachage || longueurs[code] != longueur) {
+            return false;
+        }
+        long adresse = adresses[code];
+        int position = (int) adresse;
+        return Arrays.equals(pages[(int) (adresse >>> 32)], position, position + longueur,
+                octets, debut, debut + longueur);
+    }
+
+    private long ranger(byte[] octets, int debut, int longueur) {
+        if (longueur > LONGUEUR_MAX_PARTAGEE) {
+            int page = nouvellePage(longueur);
+            System.arraycopy(octets, debut, pages[page], 0, longueur);
+            return (long) page << 32;
+        }
+        if (positionPage + longueur > TAILLE_PAGE) {
+            pageCourante = nouvellePage(TAILLE_PAGE);
+            positionPage = 0;
+        }
+        System.arraycopy(octets, debut, pages[pageCourante], positionPage, longueur);
+        long adresse = (long) pageCourante << 32 | positionPage;
+        positionPage += longueur;
+        return adresse;
+    }
+
+    private int nouvellePage(int taille) {
+        if (nombrePages == pages.length) {
+            pages = Arrays.copyOf(pages, nombrePages * 2);
+        }
+        pages[nombrePages] = new byte[taille];
+        return nombrePages++;
+    }
+
+    private void agrandirTable() {
+        int[] nouvelle = new int[table.length * 2];
+        int masque = nouvelle.length - 1;
+        for (int code = 0; code < nombre; code++) {
+            int i = hachages[code] & masque;
+            while (nouvelle[i] != 0) {
+                i = (i + 1) & masque;
+            }
+            nouvelle[i] = code + 1;
+        }
+        table = nouvelle;
+    }
+
+    private static int hacher(byte[] octets) {
+        int h = Arrays.hashCode(octets) * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+}
@@ -4,8 +4,10 @@ package Calendar.Events;
 import Calendar.vo.*;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.Iterator;
-import java.util.stream.Stream;
+import java.util.NoSuchElementException;
 
 @JsonIgnoreProperties(ignoreUnknown = true)
 public class EvenementPeriodique extends Event {
@@ -17,6 +19,19 @@ public class EvenementPeriodique extends Event {
         this.frequenceJours = frequenceJours;
     }
 
+    // Constructeur avec un identifiant existant, pour le rechargement depuis un fichier
+    public EvenementPeriodique(EventId id, TitreEvenement titre, DateEvenement dateDebut,
+                               HeureDebut heureDebut, DureeEvenement duree, int frequenceJours, ProprietaireEvenement proprietaire) {
+        super(id, titre, dateDebut, heureDebut, duree, proprietaire);
+        this.frequenceJours = frequenceJours;
+    }
+
+    // Vue d'une occurrence : partage l'identifiant et les value objects de la série
+    private EvenementPeriodique(EvenementPeriodique serie, DateEvenement dateOccurrence) {
+        super(serie.id, serie.titre, dateOccurrence, serie.heureDebut, serie.duree, serie.proprietaire);
+        this.frequenceJours = serie.frequenceJours;
+    }
+
     protected EvenementPeriodique() {
         super();
         frequenceJours = 0;
@@ -26,6 +41,16 @@ public class EvenementPeriodique extends Event {
         return frequenceJours;
     }
 
+    @Override
+    public boolean estRecurrent() {
+        return frequenceJours > 0;
+    }
+
+    @Override
+    public long periodeEnMinutes() {
+        return frequenceJours > 0 ? frequenceJours * 24L * 60 : 0;
+    }
+
     @Override
     public String description() {
         return "Événement périodique : " + titre.valeur()
@@ -35,21 +60,53 @@ public class EvenementPeriodique extends Event {
 
     @Override
     public Iterator<Event> occurrences(Periode periode) {
-        return Stream.iterate(
-                        dateDebut.valeur(),
-                        d -> d.isBefore(periode.fin()),
-                        d -> d.plusDays(frequenceJours)
-                )
-                .filter(d -> !d.isBefore(periode.debut()))
-                .map(d -> (Event) new EvenementPeriodique(
-                        titre,
-                        new DateEvenement(d),
-                        heureDebut,
-                        duree,
-                        frequenceJours,
-                        proprietaire
-                ))
-                .toList()
-                .iterator();
+        if (frequenceJours <= 0) {
+            return singleOccurrenceIterator(periode);
+        }
+        return new IterateurOccurrences(periode);
+    }
+
+    /**
+     * Première occurrence à partir de {@code debut}, obtenue par calcul plutôt qu'en
+     * parcourant toutes les occurrences depuis le début de la série
+     */
+    private LocalDateTime premiereOccurrenceDepuis(LocalDateTime debut) {
+        LocalDateTime origine = dateDebut.valeur();
+        long jours = ChronoUnit.DAYS.between(origine, debut);
+        long pas = Math.max(0, Math.ceilDiv(jours, (long) frequenceJours));
+        LocalDateTime occurrence = origine.plusDays(pas * frequenceJours);
+        // ChronoUnit.DAYS ne compte que les jours entiers : au plus un pas de rattrapage
+        while (occurrence.isBefore(debut)) {
+            occurrence = occurrence.plusDays(frequenceJours);
+        }
+        return occurrence;
+    }
+
+    /**
+     * Itérateur paresseux : chaque occurrence n'est créée qu'à la demande
+     */
+    private final class IterateurOccurrences implements Iterator<Event> {
+        private final LocalDateTime fin;
+        private LocalDateTime prochaine;
+
+        private IterateurOccurrences(Periode periode) {
+            this.fin = periode.fin();
+            this.prochaine = premiereOccurrenceDepuis(periode.debut());
+        }
+
+        @Override
+        public boolean hasNext() {
+            return prochaine.isBefore(fin);
+        }
+
+        @Override
+        public Event next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            Event occurrence = new EvenementPeriodique(EvenementPeriodique.this, new DateEvenement(prochaine));
+            prochaine = prochaine.plusDays(frequenceJours);
+            return occurrence;
+        }
     }
 }
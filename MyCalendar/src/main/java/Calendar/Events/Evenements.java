@@ -2,56 +2,192 @@ package Calendar.Events;
 
 import Calendar.vo.EventId;
 import Calendar.vo.Periode;
+import Calendar.vo.ProprietaireEvenement;
 
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
 import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Optional;
-import java.util.Spliterator;
-import java.util.Spliterators;
-import java.util.stream.StreamSupport;
+import java.util.concurrent.CopyOnWriteArrayList;
 
+/**
+ * Ensemble des événements du calendrier, utilisable depuis plusieurs threads.
+ * <p>
+ * Par défaut, chaque propriétaire possède une partition immuable, remplacée atomiquement à
+ * chaque modification : les lectures ne prennent jamais de verrou et ne bloquent pas les
+ * écrivains. {@link #enColonnes()} range plutôt les événements dans des colonnes de types
+ * primitifs, pour en tenir des dizaines de millions. L'atomicité d'une vérification suivie
+ * d'un ajout reste à la charge de l'appelant (voir {@link Calendar.CalendarManager}).
+ */
 public class Evenements implements Iterable<Event> {
 
-    private final List<Event> interne;
+    private final MagasinEvenements magasin;
+    // Événements en lecture seule consultés en plus de ceux en mémoire
+    private final List<SourceEvenements> sources;
 
     public Evenements() {
-        this.interne = new ArrayList<>();
+        this(new MagasinObjets());
+    }
+
+    private Evenements(MagasinEvenements magasin) {
+        this.magasin = magasin;
+        this.sources = new CopyOnWriteArrayList<>();
+    }
+
+    /**
+     * Événements rangés en colonnes (début, durée, propriétaire, type, chaînes en dictionnaire)
+     * plutôt qu'en objets : quelques dizaines d'octets par événement et presque rien à parcourir
+     * pour le ramasse-miettes. Les {@link Event} ne sont créés qu'à la lecture : deux lectures
+     * du même événement renvoient deux instances égales champ à champ, mais distinctes.
+     * Les lectures et les écritures se partagent un verrou lecteurs-rédacteur.
+     */
+    public static Evenements enColonnes() {
+        return new Evenements(new MagasinColonnes());
+    }
+
+    public void ajouterSource(SourceEvenements source) {
+        sources.add(source);
+    }
+
+    public void retirerSource(SourceEvenements source) {
+        sources.remove(source);
     }
 
     public void ajouter(Event e) {
-        interne.add(e);
+        magasin.ajouter(e);
+    }
+
+    /**
+     * Ajoute d'un coup des événements d'un même propriétaire, déjà triés par début :
+     * la partition est reconstruite en une passe au lieu d'une insertion par événement
+     */
+    public void ajouterTries(ProprietaireEvenement proprietaire, List<Event> triesParDebut) {
+        if (triesParDebut.isEmpty()) {
+            return;
+        }
+        magasin.ajouterTries(proprietaire, triesParDebut);
     }
 
     public boolean supprimer(EventId id) {
-        return interne.removeIf(e -> e.getId().equals(id));
+        return magasin.supprimer(id);
+    }
+
+    /**
+     * Recherche parmi les seuls événements en mémoire, les seuls modifiables : ceux des
+     * sources sont ignorés
+     */
+    public Optional<Event> trouverEnMemoire(EventId id) {
+        return Optional.ofNullable(magasin.trouver(id));
     }
 
     public Optional<Event> trouverParId(EventId id) {
-        return interne.stream()
-                .filter(e -> e.getId().equals(id))
-                .findFirst();
+        Event trouve = magasin.trouver(id);
+        if (trouve != null || sources.isEmpty()) {
+            return Optional.ofNullable(trouve);
+        }
+        for (SourceEvenements source : sources) {
+            Optional<Event> archive = source.trouverParId(id);
+            if (archive.isPresent()) {
+                return archive;
+            }
+        }
+        return Optional.empty();
+    }
+
+    public int taille() {
+        return magasin.taille();
+    }
+
+    /**
+     * Renvoie les événements dont l'intervalle [début, fin) chevauche celui demandé,
+     * sources comprises, sans parcourir l'ensemble du calendrier
+     */
+    public List<Event> chevauchements(LocalDateTime debut, LocalDateTime fin) {
+        List<Event> resultat = new ArrayList<>();
+        magasin.chevauchements(Event.enMinutes(debut), Event.enMinutesParExces(fin), resultat::add);
+        for (SourceEvenements source : sources) {
+            resultat.addAll(source.chevauchements(debut, fin));
+        }
+        return resultat;
+    }
+
+    /**
+     * Comme {@link #chevauchements(LocalDateTime, LocalDateTime)}, limité à la partition d'un propriétaire
+     */
+    public List<Event> chevauchements(ProprietaireEvenement proprietaire, LocalDateTime debut, LocalDateTime fin) {
+        List<Event> resultat = new ArrayList<>();
+        magasin.chevauchements(proprietaire, Event.enMinutes(debut), Event.enMinutesParExces(fin), resultat::add);
+        for (SourceEvenements source : sources) {
+            resultat.addAll(source.chevauchements(proprietaire, debut, fin));
+        }
+        return resultat;
+    }
+
+    /**
+     * Comme {@link #chevauchements(ProprietaireEvenement, LocalDateTime, LocalDateTime)}, sur un
+     * créneau en minutes depuis l'epoch : aucune date n'est créée sauf pour interroger les sources
+     */
+    public List<Event> chevauchements(ProprietaireEvenement proprietaire, long debut, long fin) {
+        List<Event> resultat = new ArrayList<>();
+        magasin.chevauchements(proprietaire, debut, fin, resultat::add);
+        if (!sources.isEmpty()) {
+            LocalDateTime debutDate = LocalDateTime.ofEpochSecond(debut * 60, 0, ZoneOffset.UTC);
+            LocalDateTime finDate = LocalDateTime.ofEpochSecond(fin * 60, 0, ZoneOffset.UTC);
+            for (SourceEvenements source : sources) {
+                resultat.addAll(source.chevauchements(proprietaire, debutDate, finDate));
+            }
+        }
+        return resultat;
     }
 
+    /**
+     * Séries récurrentes du propriétaire, y compris celles des sources
+     */
+    public List<Event> recurrents(ProprietaireEvenement proprietaire) {
+        List<Event> resultat = new ArrayList<>();
+        magasin.recurrents(proprietaire, resultat::add);
+        for (SourceEvenements source : sources) {
+            resultat.addAll(source.recurrents(proprietaire));
+        }
+        return resultat;
+    }
+
+    /**
+     * Occurrences de la période dans l'ordre chronologique, produites à la demande
+     */
     public Iterator<Event> occurrences(Periode periode) {
-        var occurrences = interne.stream()
-                .flatMap(e -> {
-                    Iterator<Event> it = e.occurrences(periode);
-                    return StreamSupport.stream(
-                            Spliterators.spliteratorUnknownSize(it, Spliterator.ORDERED),
-                            false
-                    );
-                })
-                .toList();
-        return occurrences.iterator();
+        List<Iterator<Event>> flux = new ArrayList<>();
+        magasin.occurrences(periode, flux::add);
+        sources.forEach(source -> flux.add(source.occurrences(periode)));
+        return new FusionOccurrences(flux);
+    }
+
+    /**
+     * Occurrences d'un seul propriétaire : seule sa partition est parcourue
+     */
+    public Iterator<Event> occurrences(ProprietaireEvenement proprietaire, Periode periode) {
+        List<Iterator<Event>> flux = new ArrayList<>();
+        magasin.occurrences(proprietaire, periode, flux::add);
+        sources.forEach(source -> flux.add(source.occurrences(proprietaire, periode)));
+        return new FusionOccurrences(flux);
+    }
+
+    /**
+     * Vue immuable de tous les événements. Elle n'est recopiée qu'après une modification :
+     * les lectures successives la partagent, et une modification ultérieure ne l'affecte pas.
+     */
+    public List<Event> instantane() {
+        return magasin.instantane();
     }
 
     @Override
     public Iterator<Event> iterator() {
-        return new ArrayList<>(interne).iterator(); // Copie défensive
+        return instantane().iterator();
     }
 
     public void clear() {
-        interne.clear();
+        magasin.vider();
     }
-}
\ No newline at end of file
+}
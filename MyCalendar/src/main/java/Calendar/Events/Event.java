@@ -6,6 +6,7 @@ import com.fasterxml.jackson.annotation.JsonSubTypes;
 import com.fasterxml.jackson.annotation.JsonTypeInfo;
 
 import java.time.LocalDateTime;
+import java.time.ZoneOffset;
 import java.util.Iterator;
 import java.util.stream.Stream;
 
@@ -17,12 +18,19 @@ import java.util.stream.Stream;
         @JsonSubTypes.Type(value = Anniversaire.class, name = "Anniversaire")
 })
 public abstract class Event {
+    private static final long MINUTES_PAR_JOUR = 24 * 60;
+    private static final long NON_CALCULE = Long.MIN_VALUE;
+
     protected final TitreEvenement titre;
     protected final DateEvenement dateDebut;
     protected final HeureDebut heureDebut;
     protected final DureeEvenement duree;
     protected final ProprietaireEvenement proprietaire;
     protected final EventId id;
+    // Créneau en minutes depuis l'epoch (UTC), pour comparer sans créer de LocalDateTime.
+    // Jackson renseigne les champs après le constructeur par défaut : calcul à la première lecture.
+    private transient long debutMinutes = NON_CALCULE;
+    private transient long finMinutes = NON_CALCULE;
 
     // Constructeur par défaut pour Jackson
     protected Event() {
@@ -36,23 +44,40 @@ public abstract class Event {
 
     protected Event(TitreEvenement titre, DateEvenement dateDebut, HeureDebut heureDebut,
                     DureeEvenement duree, ProprietaireEvenement proprietaire) {
-        this.titre = titre;
+        this.titre = partage(titre);
         this.dateDebut = dateDebut;
         this.heureDebut = heureDebut;
         this.duree = duree;
-        this.proprietaire = proprietaire;
+        this.proprietaire = partage(proprietaire);
         this.id = EventId.generate();
+        calculerCreneau();
     }
 
     // Constructeur alternatif avec ID spécifique
     protected Event(EventId id, TitreEvenement titre, DateEvenement dateDebut, HeureDebut heureDebut,
                     DureeEvenement duree, ProprietaireEvenement proprietaire) {
         this.id = id;
-        this.titre = titre;
+        this.titre = partage(titre);
         this.dateDebut = dateDebut;
         this.heureDebut = heureDebut;
         this.duree = duree;
-        this.proprietaire = proprietaire;
+        this.proprietaire = partage(proprietaire);
+        calculerCreneau();
+    }
+
+    // Propriétaire et titre partagés : une seule chaîne par valeur répétée
+    private static ProprietaireEvenement partage(ProprietaireEvenement proprietaire) {
+        return proprietaire == null ? null : proprietaire.partage();
+    }
+
+    private static TitreEvenement partage(TitreEvenement titre) {
+        return titre == null ? null : titre.partage();
+    }
+
+    private void calculerCreneau() {
+        debutMinutes = dateDebut.valeur().toLocalDate().toEpochDay() * MINUTES_PAR_JOUR
+                + heureDebut.heure() * 60L + heureDebut.minute();
+        finMinutes = debutMinutes + duree.valeur();
     }
 
     public TitreEvenement getTitre() {
@@ -91,6 +116,45 @@ public abstract class Event {
         return getStartDateTime().plusMinutes(duree.valeur());
     }
 
+    /**
+     * Début en minutes depuis l'epoch ; les secondes de la date sont ignorées, comme
+     * dans {@link HeureDebut}. Deux créneaux se chevauchent si chacun commence avant la
+     * fin de l'autre.
+     */
+    public long debutEnMinutes() {
+        if (debutMinutes == NON_CALCULE) {
+            // Même valeur quel que soit le thread qui la calcule
+            calculerCreneau();
+        }
+        return debutMinutes;
+    }
+
+    /**
+     * Fin (exclue) en minutes depuis l'epoch
+     */
+    public long finEnMinutes() {
+        if (finMinutes == NON_CALCULE) {
+            calculerCreneau();
+        }
+        return finMinutes;
+    }
+
+    /**
+     * Minutes depuis l'epoch d'un instant, à la minute inférieure
+     */
+    public static long enMinutes(LocalDateTime instant) {
+        return Math.floorDiv(instant.toEpochSecond(ZoneOffset.UTC), 60);
+    }
+
+    /**
+     * Minutes depuis l'epoch d'un instant, à la minute supérieure. Un créneau commence sur
+     * une minute entière : il commence avant {@code fin} s'il commence avant cette valeur.
+     */
+    public static long enMinutesParExces(LocalDateTime instant) {
+        long minutes = enMinutes(instant);
+        return instant.getSecond() == 0 && instant.getNano() == 0 ? minutes : minutes + 1;
+    }
+
     @JsonIgnore
     protected Iterator<Event> singleOccurrenceIterator(Periode periode) {
         return Stream.<Event>of(this)
@@ -99,6 +163,20 @@ public abstract class Event {
                 .iterator();
     }
 
+    /**
+     * Indique si l'événement a des occurrences au-delà de son premier créneau
+     */
+    public boolean estRecurrent() {
+        return false;
+    }
+
+    /**
+     * Écart en minutes entre deux occurrences, ou 0 pour un événement non récurrent
+     */
+    public long periodeEnMinutes() {
+        return 0;
+    }
+
     public abstract String description();
 
     public abstract Iterator<Event> occurrences(Periode periode);
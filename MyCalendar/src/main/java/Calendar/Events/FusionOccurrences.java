@@ -0,0 +1,70 @@
+package Calendar.Events;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+
+/**
+ * Fusion k-voies d'itérateurs d'occurrences déjà ordonnés : une file de priorité
+ * ne contient que la tête de chaque itérateur, et l'occurrence suivante n'est
+ * demandée à sa source qu'au moment où la précédente est consommée.
+ */
+public class FusionOccurrences implements Iterator<Event> {
+
+    private final PriorityQueue<Tete> file;
+
+    public FusionOccurrences(List<Iterator<Event>> sources) {
+        List<Tete> tetes = new ArrayList<>(sources.size());
+        for (Iterator<Event> source : sources) {
+            if (source.hasNext()) {
+                tetes.add(new Tete(source));
+            }
+        }
+        this.file = new PriorityQueue<>(tetes);
+    }
+
+    @Override
+    public boolean hasNext() {
+        return !file.isEmpty();
+    }
+
+    @Override
+    public Event next() {
+        Tete tete = file.poll();
+        if (tete == null) {
+            throw new NoSuchElementException();
+        }
+        Event courant = tete.courant;
+        if (tete.avancer()) {
+            file.add(tete);
+        }
+        return courant;
+    }
+
+    private static final class Tete implements Comparable<Tete> {
+        private final Iterator<Event> source;
+        private Event courant;
+        private long debut;
+
+        private Tete(Iterator<Event> source) {
+            this.source = source;
+            avancer();
+        }
+
+        private boolean avancer() {
+            if (!source.hasNext()) {
+                return false;
+            }
+            courant = source.next();
+            debut = courant.debutEnMinutes();
+            return true;
+        }
+
+        @Override
+        public int compareTo(Tete autre) {
+            return Long.compare(debut, autre.debut);
+        }
+    }
+}
@@ -0,0 +1,954 @@
+package Calendar.Events;
+
+import Calendar.vo.*;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.RandomAccess;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+/**
+ * Rangement en colonnes : une ligne par événement, répartie dans des tableaux de types
+ * primitifs (début en minutes, durée, propriétaire, type, codes des chaînes dans un
+ * {@link DictionnaireChaines}, identifiant UUID sur deux {@code long}). Une poignée de grands
+ * tableaux remplace les sept à neuf objets de chaque événement : le ramasse-miettes n'a
+ * presque rien à parcourir.
+ * <p>
+ * Les {@link Event} ne sont créés qu'à la lecture. Chaque propriétaire garde ses lignes
+ * triées par début, plus une courte liste de lignes récentes fusionnée par paquets : un
+ * chevauchement se résout par recherche dichotomique, comme dans l'instantané projeté.
+ * <p>
+ * Les lignes ne sont jamais réécrites, ce qui permet aux vues déjà publiées de rester
+ * lisibles : une ligne supprimée quitte la table des identifiants et reste marquée dans la
+ * suite triée de son propriétaire jusqu'à la fusion suivante. Quand les lignes supprimées
+ * dépassent les vivantes, celles-ci sont recopiées dans une nouvelle génération de colonnes,
+ * avec un dictionnaire qui ne garde que leurs chaînes ; les vues publiées gardent l'ancienne.
+ * Les événements d'un autre type que les quatre connus sont conservés tels quels.
+ *
+ * @see Calendar.Persistence.InstantaneMappe
+ */
+final class MagasinColonnes implements MagasinEvenements {
+
+    private static final long MINUTES_PAR_JOUR = 24 * 60;
+    private static final int ABSENT = -1;
+
+    private static final byte AUTRE = 0;
+    private static final byte RENDEZ_VOUS = 1;
+    private static final byte REUNION = 2;
+    private static final byte EVENEMENT_PERIODIQUE = 3;
+    private static final byte ANNIVERSAIRE = 4;
+    private static final int MASQUE_TYPE = 0x0F;
+    // Identifiant qui n'est pas un UUID canonique : idHaut est alors un code du dictionnaire
+    private static final int ID_TEXTUEL = 0x10;
+    // Ligne supprimée, encore présente dans une suite triée ou une vue publiée
+    private static final int SUPPRIMEE = 0x20;
+    // En dessous, les lignes supprimées ne déclenchent pas de compactage
+    private static final int COMPACTAGE_MIN = 1024;
+
+    private final ReentrantReadWriteLock verrou = new ReentrantReadWriteLock();
+    // Remplacées à chaque vidage : les vues publiées gardent les leurs
+    private Colonnes colonnes = new Colonnes();
+    private long version;
+    private VueColonnes instantane;
+
+    @Override
+    public void ajouter(Event e) {
+        verrou.writeLock().lock();
+        try {
+            colonnes.verifierAbsent(e);
+            int ligne = colonnes.ajouterLigne(e);
+            colonnes.index(e.getProprietaire()).ajouter(ligne);
+            version++;
+        } finally {
+            verrou.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void ajouterTries(ProprietaireEvenement proprietaire, List<Event> triesParDebut) {
+        verrou.writeLock().lock();
+        try {
+            for (Event e : triesParDebut) {
+                colonnes.verifierAbsent(e);
+            }
+            int[] lignes = new int[triesParDebut.size()];
+            for (int i = 0; i < lignes.length; i++) {
+                lignes[i] = colonnes.ajouterLigne(triesParDebut.get(i));
+            }
+            colonnes.index(proprietaire).ajouterTries(lignes);
+            version++;
+        } finally {
+            verrou.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public boolean supprimer(EventId id) {
+        verrou.writeLock().lock();
+        try {
+            int ligne = colonnes.chercherLigne(id);
+            if (ligne == ABSENT) {
+                return false;
+            }
+            colonnes.retirerLigne(ligne);
+            if (colonnes.nombre - colonnes.vivantes > Math.max(COMPACTAGE_MIN, colonnes.vivantes)) {
+                colonnes = colonnes.compacter();
+            }
+            version++;
+            return true;
+        } finally {
+            verrou.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public Event trouver(EventId id) {
+        verrou.readLock().lock();
+        try {
+            int ligne = colonnes.chercherLigne(id);
+            return ligne == ABSENT ? null : colonnes.lire(ligne);
+        } finally {
+            verrou.readLock().unlock();
+        }
+    }
+
+    @Override
+    public int taille() {
+        verrou.readLock().lock();
+        try {
+            return colonnes.vivantes;
+        } finally {
+            verrou.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void chevauchements(long debut, long fin, Consumer<Event> action) {
+        verrou.readLock().lock();
+        try {
+            for (Colonnes.IndexProprietaire index : colonnes.proprietaires) {
+                index.chevauchements(debut, fin, action);
+            }
+        } finally {
+            verrou.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void chevauchements(ProprietaireEvenement proprietaire, long debut, long fin, Consumer<Event> action) {
+        verrou.readLock().lock();
+        try {
+            Colonnes.IndexProprietaire index = colonnes.indexExistant(proprietaire);
+            if (index != null) {
+                index.chevauchements(debut, fin, action);
+            }
+        } finally {
+            verrou.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void recurrents(ProprietaireEvenement proprietaire, Consumer<Event> action) {
+        verrou.readLock().lock();
+        try {
+            Colonnes.IndexProprietaire index = colonnes.indexExistant(proprietaire);
+            if (index != null) {
+                index.recurrents(action);
+            }
+        } finally {
+            verrou.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void occurrences(Periode periode, Consumer<Iterator<Event>> flux) {
+        verrou.readLock().lock();
+        try {
+            for (Colonnes.IndexProprietaire index : colonnes.proprietaires) {
+                index.occurrences(periode, flux);
+            }
+        } finally {
+            verrou.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void occurrences(ProprietaireEvenement proprietaire, Periode periode, Consumer<Iterator<Event>> flux) {
+        verrou.readLock().lock();
+        try {
+            Colonnes.IndexProprietaire index = colonnes.indexExistant(proprietaire);
+            if (index != null) {
+                index.occurrences(periode, flux);
+            }
+        } finally {
+            verrou.readLock().unlock();
+        }
+    }
+
+    /**
+     * Vue paresseuse : seuls les numéros de ligne sont recopiés, et chaque événement n'est
+     * créé qu'au moment où il est lu. Elle n'est reconstruite qu'après une modification.
+     */
+    @Override
+    public List<Event> instantane() {
+        verrou.readLock().lock();
+        try {
+            VueColonnes vue = instantane;
+            if (vue != null && vue.version == version) {
+                return vue;
+            }
+            int[] lignes = new int[colonnes.vivantes];
+            int n = 0;
+            for (Colonnes.IndexProprietaire index : colonnes.proprietaires) {
+                n = index.copierTriees(lignes, n);
+            }
+            vue = new VueColonnes(colonnes, lignes, version);
+            // Course bénigne entre lecteurs : deux vues identiques
+            instantane = vue;
+            return vue;
+        } finally {
+            verrou.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void vider() {
+        verrou.writeLock().lock();
+        try {
+            colonnes = new Colonnes();
+            version++;
+        } finally {
+            verrou.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Les colonnes d'une génération du magasin, lues et modifiées sous le verrou.
+     * Une génération est remplacée à chaque vidage ou compactage.
+     */
+    private final class Colonnes {
+
+        private int nombre;
+        private int vivantes;
+        private long[] debut = new long[1024];
+        private int[] duree = new int[1024];
+        // Heure de la date de l'événement, en secondes dans son jour (celui du début)
+        private int[] secondeDate = new int[1024];
+        private byte[] type = new byte[1024];
+        private int[] proprietaire = new int[1024];
+        private int[] titre = new int[1024];
+        // Lieu, fréquence ou personne fêtée selon le type
+        private int[] complement = new int[1024];
+        // Position de la liste des participants dans listes
+        private int[] participants = new int[1024];
+        private long[] idHaut = new long[1024];
+        private long[] idBas = new long[1024];
+        // Cas rares, gardés à part plutôt qu'en colonne
+        private final Map<Integer, Integer> nanosDate = new HashMap<>();
+        private final Map<Integer, Event> autres = new HashMap<>();
+
+        // Listes de codes : [n, code 1, ..., code n]
+        private int[] listes = new int[256];
+        private int tailleListes;
+
+        private final DictionnaireChaines chaines = new DictionnaireChaines();
+        private final Map<String, Integer> codesProprietaires = new HashMap<>();
+        private final List<IndexProprietaire> proprietaires = new ArrayList<>();
+
+        // Ligne + 1 par case, 0 pour une case vide (sondage linéaire)
+        private int[] tableIds = new int[2048];
+
+        void verifierAbsent(Event e) {
+            if (chercherLigne(e.getId()) != ABSENT) {
+                throw new IllegalArgumentException("Un événement avec l'identifiant " + e.getId() + " existe déjà.");
+            }
+        }
+
+        IndexProprietaire index(ProprietaireEvenement p) {
+            return proprietaires.get(codeProprietaire(p));
+        }
+
+        private int codeProprietaire(ProprietaireEvenement p) {
+            return codesProprietaires.computeIfAbsent(p.valeur(), v -> {
+                proprietaires.add(new IndexProprietaire(p));
+                return proprietaires.size() - 1;
+            });
+        }
+
+        IndexProprietaire indexExistant(ProprietaireEvenement p) {
+            Integer code = codesProprietaires.get(p.valeur());
+            return code == null ? null : proprietaires.get(code);
+        }
+
+        int ajouterLigne(Event e) {
+            if (nombre == debut.length) {
+                agrandir();
+            }
+            int ligne = nombre++;
+            debut[ligne] = e.debutEnMinutes();
+            duree[ligne] = e.getDuree().valeur();
+            LocalDateTime date = e.getDateDebut().valeur();
+            secondeDate[ligne] = date.toLocalTime().toSecondOfDay();
+            if (date.getNano() != 0) {
+                nanosDate.put(ligne, date.getNano());
+            }
+            proprietaire[ligne] = codeProprietaire(e.getProprietaire());
+            titre[ligne] = coder(e.getTitre() == null ? null : e.getTitre().valeur());
+
+            int t = AUTRE;
+            if (e.getClass() == RendezVous.class) {
+                t = RENDEZ_VOUS;
+            } else if (e.getClass() == Reunion.class) {
+                Reunion reunion = (Reunion) e;
+                t = REUNION;
+                complement[ligne] = coder(reunion.getLieu() == null ? null : reunion.getLieu().valeur());
+                participants[ligne] = reunion.getParticipants() == null ? ABSENT : ajouterListe(reunion.getParticipants().noms());
+            } else if (e.getClass() == EvenementPeriodique.class) {
+                t = EVENEMENT_PERIODIQUE;
+                complement[ligne] = ((EvenementPeriodique) e).getFrequenceJours();
+            } else if (e.getClass() == Anniversaire.class) {
+                t = ANNIVERSAIRE;
+                complement[ligne] = coder(((Anniversaire) e).getPersonneFetee());
+            } else {
+                autres.put(ligne, e);
+            }
+
+            EventId id = e.getId();
+            if (id.estCompact()) {
+                idHaut[ligne] = id.poidsFort();
+                idBas[ligne] = id.poidsFaible();
+            } else {
+                t |= ID_TEXTUEL;
+                idHaut[ligne] = chaines.coder(id.valeur());
+                idBas[ligne] = 0;
+            }
+            type[ligne] = (byte) t;
+            insererId(ligne);
+            vivantes++;
+            return ligne;
+        }
+
+        void retirerLigne(int ligne) {
+            retirerId(ligne);
+            type[ligne] |= SUPPRIMEE;
+            proprietaires.get(proprietaire[ligne]).retirer(ligne);
+            vivantes--;
+        }
+
+        private boolean estSupprimee(int ligne) {
+            return (type[ligne] & SUPPRIMEE) != 0;
+        }
+
+        /**
+         * Nouvelle génération avec les seules lignes vivantes, propriétaire par propriétaire et
+         * par début croissant : les lignes et les chaînes des événements supprimés sont libérées
+         */
+        Colonnes compacter() {
+            Colonnes copie = new Colonnes();
+            // Code de chaque chaîne dans le nouveau dictionnaire, une fois recopiée
+            int[] codes = new int[chaines.taille()];
+            Arrays.fill(codes, ABSENT);
+            int[] lignes = new int[vivantes];
+            for (IndexProprietaire index : proprietaires) {
+                int n = index.copierTriees(lignes, 0);
+                if (n == 0) {
+                    continue;
+                }
+                int[] recopiees = new int[n];
+                for (int i = 0; i < n; i++) {
+                    recopiees[i] = copie.recopierLigne(this, lignes[i], codes);
+                }
+                copie.index(index.proprietaire).ajouterTries(recopiees);
+            }
+            return copie;
+        }
+
+        private int recopierLigne(Colonnes source, int origine, int[] codes) {
+            if (nombre == debut.length) {
+                agrandir();
+            }
+            int ligne = nombre++;
+            debut[ligne] = source.debut[origine];
+            duree[ligne] = source.duree[origine];
+            secondeDate[ligne] = source.secondeDate[origine];
+            type[ligne] = source.type[origine];
+            Integer nanos = source.nanosDate.get(origine);
+            if (nanos != null) {
+                nanosDate.put(ligne, nanos);
+            }
+            proprietaire[ligne] = codeProprietaire(source.proprietaires.get(source.proprietaire[origine]).proprietaire);
+            titre[ligne] = recoder(source, source.titre[origine], codes);
+            switch (type[ligne] & MASQUE_TYPE) {
+                case REUNION:
+                    complement[ligne] = recoder(source, source.complement[origine], codes);
+                    int liste = source.participants[origine];
+                    if (liste == ABSENT) {
+                        participants[ligne] = ABSENT;
+                    } else {
+                        int[] noms = Arrays.copyOfRange(source.listes, liste + 1, liste + 1 + source.listes[liste]);
+                        for (int i = 0; i < noms.length; i++) {
+                            noms[i] = recoder(source, noms[i], codes);
+                        }
+                        participants[ligne] = ajouterListe(noms);
+                    }
+                    break;
+                case ANNIVERSAIRE:
+                    complement[ligne] = recoder(source, source.complement[origine], codes);
+                    break;
+                case AUTRE:
+                    autres.put(ligne, source.autres.get(origine));
+                    break;
+                default:
+                    complement[ligne] = source.complement[origine];
+            }
+            idHaut[ligne] = (type[ligne] & ID_TEXTUEL) != 0
+                    ? recoder(source, (int) source.idHaut[origine], codes)
+                    : source.idHaut[origine];
+            idBas[ligne] = source.idBas[origine];
+            insererId(ligne);
+            vivantes++;
+            return ligne;
+        }
+
+        private int recoder(Colonnes source, int code, int[] codes) {
+            if (code == ABSENT) {
+                return ABSENT;
+            }
+            if (codes[code] == ABSENT) {
+                codes[code] = chaines.recopier(source.chaines, code);
+            }
+            return codes[code];
+        }
+
+        Event lire(int ligne) {
+            int t = type[ligne] & MASQUE_TYPE;
+            if (t == AUTRE) {
+                return autres.get(ligne);
+            }
+            EventId id = (type[ligne] & ID_TEXTUEL) != 0
+                    ? new EventId(chaines.decoder((int) idHaut[ligne]))
+                    : new EventId(idHaut[ligne], idBas[ligne]);
+            TitreEvenement titreEvenement = titre[ligne] == ABSENT ? null : TitreEvenement.de(chaines.decoder(titre[ligne]));
+            long minutes = debut[ligne];
+            int minuteDuJour = (int) Math.floorMod(minutes, MINUTES_PAR_JOUR);
+            DateEvenement date = new DateEvenement(LocalDateTime.of(
+                    LocalDate.ofEpochDay(Math.floorDiv(minutes, MINUTES_PAR_JOUR)),
+                    LocalTime.ofSecondOfDay(secondeDate[ligne]).withNano(nanosDate.getOrDefault(ligne, 0))));
+            HeureDebut heure = new HeureDebut(minuteDuJour / 60, minuteDuJour % 60);
+            DureeEvenement dureeEvenement = new DureeEvenement(duree[ligne]);
+            ProprietaireEvenement p = proprietaires.get(proprietaire[ligne]).proprietaire;
+
+            switch (t) {
+                case RENDEZ_VOUS:
+                    return new RendezVous(id, titreEvenement, date, heure, dureeEvenement, p);
+                case REUNION:
+                    String lieu = decoder(complement[ligne]);
+                    return new Reunion(id, titreEvenement, date, heure, dureeEvenement,
+                            lieu == null ? null : new LieuEvenement(lieu), p,
+                            participants[ligne] == ABSENT ? null : new Participants(lireListe(participants[ligne])));
+                case EVENEMENT_PERIODIQUE:
+                    return new EvenementPeriodique(id, titreEvenement, date, heure, dureeEvenement, complement[ligne], p);
+                default:
+                    return new Anniversaire(id, titreEvenement, date, heure, dureeEvenement, p, decoder(complement[ligne]));
+            }
+        }
+
+        private boolean estRecurrente(int ligne) {
+            int t = type[ligne] & MASQUE_TYPE;
+            if (t == AUTRE) {
+                return autres.get(ligne).estRecurrent();
+            }
+            return t == EVENEMENT_PERIODIQUE && complement[ligne] > 0;
+        }
+
+        private long fin(int ligne) {
+            return debut[ligne] + duree[ligne];
+        }
+
+        private int coder(String chaine) {
+            return chaine == null ? ABSENT : chaines.coder(chaine);
+        }
+
+        private String decoder(int code) {
+            return code == ABSENT ? null : chaines.decoder(code);
+        }
+
+        private int ajouterListe(String[] noms) {
+            int[] codes = new int[noms.length];
+            for (int i = 0; i < noms.length; i++) {
+                codes[i] = coder(noms[i]);
+            }
+            return ajouterListe(codes);
+        }
+
+        private int ajouterListe(int[] codes) {
+            if (tailleListes + codes.length + 1 > listes.length) {
+                listes = Arrays.copyOf(listes, Math.max(listes.length * 2, tailleListes + codes.length + 1));
+            }
+            int position = tailleListes;
+            listes[tailleListes++] = codes.length;
+            System.arraycopy(codes, 0, listes, tailleListes, codes.length);
+            tailleListes += codes.length;
+            return position;
+        }
+
+        private String[] lireListe(int position) {
+            String[] noms = new String[listes[position]];
+            for (int i = 0; i < noms.length; i++) {
+                noms[i] = decoder(listes[position + 1 + i]);
+            }
+            return noms;
+        }
+
+        private void agrandir() {
+            int capacite = debut.length * 2;
+            debut = Arrays.copyOf(debut, capacite);
+            duree = Arrays.copyOf(duree, capacite);
+            secondeDate = Arrays.copyOf(secondeDate, capacite);
+            type = Arrays.copyOf(type, capacite);
+            proprietaire = Arrays.copyOf(proprietaire, capacite);
+            titre = Arrays.copyOf(titre, capacite);
+            complement = Arrays.copyOf(complement, capacite);
+            participants = Arrays.copyOf(participants, capacite);
+            idHaut = Arrays.copyOf(idHaut, capacite);
+            idBas = Arrays.copyOf(idBas, capacite);
+        }
+
+        // --- Index des identifiants ---
+
+        int chercherLigne(EventId id) {
+            long haut;
+            long bas;
+            boolean textuel = !id.estCompact();
+            if (textuel) {
+                haut = chaines.chercher(id.valeur());
+                if (haut == ABSENT) {
+                    return ABSENT;
+                }
+                bas = 0;
+            } else {
+                haut = id.poidsFort();
+                bas = id.poidsFaible();
+            }
+            int masque = tableIds.length - 1;
+            for (int i = hacher(haut, bas) & masque; tableIds[i] != 0; i = (i + 1) & masque) {
+                int ligne = tableIds[i] - 1;
+                if (idHaut[ligne] == haut && idBas[ligne] == bas && ((type[ligne] & ID_TEXTUEL) != 0) == textuel) {
+                    return ligne;
+                }
+            }
+            return ABSENT;
+        }
+
+        private void insererId(int ligne) {
+            if ((vivantes + 1) * 2 > tableIds.length) {
+                int[] ancienne = tableIds;
+                tableIds = new int[ancienne.length * 2];
+                for (int valeur : ancienne) {
+                    if (valeur != 0) {
+                        placerId(valeur - 1);
+                    }
+                }
+            }
+            placerId(ligne);
+        }
+
+        private void placerId(int ligne) {
+            int masque = tableIds.length - 1;
+            int i = hacher(idHaut[ligne], idBas[ligne]) & masque;
+            while (tableIds[i] != 0) {
+                i = (i + 1) & masque;
+            }
+            tableIds[i] = ligne + 1;
+        }
+
+        /**
+         * Suppression par décalage arrière : les cases suivantes remontent vers leur place
+         */
+        private void retirerId(int ligne) {
+            int masque = tableIds.length - 1;
+            int i = hacher(idHaut[ligne], idBas[ligne]) & masque;
+            while (tableIds[i] != ligne + 1) {
+                i = (i + 1) & masque;
+            }
+            tableIds[i] = 0;
+            for (int j = (i + 1) & masque; tableIds[j] != 0; j = (j + 1) & masque) {
+                int autre = tableIds[j] - 1;
+                int ideale = hacher(idHaut[autre], idBas[autre]) & masque;
+                // La case libérée est-elle entre la place idéale et la place actuelle ?
+                if (((j - ideale) & masque) >= ((j - i) & masque)) {
+                    tableIds[i] = tableIds[j];
+                    tableIds[j] = 0;
+                    i = j;
+                }
+            }
+        }
+
+        // --- Tri des lignes par début, sans boîtes ---
+
+        private void trier(int[] lignes, int de, int a) {
+            if (a - de < 2) {
+                return;
+            }
+            int[] tampon = new int[a - de];
+            trier(lignes, de, a, tampon);
+        }
+
+        private void trier(int[] lignes, int de, int a, int[] tampon) {
+            if (a - de <= 16) {
+                for (int i = de + 1; i < a; i++) {
+                    int ligne = lignes[i];
+                    int j = i - 1;
+                    while (j >= de && debut[lignes[j]] > debut[ligne]) {
+                        lignes[j + 1] = lignes[j];
+                        j--;
+                    }
+                    lignes[j + 1] = ligne;
+                }
+                return;
+            }
+            int milieu = (de + a) >>> 1;
+            trier(lignes, de, milieu, tampon);
+            trier(lignes, milieu, a, tampon);
+            if (debut[lignes[milieu - 1]] <= debut[lignes[milieu]]) {
+                return;
+            }
+            System.arraycopy(lignes, de, tampon, 0, milieu - de);
+            int i = 0;
+            int j = milieu;
+            int k = de;
+            while (i < milieu - de && j < a) {
+                lignes[k++] = debut[lignes[j]] < debut[tampon[i]] ? lignes[j++] : tampon[i++];
+            }
+            while (i < milieu - de) {
+                lignes[k++] = tampon[i++];
+            }
+        }
+
+        /**
+         * Fusionne deux suites de lignes triées ; à début égal, la première passe devant
+         */
+        private int[] fusionner(int[] a, int na, int[] b, int nb) {
+            int[] fusion = new int[Math.max(16, (na + nb) + (na + nb) / 4)];
+            int i = 0;
+            int j = 0;
+            int k = 0;
+            while (i < na && j < nb) {
+                fusion[k++] = debut[b[j]] < debut[a[i]] ? b[j++] : a[i++];
+            }
+            System.arraycopy(a, i, fusion, k, na - i);
+            k += na - i;
+            System.arraycopy(b, j, fusion, k, nb - j);
+            return fusion;
+        }
+
+        /**
+         * Lignes d'un propriétaire : une suite triée par début, plus des lignes récentes non
+         * triées, fusionnées dès qu'elles dépassent la racine carrée de la suite triée. Une
+         * ligne supprimée reste marquée dans la suite triée, qui est purgée à la fusion
+         * suivante ou dès que les lignes marquées en forment la moitié.
+         */
+        private final class IndexProprietaire {
+            private final ProprietaireEvenement proprietaire;
+            private int[] triees = new int[16];
+            private int nombreTriees;
+            private int[] recentes = new int[16];
+            private int nombreRecentes;
+            private int[] recurrentes = new int[4];
+            private int nombreRecurrentes;
+            // Lignes supprimées encore dans triees
+            private int supprimees;
+            // Plus longue durée depuis la dernière purge : borne la recherche des créneaux
+            // commencés plus tôt
+            private int dureeMax;
+
+            private IndexProprietaire(ProprietaireEvenement proprietaire) {
+                this.proprietaire = proprietaire;
+            }
+
+            void ajouter(int ligne) {
+                suivre(ligne);
+                if (nombreRecentes == recentes.length) {
+                    recentes = Arrays.copyOf(recentes, nombreRecentes * 2);
+                }
+                recentes[nombreRecentes++] = ligne;
+                if (nombreRecentes > Math.max(64, (int) Math.sqrt(nombreTriees))) {
+                    fusionnerRecentes();
+                }
+            }
+
+            void ajouterTries(int[] lignes) {
+                for (int ligne : lignes) {
+                    suivre(ligne);
+                }
+                trier(lignes, 0, lignes.length);
+                fusionnerRecentes();
+                if (nombreTriees == 0 || debut[triees[nombreTriees - 1]] <= debut[lignes[0]]) {
+                    // Cas du chargement : le lot prolonge la suite triée
+                    if (nombreTriees + lignes.length > triees.length) {
+                        triees = Arrays.copyOf(triees, Math.max(triees.length * 2, nombreTriees + lignes.length));
+                    }
+                    System.arraycopy(lignes, 0, triees, nombreTriees, lignes.length);
+                } else {
+                    triees = fusionner(triees, nombreTriees, lignes, lignes.length);
+                }
+                nombreTriees += lignes.length;
+            }
+
+            private void suivre(int ligne) {
+                dureeMax = Math.max(dureeMax, duree[ligne]);
+                if (estRecurrente(ligne)) {
+                    if (nombreRecurrentes == recurrentes.length) {
+                        recurrentes = Arrays.copyOf(recurrentes, nombreRecurrentes * 2);
+                    }
+                    recurrentes[nombreRecurrentes++] = ligne;
+                }
+            }
+
+            private void fusionnerRecentes() {
+                if (supprimees > 0) {
+                    purger();
+                }
+                if (nombreRecentes == 0) {
+                    return;
+                }
+                trier(recentes, 0, nombreRecentes);
+                triees = fusionner(triees, nombreTriees, recentes, nombreRecentes);
+                nombreTriees += nombreRecentes;
+                nombreRecentes = 0;
+            }
+
+            void retirer(int ligne) {
+                nombreRecurrentes = retirerDe(recurrentes, nombreRecurrentes, ligne);
+                int restantes = retirerDe(recentes, nombreRecentes, ligne);
+                if (restantes < nombreRecentes) {
+                    nombreRecentes = restantes;
+                    return;
+                }
+                // Reste dans triees, marquée par retirerLigne : son début y garde l'ordre
+                supprimees++;
+                if (supprimees * 2 > nombreTriees) {
+                    purger();
+                }
+            }
+
+            /**
+             * Retire de la suite triée les lignes supprimées et recalcule la durée maximale
+             */
+            private void purger() {
+                int n = 0;
+                int max = 0;
+                for (int i = 0; i < nombreTriees; i++) {
+                    int ligne = triees[i];
+                    if (!estSupprimee(ligne)) {
+                        triees[n++] = ligne;
+                        max = Math.max(max, duree[ligne]);
+                    }
+                }
+                for (int i = 0; i < nombreRecentes; i++) {
+                    max = Math.max(max, duree[recentes[i]]);
+                }
+                nombreTriees = n;
+                supprimees = 0;
+                dureeMax = max;
+            }
+
+            private int retirerDe(int[] lignes, int n, int ligne) {
+                for (int i = 0; i < n; i++) {
+                    if (lignes[i] == ligne) {
+                        lignes[i] = lignes[n - 1];
+                        return n - 1;
+                    }
+                }
+                return n;
+            }
+
+            /**
+             * Position de la première ligne triée qui commence à {@code minute} ou après
+             */
+            private int premierDebutDepuis(long minute) {
+                int bas = 0;
+                int haut = nombreTriees;
+                while (bas < haut) {
+                    int milieu = (bas + haut) >>> 1;
+                    if (debut[triees[milieu]] < minute) {
+                        bas = milieu + 1;
+                    } else {
+                        haut = milieu;
+                    }
+                }
+                return bas;
+            }
+
+            void chevauchements(long debutRecherche, long finRecherche, Consumer<Event> action) {
+                for (int i = premierDebutDepuis(debutRecherche - dureeMax); i < nombreTriees; i++) {
+                    int ligne = triees[i];
+                    if (debut[ligne] >= finRecherche) {
+                        break;
+                    }
+                    if (fin(ligne) > debutRecherche && !estSupprimee(ligne)) {
+                        action.accept(lire(ligne));
+                    }
+                }
+                for (int i = 0; i < nombreRecentes; i++) {
+                    int ligne = recentes[i];
+                    if (debut[ligne] < finRecherche && fin(ligne) > debutRecherche) {
+                        action.accept(lire(ligne));
+                    }
+                }
+            }
+
+            void recurrents(Consumer<Event> action) {
+                for (int i = 0; i < nombreRecurrentes; i++) {
+                    action.accept(lire(recurrentes[i]));
+                }
+            }
+
+            void occurrences(Periode periode, Consumer<Iterator<Event>> flux) {
+                // Une occurrence simple est retenue sur sa date, qui partage le jour de son début
+                long de = Event.enMinutes(periode.debut()) - MINUTES_PAR_JOUR;
+                long a = Event.enMinutes(periode.fin()) + MINUTES_PAR_JOUR + 1;
+                int premier = premierDebutDepuis(de);
+                int dernier = premierDebutDepuis(a);
+                int[] fenetre = new int[dernier - premier];
+                int n = 0;
+                for (int i = premier; i < dernier; i++) {
+                    if (!estRecurrente(triees[i]) && !estSupprimee(triees[i])) {
+                        fenetre[n++] = triees[i];
+                    }
+                }
+                int[] recentesFenetre = new int[nombreRecentes];
+                int m = 0;
+                for (int i = 0; i < nombreRecentes; i++) {
+                    int ligne = recentes[i];
+                    if (debut[ligne] >= de && debut[ligne] < a && !estRecurrente(ligne)) {
+                        recentesFenetre[m++] = ligne;
+                    }
+                }
+                if (m > 0) {
+                    trier(recentesFenetre, 0, m);
+                    fenetre = fusionner(fenetre, n, recentesFenetre, m);
+                    n += m;
+                }
+                if (n > 0) {
+                    flux.accept(new ParcoursLignes(Colonnes.this, fenetre, n, periode));
+                }
+                for (int i = 0; i < nombreRecurrentes; i++) {
+                    flux.accept(lire(recurrentes[i]).occurrences(periode));
+                }
+            }
+
+            /**
+             * Recopie les lignes vivantes par début croissant, sans modifier l'index (lecture)
+             */
+            int copierTriees(int[] destination, int position) {
+                int[] lignes = triees;
+                int n = nombreTriees;
+                if (nombreRecentes > 0) {
+                    int[] recentesTriees = Arrays.copyOf(recentes, nombreRecentes);
+                    trier(recentesTriees, 0, nombreRecentes);
+                    lignes = fusionner(triees, nombreTriees, recentesTriees, nombreRecentes);
+                    n += nombreRecentes;
+                }
+                if (supprimees == 0) {
+                    System.arraycopy(lignes, 0, destination, position, n);
+                    return position + n;
+                }
+                for (int i = 0; i < n; i++) {
+                    if (!estSupprimee(lignes[i])) {
+                        destination[position++] = lignes[i];
+                    }
+                }
+                return position;
+            }
+        }
+    }
+
+    /**
+     * Occurrences des lignes non récurrentes d'une fenêtre, créées une à une à la demande
+     */
+    private final class ParcoursLignes implements Iterator<Event> {
+        private final Colonnes source;
+        private final int[] lignes;
+        private final int nombre;
+        private final Periode periode;
+        private int position;
+        private Event prochain;
+
+        private ParcoursLignes(Colonnes source, int[] lignes, int nombre, Periode periode) {
+            this.source = source;
+            this.lignes = lignes;
+            this.nombre = nombre;
+            this.periode = periode;
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (prochain == null && position < nombre) {
+                Event e = lireSousVerrou(source, lignes[position++]);
+                Iterator<Event> occurrence = e.occurrences(periode);
+                prochain = occurrence.hasNext() ? occurrence.next() : null;
+            }
+            return prochain != null;
+        }
+
+        @Override
+        public Event next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            Event e = prochain;
+            prochain = null;
+            return e;
+        }
+    }
+
+    private Event lireSousVerrou(Colonnes source, int ligne) {
+        verrou.readLock().lock();
+        try {
+            return source.lire(ligne);
+        } finally {
+            verrou.readLock().unlock();
+        }
+    }
+
+    /**
+     * Liste figée de numéros de ligne, dont les événements sont créés à la lecture
+     */
+    private final class VueColonnes extends AbstractList<Event> implements RandomAccess {
+        private final Colonnes source;
+        private final int[] lignes;
+        private final long version;
+
+        private VueColonnes(Colonnes source, int[] lignes, long version) {
+            this.source = source;
+            this.lignes = lignes;
+            this.version = version;
+        }
+
+        @Override
+        public Event get(int index) {
+            return lireSousVerrou(source, lignes[index]);
+        }
+
+        @Override
+        public int size() {
+            return lignes.length;
+        }
+    }
+
+    private static int hacher(long haut, long bas) {
+        long h = (haut ^ Long.rotateLeft(bas, 32)) * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+}
@@ -0,0 +1,60 @@
+package Calendar.Events;
+
+import Calendar.vo.EventId;
+import Calendar.vo.Periode;
+import Calendar.vo.ProprietaireEvenement;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Rangement en mémoire des événements derrière {@link Evenements}. Les créneaux sont en
+ * minutes depuis l'epoch ({@link Event#debutEnMinutes()}).
+ */
+interface MagasinEvenements {
+
+    /**
+     * @throws IllegalArgumentException si l'identifiant est déjà présent
+     */
+    void ajouter(Event e);
+
+    /**
+     * Ajoute des événements d'un même propriétaire, déjà triés par début
+     *
+     * @throws IllegalArgumentException si un identifiant est déjà présent
+     */
+    void ajouterTries(ProprietaireEvenement proprietaire, List<Event> triesParDebut);
+
+    boolean supprimer(EventId id);
+
+    /**
+     * L'événement de cet identifiant, ou null
+     */
+    Event trouver(EventId id);
+
+    int taille();
+
+    void chevauchements(long debut, long fin, Consumer<Event> action);
+
+    void chevauchements(ProprietaireEvenement proprietaire, long debut, long fin, Consumer<Event> action);
+
+    /**
+     * Séries récurrentes du propriétaire (voir {@link Event#estRecurrent()})
+     */
+    void recurrents(ProprietaireEvenement proprietaire, Consumer<Event> action);
+
+    /**
+     * Fournit des itérateurs d'occurrences de la période, chacun ordonné dans le temps
+     */
+    void occurrences(Periode periode, Consumer<Iterator<Event>> flux);
+
+    void occurrences(ProprietaireEvenement proprietaire, Periode periode, Consumer<Iterator<Event>> flux);
+
+    /**
+     * Vue immuable de tous les événements, que les modifications ultérieures n'affectent pas
+     */
+    List<Event> instantane();
+
+    void vider();
+}
@@ -0,0 +1,136 @@
+package Calendar.Events;
+
+import Calendar.vo.EventId;
+import Calendar.vo.Periode;
+import Calendar.vo.ProprietaireEvenement;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+/**
+ * Rangement par défaut : les événements eux-mêmes, indexés par identifiant et dans une
+ * partition immuable par propriétaire, remplacée atomiquement à chaque modification. Les
+ * lectures ne prennent jamais de verrou et ne bloquent pas les écrivains.
+ */
+final class MagasinObjets implements MagasinEvenements {
+
+    // Index des événements par identifiant, pour trouver et supprimer en temps constant
+    private final ConcurrentMap<EventId, Event> parId = new ConcurrentHashMap<>();
+    private final ConcurrentMap<ProprietaireEvenement, PartitionProprietaire> partitions = new ConcurrentHashMap<>();
+    private final AtomicLong version = new AtomicLong();
+    // Copie immuable publiée, reconstruite au plus une fois par version
+    private final AtomicReference<Instantane> instantane = new AtomicReference<>(new Instantane(0, List.of()));
+
+    @Override
+    public void ajouter(Event e) {
+        if (parId.putIfAbsent(e.getId(), e) != null) {
+            throw new IllegalArgumentException("Un événement avec l'identifiant " + e.getId() + " existe déjà.");
+        }
+        partitions.compute(e.getProprietaire(),
+                (proprietaire, partition) -> (partition == null ? PartitionProprietaire.VIDE : partition).avec(e));
+        version.incrementAndGet();
+    }
+
+    /**
+     * La partition est reconstruite en une passe au lieu d'une insertion par événement
+     */
+    @Override
+    public void ajouterTries(ProprietaireEvenement proprietaire, List<Event> triesParDebut) {
+        for (Event e : triesParDebut) {
+            if (parId.putIfAbsent(e.getId(), e) != null) {
+                throw new IllegalArgumentException("Un événement avec l'identifiant " + e.getId() + " existe déjà.");
+            }
+        }
+        partitions.compute(proprietaire,
+                (p, partition) -> (partition == null ? PartitionProprietaire.VIDE : partition).avecTous(triesParDebut));
+        version.incrementAndGet();
+    }
+
+    @Override
+    public boolean supprimer(EventId id) {
+        Event supprime = parId.remove(id);
+        if (supprime == null) {
+            return false;
+        }
+        partitions.computeIfPresent(supprime.getProprietaire(), (proprietaire, partition) -> {
+            PartitionProprietaire restante = partition.sans(supprime);
+            return restante.estVide() ? null : restante;
+        });
+        version.incrementAndGet();
+        return true;
+    }
+
+    @Override
+    public Event trouver(EventId id) {
+        return parId.get(id);
+    }
+
+    @Override
+    public int taille() {
+        return parId.size();
+    }
+
+    @Override
+    public void chevauchements(long debut, long fin, Consumer<Event> action) {
+        partitions.values().forEach(p -> p.chevauchements(debut, fin, action));
+    }
+
+    @Override
+    public void chevauchements(ProprietaireEvenement proprietaire, long debut, long fin, Consumer<Event> action) {
+        partition(proprietaire).chevauchements(debut, fin, action);
+    }
+
+    @Override
+    public void recurrents(ProprietaireEvenement proprietaire, Consumer<Event> action) {
+        partition(proprietaire).recurrents(action);
+    }
+
+    @Override
+    public void occurrences(Periode periode, Consumer<Iterator<Event>> flux) {
+        partitions.values().forEach(p -> p.candidats(periode, e -> flux.accept(e.occurrences(periode))));
+    }
+
+    @Override
+    public void occurrences(ProprietaireEvenement proprietaire, Periode periode, Consumer<Iterator<Event>> flux) {
+        partition(proprietaire).candidats(periode, e -> flux.accept(e.occurrences(periode)));
+    }
+
+    private PartitionProprietaire partition(ProprietaireEvenement proprietaire) {
+        return partitions.getOrDefault(proprietaire, PartitionProprietaire.VIDE);
+    }
+
+    /**
+     * Elle n'est recopiée qu'après une modification : les lectures successives la partagent
+     */
+    @Override
+    public List<Event> instantane() {
+        Instantane courant = instantane.get();
+        long versionCourante = version.get();
+        if (courant.version() == versionCourante) {
+            return courant.evenements();
+        }
+        // Les partitions lues ici sont au moins aussi récentes que versionCourante
+        List<Event> copie = new ArrayList<>(parId.size());
+        partitions.values().forEach(p -> p.parcourir(copie::add));
+        List<Event> vue = Collections.unmodifiableList(copie);
+        instantane.compareAndSet(courant, new Instantane(versionCourante, vue));
+        return vue;
+    }
+
+    @Override
+    public void vider() {
+        parId.clear();
+        partitions.clear();
+        version.incrementAndGet();
+    }
+
+    private record Instantane(long version, List<Event> evenements) {
+    }
+}
@@ -0,0 +1,124 @@
+package Calendar.Events;
+
+import Calendar.vo.Periode;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Sous-ensemble des événements d'un même propriétaire, ordonné dans le temps.
+ * Les événements récurrents sont aussi suivis à part, car leurs occurrences
+ * dépassent le créneau indexé dans l'arbre.
+ * <p>
+ * Une partition est immuable : chaque modification en produit une nouvelle version,
+ * que les lecteurs consultent sans verrou.
+ */
+final class PartitionProprietaire {
+
+    private static final long MINUTES_PAR_JOUR = 24 * 60;
+
+    public static final PartitionProprietaire VIDE = new PartitionProprietaire(ArbreIntervalles.VIDE, List.of());
+
+    private final ArbreIntervalles creneaux;
+    private final List<Event> recurrents;
+
+    private PartitionProprietaire(ArbreIntervalles creneaux, List<Event> recurrents) {
+        this.creneaux = creneaux;
+        this.recurrents = recurrents;
+    }
+
+    public PartitionProprietaire avec(Event e) {
+        if (!e.estRecurrent()) {
+            return new PartitionProprietaire(creneaux.ajouter(e), recurrents);
+        }
+        return new PartitionProprietaire(creneaux.ajouter(e),
+                Stream.concat(recurrents.stream(), Stream.of(e)).toList());
+    }
+
+    /**
+     * Ajoute un lot d'événements triés par début. Un gros lot reconstruit l'arbre en une
+     * passe (fusion des deux suites triées) plutôt que de l'insérer élément par élément.
+     */
+    public PartitionProprietaire avecTous(List<Event> triesParDebut) {
+        List<Event> nouveauxRecurrents = triesParDebut.stream().filter(Event::estRecurrent).toList();
+        List<Event> tousRecurrents = nouveauxRecurrents.isEmpty()
+                ? recurrents
+                : Stream.concat(recurrents.stream(), nouveauxRecurrents.stream()).toList();
+        int n = creneaux.taille();
+        if ((long) triesParDebut.size() * (32 - Integer.numberOfLeadingZeros(n)) < n) {
+            ArbreIntervalles arbre = creneaux;
+            for (Event e : triesParDebut) {
+                arbre = arbre.ajouter(e);
+            }
+            return new PartitionProprietaire(arbre, tousRecurrents);
+        }
+        return new PartitionProprietaire(ArbreIntervalles.construire(fusionner(triesParDebut)), tousRecurrents);
+    }
+
+    private List<Event> fusionner(List<Event> triesParDebut) {
+        List<Event> existants = new ArrayList<>(creneaux.taille());
+        creneaux.parcourir(existants::add);
+        List<Event> fusion = new ArrayList<>(existants.size() + triesParDebut.size());
+        int i = 0;
+        int j = 0;
+        while (i < existants.size() && j < triesParDebut.size()) {
+            if (existants.get(i).debutEnMinutes() > triesParDebut.get(j).debutEnMinutes()) {
+                fusion.add(triesParDebut.get(j++));
+            } else {
+                fusion.add(existants.get(i++));
+            }
+        }
+        fusion.addAll(existants.subList(i, existants.size()));
+        fusion.addAll(triesParDebut.subList(j, triesParDebut.size()));
+        return fusion;
+    }
+
+    public PartitionProprietaire sans(Event e) {
+        ArbreIntervalles restants = creneaux.supprimer(e);
+        if (restants == creneaux) {
+            return this;
+        }
+        if (!e.estRecurrent()) {
+            return new PartitionProprietaire(restants, recurrents);
+        }
+        return new PartitionProprietaire(restants,
+                recurrents.stream().filter(candidat -> candidat != e).toList());
+    }
+
+    public boolean estVide() {
+        return creneaux.estVide();
+    }
+
+    public int taille() {
+        return creneaux.taille();
+    }
+
+    public void chevauchements(long debut, long fin, Consumer<Event> action) {
+        creneaux.chevauchements(debut, fin, action);
+    }
+
+    public void recurrents(Consumer<Event> action) {
+        recurrents.forEach(action);
+    }
+
+    /**
+     * Parcourt les événements susceptibles d'avoir une occurrence dans la période
+     */
+    public void candidats(Periode periode, Consumer<Event> action) {
+        // Une occurrence simple est retenue sur sa date, alors que l'arbre est indexé sur
+        // le début (même jour, heure de début appliquée) : on élargit d'un jour de chaque côté.
+        creneaux.chevauchements(Event.enMinutes(periode.debut()) - MINUTES_PAR_JOUR,
+                Event.enMinutes(periode.fin()) + MINUTES_PAR_JOUR + 1, e -> {
+            if (!e.estRecurrent()) {
+                action.accept(e);
+            }
+        });
+        recurrents.forEach(action);
+    }
+
+    public void parcourir(Consumer<Event> action) {
+        creneaux.parcourir(action);
+    }
+}
@@ -15,6 +15,11 @@ public class RendezVous extends Event {
         super(titre, dateDebut, heureDebut, duree, proprietaire);
     }
 
+    // Constructeur avec un identifiant existant, pour le rechargement depuis un fichier
+    public RendezVous(EventId id, TitreEvenement titre, DateEvenement dateDebut, HeureDebut heureDebut, DureeEvenement duree, ProprietaireEvenement proprietaire) {
+        super(id, titre, dateDebut, heureDebut, duree, proprietaire);
+    }
+
     protected RendezVous(){
         super();
     }
@@ -25,6 +25,14 @@ public class Reunion extends Event {
         this.participants = participants;
     }
 
+    // Constructeur avec un identifiant existant, pour le rechargement depuis un fichier
+    public Reunion(EventId id, TitreEvenement titre, DateEvenement dateDebut, HeureDebut heureDebut,
+                   DureeEvenement duree, LieuEvenement lieu, ProprietaireEvenement proprietaire, Participants participants) {
+        super(id, titre, dateDebut, heureDebut, duree, proprietaire);
+        this.lieu = lieu;
+        this.participants = participants;
+    }
+
     public LieuEvenement getLieu() {
         return lieu;
     }
@@ -0,0 +1,51 @@
+package Calendar.Events;
+
+import Calendar.vo.EventId;
+import Calendar.vo.Periode;
+import Calendar.vo.ProprietaireEvenement;
+
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Événements en lecture seule stockés hors du calendrier en mémoire (archives, instantanés).
+ * {@link Evenements} les consulte en plus de ses propres événements pour les recherches.
+ */
+public interface SourceEvenements {
+
+    /**
+     * Occurrences de la période, par début croissant
+     */
+    Iterator<Event> occurrences(Periode periode);
+
+    /**
+     * Occurrences d'un seul propriétaire, par début croissant
+     */
+    Iterator<Event> occurrences(ProprietaireEvenement proprietaire, Periode periode);
+
+    /**
+     * Événements de tous les propriétaires dont le créneau [début, fin) chevauche celui demandé
+     */
+    List<Event> chevauchements(LocalDateTime debut, LocalDateTime fin);
+
+    /**
+     * Événements du propriétaire dont le créneau [début, fin) chevauche celui demandé
+     */
+    List<Event> chevauchements(ProprietaireEvenement proprietaire, LocalDateTime debut, LocalDateTime fin);
+
+    /**
+     * Séries récurrentes du propriétaire, dont les occurrences dépassent le premier créneau
+     */
+    default List<Event> recurrents(ProprietaireEvenement proprietaire) {
+        return List.of();
+    }
+
+    /**
+     * Recherche par identifiant ; une source sans index des identifiants n'en trouve aucun
+     */
+    default Optional<Event> trouverParId(EventId id) {
+        return Optional.empty();
+    }
+}
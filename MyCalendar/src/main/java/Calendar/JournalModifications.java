@@ -0,0 +1,35 @@
+package Calendar;
+
+import Calendar.Events.Event;
+import Calendar.vo.EventId;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Journal écrit avant chaque modification d'un {@link CalendarManager} (write-ahead log).
+ * <p>
+ * Les méthodes {@code journaliser...} sont appelées sous le verrou du propriétaire, avant que
+ * la modification ne soit appliquée en mémoire : elles ne font qu'ajouter l'enregistrement,
+ * sans attendre le disque, et renvoient son numéro. Si l'une d'elles échoue, la modification
+ * n'est pas appliquée. {@link #attendreDurable(long)} n'est appelé qu'une fois le verrou rendu,
+ * pour que la synchronisation du disque ne bloque pas les autres écritures du propriétaire.
+ */
+public interface JournalModifications {
+
+    /**
+     * Ajout d'événements, dans l'ordre donné
+     *
+     * @return le numéro du dernier enregistrement
+     */
+    long journaliserAjouts(List<Event> evenements) throws IOException;
+
+    long journaliserSuppression(EventId id) throws IOException;
+
+    long journaliserVidage() throws IOException;
+
+    /**
+     * Rend la main une fois l'enregistrement de ce numéro, et tous ceux qui le précèdent, sur disque
+     */
+    void attendreDurable(long numero) throws IOException;
+}
@@ -3,8 +3,11 @@ package Calendar;
 import Calendar.vo.*;
 import Calendar.Events.*;
 import Calendar.User.*;
+import Calendar.Persistence.SauvegardeAutomatique;
+import Calendar.Persistence.StockageCalendrier;
 import Calendar.Serialization.JsonCalendarSerializer;
 import java.io.IOException;
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeParseException;
@@ -14,6 +17,7 @@ import java.util.stream.Stream;
 
 public class Main {
     private static final String DEFAULT_CALENDAR_FILE = "calendar.json";
+    private static final Duration DELAI_SAUVEGARDE_AUTOMATIQUE = Duration.ofSeconds(2);
 
     public static void main(String[] args) {
         CalendarManager calendar = new CalendarManager();
@@ -30,13 +34,28 @@ public class Main {
 
         System.out.println("\nBienvenue " + authenticatedUser.username() + "!");
 
+        // Instantané du calendrier + journal des modifications faites depuis
+        StockageCalendrier stockage = new StockageCalendrier(calendar, DEFAULT_CALENDAR_FILE);
+        // Sauvegarde en arrière-plan peu après chaque série de modifications
+        SauvegardeAutomatique sauvegardeAuto = new SauvegardeAutomatique(calendar, stockage, DELAI_SAUVEGARDE_AUTOMATIQUE);
+
         try {
             // Tentative de chargement du calendrier existant
             try {
-                calendar.loadFromJson(DEFAULT_CALENDAR_FILE);
-                System.out.println("Calendrier chargé depuis " + DEFAULT_CALENDAR_FILE);
+                CalendarManager.RapportChargement rapport = stockage.ouvrir();
+                if (calendar.getAllEvents().isEmpty()) {
+                    System.out.println("Aucun calendrier existant trouvé, création d'un nouveau calendrier.");
+                } else {
+                    System.out.println("Calendrier chargé depuis " + DEFAULT_CALENDAR_FILE);
+                }
+                afficherRapport(rapport);
+                sauvegardeAuto.demarrer();
             } catch (IOException e) {
-                System.out.println("Aucun calendrier existant trouvé, création d'un nouveau calendrier.");
+                // Repartir d'un calendrier vide écraserait le fichier à la prochaine sauvegarde
+                System.out.println("Impossible d'ouvrir le calendrier existant: " + e.getMessage());
+                System.out.println("Le fichier " + DEFAULT_CALENDAR_FILE + " est laissé intact : "
+                        + "restaurez-le ou déplacez-le avant de relancer l'application.");
+                return;
             }
 
             // Boucle principale
@@ -57,7 +76,7 @@ public class Main {
                             if (choice.equals(displayKey)) {
                                 calendar.afficherEvenements();
                             } else if (choice.equals(saveKey)) {
-                                saveCalendar(scanner, calendar);
+                                saveCalendar(scanner, calendar, stockage, sauvegardeAuto);
                             } else if (choice.equals(loadKey)) {
                                 loadCalendar(scanner, calendar);
                             } else if (choice.equals(deleteKey)) {
@@ -90,7 +109,8 @@ public class Main {
 
             // Sauvegarde automatique avant de quitter
             try {
-                calendar.saveToJson(DEFAULT_CALENDAR_FILE);
+                sauvegardeAuto.close();
+                stockage.close();
                 System.out.println("Calendrier sauvegardé dans " + DEFAULT_CALENDAR_FILE);
             } catch (IOException e) {
                 System.out.println("Erreur lors de la sauvegarde: " + e.getMessage());
@@ -119,8 +139,9 @@ public class Main {
                 LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss")));
     }
 
-    private static void saveCalendar(Scanner scanner, CalendarManager calendar) {
-        System.out.print("Nom du fichier (ou laissez vide pour 'calendar.json'): ");
+    private static void saveCalendar(Scanner scanner, CalendarManager calendar, StockageCalendrier stockage,
+                                     SauvegardeAutomatique sauvegardeAuto) {
+        System.out.print("Nom du fichier, .mcal pour le format binaire (ou laissez vide pour 'calendar.json'): ");
         String fileName = scanner.nextLine().trim();
 
         if (fileName.isEmpty()) {
@@ -128,7 +149,12 @@ public class Main {
         }
 
         try {
-            calendar.saveToJson(fileName);
+            if (stockage.estOuvert() && fileName.equals(stockage.getFichier())) {
+                // Écrit tout de suite ce que la sauvegarde automatique n'a pas encore pris
+                sauvegardeAuto.vider();
+            } else {
+                calendar.sauvegarder(fileName);
+            }
             System.out.println("Calendrier sauvegardé avec succès dans " + fileName);
         } catch (IOException e) {
             System.out.println("Erreur lors de la sauvegarde: " + e.getMessage());
@@ -144,13 +170,24 @@ public class Main {
         }
 
         try {
-            calendar.loadFromJson(fileName);
+            CalendarManager.RapportChargement rapport = calendar.charger(fileName);
             System.out.println("Calendrier chargé avec succès depuis " + fileName);
+            afficherRapport(rapport);
         } catch (IOException e) {
             System.out.println("Erreur lors du chargement: " + e.getMessage());
         }
     }
 
+    private static void afficherRapport(CalendarManager.RapportChargement rapport) {
+        if (rapport.estComplet()) {
+            return;
+        }
+        System.out.println(rapport.rejetes().size() + " événement(s) ignoré(s) au chargement.");
+        for (CalendarManager.PaireEnConflit paire : rapport.conflits()) {
+            System.out.println(" - " + paire.second().description() + " chevauche " + paire.premier().description());
+        }
+    }
+
     private static void deleteEvent(Scanner scanner, CalendarManager calendar) {
         System.out.println("\n--- Supprimer un événement ---");
         calendar.afficherEvenements();
@@ -0,0 +1,424 @@
+package Calendar.Persistence;
+
+import Calendar.CalendarManager;
+import Calendar.Events.Event;
+import Calendar.Events.FusionOccurrences;
+import Calendar.Events.SourceEvenements;
+import Calendar.Serialization.BinaryCalendarSerializer;
+import Calendar.Serialization.CalendarSerializer;
+import Calendar.Util.RemplacementAtomique;
+import Calendar.vo.EventId;
+import Calendar.vo.Periode;
+import Calendar.vo.ProprietaireEvenement;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.Period;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Predicate;
+
+/**
+ * Archive des événements passés, rangés par mois dans des segments immuables.
+ * <p>
+ * {@link #archiver(CalendarManager, LocalDateTime)} retire du calendrier les événements
+ * terminés avant un horizon et les écrit dans un nouveau segment par mois (format binaire).
+ * Seul un résumé de chaque segment (créneau couvert, nombre d'événements) reste en mémoire :
+ * une recherche n'ouvre que les segments qui recoupent la période demandée. Chaque segment a aussi
+ * un fichier {@code .ids} des empreintes triées de ses identifiants, chargé à l'ouverture, pour que
+ * {@link #trouverParId(EventId)} n'ouvre que le segment qui contient l'identifiant. Brancher l'archive
+ * sur le calendrier avec {@link CalendarManager#ajouterSource(SourceEvenements)}.
+ * <p>
+ * Les événements récurrents n'ont pas de fin et restent dans le calendrier ; un événement
+ * archivé ne peut plus être supprimé.
+ */
+public class ArchiveCalendrier implements SourceEvenements {
+
+    private static final String INDEX = "segments.idx";
+    private static final String EXTENSION_IDS = ".ids";
+    private static final int SEGMENTS_EN_CACHE = 8;
+
+    private final Path dossier;
+    private final BinaryCalendarSerializer format = new BinaryCalendarSerializer();
+    private final List<Segment> segments;
+    // Empreintes triées des identifiants de chaque segment, par nom de fichier
+    private final Map<String, long[]> empreintes = new ConcurrentHashMap<>();
+    // Derniers segments ouverts, du moins au plus récemment utilisé
+    private final Map<String, List<Event>> cache = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, List<Event>> plusAncien) {
+            return size() > SEGMENTS_EN_CACHE;
+        }
+    };
+
+    /**
+     * Résumé d'un segment : ses événements commencent dans le mois et occupent [debut, fin)
+     */
+    public record Segment(String fichier, YearMonth mois, LocalDateTime debut, LocalDateTime fin, int nombre) {
+
+        boolean recoupe(LocalDateTime debutRecherche, LocalDateTime finRecherche) {
+            return debut.isBefore(finRecherche) && fin.isAfter(debutRecherche);
+        }
+    }
+
+    private ArchiveCalendrier(Path dossier, List<Segment> segments) {
+        this.dossier = dossier;
+        this.segments = new CopyOnWriteArrayList<>(segments);
+    }
+
+    /**
+     * Ouvre l'archive du dossier (créé au besoin) en ne lisant que l'index des segments
+     */
+    public static ArchiveCalendrier ouvrir(Path dossier) throws IOException {
+        Files.createDirectories(dossier);
+        List<Segment> segments = new ArrayList<>();
+        Path index = dossier.resolve(INDEX);
+        if (Files.exists(index)) {
+            for (String ligne : Files.readAllLines(index, StandardCharsets.UTF_8)) {
+                if (ligne.isBlank()) {
+                    continue;
+                }
+                String[] champs = ligne.split("\t");
+                if (champs.length != 5) {
+                    throw new IOException("Index d'archive invalide: " + ligne);
+                }
+                segments.add(new Segment(champs[0], YearMonth.parse(champs[1]), LocalDateTime.parse(champs[2]),
+                        LocalDateTime.parse(champs[3]), Integer.parseInt(champs[4])));
+            }
+        }
+        ArchiveCalendrier archive = new ArchiveCalendrier(dossier, segments);
+        for (Segment segment : segments) {
+            archive.empreintes.put(segment.fichier(), archive.lireEmpreintes(segment));
+        }
+        return archive;
+    }
+
+    public List<Segment> segments() {
+        return Collections.unmodifiableList(segments);
+    }
+
+    /**
+     * Déplace dans l'archive les événements non récurrents terminés avant l'horizon.
+     * Les segments et l'index sont écrits avant que les événements quittent le calendrier.
+     *
+     * @return le nombre d'événements archivés
+     */
+    public synchronized int archiver(CalendarManager calendar, LocalDateTime horizon) throws IOException {
+        Map<YearMonth, List<Event>> parMois = new TreeMap<>();
+        for (Event e : calendar.getAllEvents()) {
+            if (!e.estRecurrent() && !e.getEndDateTime().isAfter(horizon)) {
+                parMois.computeIfAbsent(YearMonth.from(e.getStartDateTime()), m -> new ArrayList<>()).add(e);
+            }
+        }
+        if (parMois.isEmpty()) {
+            return 0;
+        }
+
+        List<Segment> nouveaux = new ArrayList<>();
+        for (Map.Entry<YearMonth, List<Event>> mois : parMois.entrySet()) {
+            nouveaux.add(ecrireSegment(mois.getKey(), mois.getValue()));
+        }
+        List<Segment> tous = new ArrayList<>(segments);
+        tous.addAll(nouveaux);
+        ecrireIndex(tous);
+        segments.addAll(nouveaux);
+
+        int archives = 0;
+        for (List<Event> evenements : parMois.values()) {
+            for (Event e : evenements) {
+                calendar.supprimerEvenement(e.getId());
+                archives++;
+            }
+        }
+        return archives;
+    }
+
+    /**
+     * Archive ce qui s'est terminé avant maintenant moins la rétention
+     */
+    public int archiver(CalendarManager calendar, Period retention) throws IOException {
+        return archiver(calendar, LocalDateTime.now().minus(retention));
+    }
+
+    private Segment ecrireSegment(YearMonth mois, List<Event> evenements) throws IOException {
+        evenements.sort(Comparator.comparingLong(Event::debutEnMinutes));
+        LocalDateTime fin = evenements.get(0).getEndDateTime();
+        for (Event e : evenements) {
+            fin = e.getEndDateTime().isAfter(fin) ? e.getEndDateTime() : fin;
+        }
+
+        // Un nouveau fichier à chaque archivage : un segment écrit n'est jamais modifié
+        int numero = 1;
+        String nom;
+        do {
+            nom = mois + "-" + numero++ + BinaryCalendarSerializer.EXTENSION;
+        } while (Files.exists(dossier.resolve(nom)));
+
+        // Les empreintes d'abord : un segment présent a toujours les siennes
+        long[] ids = empreintes(evenements);
+        ecrireFichier(dossier.resolve(nom + EXTENSION_IDS), out -> {
+            DataOutputStream donnees = new DataOutputStream(out);
+            for (long id : ids) {
+                donnees.writeLong(id);
+            }
+            donnees.flush();
+        });
+        ecrireFichier(dossier.resolve(nom), out -> format.ecrireEvenements(evenements, out));
+        empreintes.put(nom, ids);
+        return new Segment(nom, mois, evenements.get(0).getStartDateTime(), fin, evenements.size());
+    }
+
+    @FunctionalInterface
+    private interface Ecriture {
+        void ecrire(OutputStream out) throws IOException;
+    }
+
+    private static void ecrireFichier(Path cible, Ecriture ecriture) throws IOException {
+        Path temporaire = RemplacementAtomique.creerTemporaire(cible);
+        try {
+            try (FileChannel canal = FileChannel.open(temporaire, StandardOpenOption.WRITE)) {
+                OutputStream out = new BufferedOutputStream(Channels.newOutputStream(canal), CalendarSerializer.TAILLE_TAMPON);
+                ecriture.ecrire(out);
+                out.flush();
+                canal.force(true);
+            }
+            RemplacementAtomique.remplacer(temporaire, cible);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(temporaire);
+            throw e;
+        }
+    }
+
+    /**
+     * Empreintes des identifiants du segment ; recalculées depuis le segment si le fichier
+     * {@code .ids} manque (archive écrite avant leur introduction)
+     */
+    private long[] lireEmpreintes(Segment segment) throws IOException {
+        Path fichier = dossier.resolve(segment.fichier() + EXTENSION_IDS);
+        if (!Files.exists(fichier)) {
+            try {
+                return empreintes(lire(segment));
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+        }
+        byte[] octets = Files.readAllBytes(fichier);
+        if (octets.length % Long.BYTES != 0) {
+            throw new IOException("Empreintes d'archive invalides: " + fichier.getFileName());
+        }
+        long[] ids = new long[octets.length / Long.BYTES];
+        ByteBuffer.wrap(octets).asLongBuffer().get(ids);
+        return ids;
+    }
+
+    private static long[] empreintes(List<Event> evenements) {
+        long[] ids = new long[evenements.size()];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = empreinte(evenements.get(i).getId());
+        }
+        Arrays.sort(ids);
+        return ids;
+    }
+
+    /**
+     * Empreinte sur 64 bits : deux identifiants distincts peuvent la partager, une recherche
+     * la confirme donc dans le segment
+     */
+    private static long empreinte(EventId id) {
+        long h;
+        if (id.estCompact()) {
+            h = id.poidsFort() ^ Long.rotateLeft(id.poidsFaible(), 32);
+        } else {
+            // FNV-1a sur les caractères
+            h = 0xcbf29ce484222325L;
+            String valeur = id.valeur();
+            for (int i = 0; i < valeur.length(); i++) {
+                h = (h ^ valeur.charAt(i)) * 0x100000001b3L;
+            }
+            h = ~h;
+        }
+        h *= 0x9E3779B97F4A7C15L;
+        return h ^ (h >>> 29);
+    }
+
+    private void ecrireIndex(List<Segment> tous) throws IOException {
+        StringBuilder contenu = new StringBuilder();
+        for (Segment s : tous) {
+            contenu.append(s.fichier()).append('\t').append(s.mois()).append('\t').append(s.debut())
+                    .append('\t').append(s.fin()).append('\t').append(s.nombre()).append('\n');
+        }
+        ecrireFichier(dossier.resolve(INDEX), out -> out.write(contenu.toString().getBytes(StandardCharsets.UTF_8)));
+    }
+
+    /**
+     * Ne lit que les segments dont les empreintes contiennent celle de l'identifiant
+     */
+    @Override
+    public Optional<Event> trouverParId(EventId id) {
+        long cherchee = empreinte(id);
+        for (Segment segment : segments) {
+            long[] ids = empreintes.get(segment.fichier());
+            if (ids != null && Arrays.binarySearch(ids, cherchee) >= 0) {
+                for (Event e : lire(segment)) {
+                    if (e.getId().equals(id)) {
+                        return Optional.of(e);
+                    }
+                }
+            }
+        }
+        return Optional.empty();
+    }
+
+    @Override
+    public Iterator<Event> occurrences(Periode periode) {
+        return occurrences(periode, e -> true);
+    }
+
+    @Override
+    public Iterator<Event> occurrences(ProprietaireEvenement proprietaire, Periode periode) {
+        return occurrences(periode, e -> e.getProprietaire().equals(proprietaire));
+    }
+
+    /**
+     * Un parcours par segment recoupé, chacun déjà trié par début : la fusion les entrelace
+     * au fil de la lecture, sans rien recopier ni trier
+     */
+    private Iterator<Event> occurrences(Periode periode, Predicate<Event> filtre) {
+        // Une occurrence est retenue sur sa date, à un jour près de son créneau : on élargit d'un jour
+        LocalDateTime debut = periode.debut().minusDays(1);
+        LocalDateTime fin = periode.fin().plusDays(1);
+        List<Iterator<Event>> flux = new ArrayList<>();
+        for (Segment segment : segments) {
+            if (segment.recoupe(debut, fin)) {
+                flux.add(new ParcoursSegment(segment, periode, filtre,
+                        Event.enMinutes(debut), Event.enMinutesParExces(fin)));
+            }
+        }
+        return new FusionOccurrences(flux);
+    }
+
+    /**
+     * Occurrences d'un segment par début croissant. Le segment n'est lu qu'au premier appel,
+     * et le parcours s'arrête au premier événement qui commence après la période.
+     */
+    private final class ParcoursSegment implements Iterator<Event> {
+        private final Segment segment;
+        private final Periode periode;
+        private final Predicate<Event> filtre;
+        private final long debutMinutes;
+        private final long finMinutes;
+        private List<Event> evenements;
+        private int position;
+        private Iterator<Event> courant = Collections.emptyIterator();
+
+        private ParcoursSegment(Segment segment, Periode periode, Predicate<Event> filtre,
+                                long debutMinutes, long finMinutes) {
+            this.segment = segment;
+            this.periode = periode;
+            this.filtre = filtre;
+            this.debutMinutes = debutMinutes;
+            this.finMinutes = finMinutes;
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (!courant.hasNext()) {
+                if (evenements == null) {
+                    evenements = lire(segment);
+                }
+                if (position == evenements.size()) {
+                    return false;
+                }
+                Event e = evenements.get(position++);
+                if (e.debutEnMinutes() >= finMinutes) {
+                    position = evenements.size();
+                    return false;
+                }
+                if (e.finEnMinutes() > debutMinutes && filtre.test(e)) {
+                    courant = e.occurrences(periode);
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public Event next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            return courant.next();
+        }
+    }
+
+    @Override
+    public List<Event> chevauchements(LocalDateTime debut, LocalDateTime fin) {
+        return chevauchements(debut, fin, e -> true);
+    }
+
+    @Override
+    public List<Event> chevauchements(ProprietaireEvenement proprietaire, LocalDateTime debut, LocalDateTime fin) {
+        return chevauchements(debut, fin, e -> e.getProprietaire().equals(proprietaire));
+    }
+
+    private List<Event> chevauchements(LocalDateTime debut, LocalDateTime fin, Predicate<Event> filtre) {
+        long debutMinutes = Event.enMinutes(debut);
+        long finMinutes = Event.enMinutesParExces(fin);
+        List<Event> resultat = new ArrayList<>();
+        for (Segment segment : segments) {
+            if (segment.recoupe(debut, fin)) {
+                for (Event e : lire(segment)) {
+                    if (e.debutEnMinutes() < finMinutes && e.finEnMinutes() > debutMinutes && filtre.test(e)) {
+                        resultat.add(e);
+                    }
+                }
+            }
+        }
+        return resultat;
+    }
+
+    private List<Event> lire(Segment segment) {
+        synchronized (cache) {
+            List<Event> evenements = cache.get(segment.fichier());
+            if (evenements != null) {
+                return evenements;
+            }
+        }
+        List<Event> evenements = new ArrayList<>(segment.nombre());
+        try (InputStream in = new BufferedInputStream(Files.newInputStream(dossier.resolve(segment.fichier())),
+                CalendarSerializer.TAILLE_TAMPON)) {
+            format.lireEvenements(in, evenements::add);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Segment d'archive illisible: " + segment.fichier(), e);
+        }
+        List<Event> lus = Collections.unmodifiableList(evenements);
+        synchronized (cache) {
+            cache.put(segment.fichier(), lus);
+        }
+        return lus;
+    }
+}
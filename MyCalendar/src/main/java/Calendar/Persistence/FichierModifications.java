@@ -0,0 +1,249 @@
+package Calendar.Persistence;
+
+import Calendar.CalendarManager;
+import Calendar.Events.Event;
+import Calendar.Serialization.BinaryCalendarSerializer;
+import Calendar.Serialization.CalendarSerializer;
+import Calendar.Util.RemplacementAtomique;
+import Calendar.vo.EventId;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32;
+
+/**
+ * Segments de modifications écrits à la suite de l'instantané par les sauvegardes
+ * incrémentales. Chaque segment {@code [longueur][données][crc32]} contient l'effet net
+ * des modifications entre deux sauvegardes ; ils sont réappliqués dans l'ordre au
+ * chargement, puis repliés dans l'instantané ({@link #compacter(long)}).
+ */
+public class FichierModifications implements Closeable {
+
+    public static final String EXTENSION = ".modifications";
+
+    // "MCPT" en ASCII
+    private static final int SIGNATURE = 0x4D435054;
+    // Version 2 : identifiants supprimés UUID sur deux long (les segments de la version 1 restent lisibles)
+    private static final int VERSION = 2;
+    private static final int TAILLE_ENTETE = 6;
+
+    // Premier octet d'un segment : le calendrier a été vidé, et les identifiants portent leur forme
+    private static final int VIDE = 0x01;
+    private static final int IDS_BINAIRES = 0x02;
+
+    private final Path fichier;
+    private FileChannel canal;
+
+    private FichierModifications(Path fichier, FileChannel canal) {
+        this.fichier = fichier;
+        this.canal = canal;
+    }
+
+    /**
+     * Ouvre le fichier de modifications, en le créant s'il n'existe pas
+     */
+    public static FichierModifications ouvrir(Path fichier) throws IOException {
+        FileChannel canal = FileChannel.open(fichier, StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            if (canal.size() == 0) {
+                ecrireEntete(canal);
+                canal.force(true);
+            } else {
+                ByteBuffer entete = ByteBuffer.allocate(TAILLE_ENTETE);
+                canal.read(entete, 0);
+                entete.flip();
+                if (entete.remaining() < TAILLE_ENTETE || entete.getInt() != SIGNATURE) {
+                    throw new IOException("Le fichier ne contient pas de modifications de calendrier: " + fichier);
+                }
+                int version = entete.getShort() & 0xFFFF;
+                if (version > VERSION) {
+                    throw new IOException("Version de fichier de modifications non prise en charge: " + version);
+                }
+            }
+            canal.position(canal.size());
+            return new FichierModifications(fichier, canal);
+        } catch (IOException e) {
+            canal.close();
+            throw e;
+        }
+    }
+
+    private static void ecrireEntete(FileChannel canal) throws IOException {
+        ByteBuffer entete = ByteBuffer.allocate(TAILLE_ENTETE).putInt(SIGNATURE).putShort((short) VERSION).flip();
+        while (entete.hasRemaining()) {
+            canal.write(entete);
+        }
+    }
+
+    /**
+     * Réapplique les segments sur le calendrier chargé depuis l'instantané. Un dernier
+     * segment incomplet (sauvegarde interrompue) est ignoré et retiré du fichier.
+     *
+     * @return le bilan des ajouts des segments : les événements écartés (conflit, identifiant
+     * en double dans un segment) y figurent, pas ceux que l'instantané contenait déjà
+     */
+    public synchronized CalendarManager.RapportChargement appliquer(CalendarManager calendar) throws IOException {
+        int ajoutes = 0;
+        List<CalendarManager.PaireEnConflit> conflits = new ArrayList<>();
+        List<Event> rejetes = new ArrayList<>();
+        long valide = TAILLE_ENTETE;
+        try (DataInputStream entree = new DataInputStream(new BufferedInputStream(
+                Files.newInputStream(fichier), CalendarSerializer.TAILLE_TAMPON))) {
+            entree.skipNBytes(TAILLE_ENTETE);
+            byte[] segment;
+            while ((segment = lireSegment(entree)) != null) {
+                CalendarManager.RapportChargement rapport = appliquer(calendar, segment);
+                ajoutes += rapport.ajoutes();
+                conflits.addAll(rapport.conflits());
+                rejetes.addAll(rapport.rejetes());
+                valide += 8 + segment.length;
+            }
+        }
+        if (valide < canal.size()) {
+            canal.truncate(valide);
+            canal.force(true);
+        }
+        canal.position(valide);
+        return new CalendarManager.RapportChargement(ajoutes, conflits, rejetes);
+    }
+
+    private static byte[] lireSegment(DataInputStream entree) throws IOException {
+        try {
+            int longueur = entree.readInt();
+            if (longueur <= 0) {
+                return null;
+            }
+            byte[] segment = entree.readNBytes(longueur);
+            if (segment.length < longueur) {
+                return null;
+            }
+            CRC32 crc = new CRC32();
+            crc.update(segment);
+            return entree.readInt() == (int) crc.getValue() ? segment : null;
+        } catch (EOFException e) {
+            return null;
+        }
+    }
+
+    private static CalendarManager.RapportChargement appliquer(CalendarManager calendar, byte[] segment) throws IOException {
+        DataInputStream entree = new DataInputStream(new ByteArrayInputStream(segment));
+        int drapeaux = entree.readUnsignedByte();
+        if ((drapeaux & VIDE) != 0) {
+            calendar.clearEvents();
+        }
+        boolean idsBinaires = (drapeaux & IDS_BINAIRES) != 0;
+        int supprimes = entree.readInt();
+        for (int i = 0; i < supprimes; i++) {
+            EventId id = idsBinaires && entree.readBoolean()
+                    ? new EventId(entree.readLong(), entree.readLong())
+                    : new EventId(entree.readUTF());
+            calendar.supprimerEvenement(id);
+        }
+        int nombreAjoutes = entree.readInt();
+        List<Event> ajoutes = new ArrayList<>(nombreAjoutes);
+        for (int i = 0; i < nombreAjoutes; i++) {
+            byte[] evenement = new byte[entree.readInt()];
+            entree.readFully(evenement);
+            Event e = BinaryCalendarSerializer.decoderEvenement(evenement);
+            // Déjà présent dans l'instantané : rien à réappliquer
+            if (calendar.trouverParId(e.getId()).isEmpty()) {
+                ajoutes.add(e);
+            }
+        }
+        return calendar.ajouterEnMasse(ajoutes);
+    }
+
+    /**
+     * Ajoute un segment à la fin du fichier et attend qu'il soit sur disque
+     */
+    public synchronized void ajouter(SuiviModifications.Modifications modifications) throws IOException {
+        ByteArrayOutputStream octets = new ByteArrayOutputStream();
+        DataOutputStream sortie = new DataOutputStream(octets);
+        sortie.writeInt(0);
+        sortie.writeByte((modifications.vide() ? VIDE : 0) | IDS_BINAIRES);
+        sortie.writeInt(modifications.supprimes().size());
+        for (EventId id : modifications.supprimes()) {
+            // Un UUID sur ses deux long, tout autre identifiant en texte
+            sortie.writeBoolean(id.estCompact());
+            if (id.estCompact()) {
+                sortie.writeLong(id.poidsFort());
+                sortie.writeLong(id.poidsFaible());
+            } else {
+                sortie.writeUTF(id.valeur());
+            }
+        }
+        sortie.writeInt(modifications.ajoutes().size());
+        for (Event e : modifications.ajoutes()) {
+            byte[] evenement = BinaryCalendarSerializer.encoderEvenement(e);
+            sortie.writeInt(evenement.length);
+            sortie.write(evenement);
+        }
+        sortie.writeInt(0);
+
+        ByteBuffer segment = ByteBuffer.wrap(octets.toByteArray());
+        int longueur = segment.capacity() - 8;
+        CRC32 crc = new CRC32();
+        crc.update(segment.array(), 4, longueur);
+        segment.putInt(0, longueur).putInt(4 + longueur, (int) crc.getValue());
+        while (segment.hasRemaining()) {
+            canal.write(segment);
+        }
+        canal.force(false);
+    }
+
+    /**
+     * Taille actuelle du fichier, à relever avant d'écrire un instantané
+     */
+    public synchronized long longueur() throws IOException {
+        return canal.size();
+    }
+
+    /**
+     * Retire les segments qui précèdent la position donnée, désormais repliés dans l'instantané
+     */
+    public synchronized void compacter(long position) throws IOException {
+        long fin = canal.size();
+        long debut = Math.max(TAILLE_ENTETE, Math.min(position, fin));
+        Path temporaire = RemplacementAtomique.creerTemporaire(fichier);
+        try {
+            try (FileChannel nouveau = FileChannel.open(temporaire, StandardOpenOption.WRITE)) {
+                ecrireEntete(nouveau);
+                long copie = debut;
+                while (copie < fin) {
+                    copie += canal.transferTo(copie, fin - copie, nouveau);
+                }
+                nouveau.force(true);
+            }
+            canal.close();
+            RemplacementAtomique.remplacer(temporaire, fichier);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(temporaire);
+            throw e;
+        } finally {
+            // Nouveau fichier, ou l'ancien si le remplacement a échoué
+            if (!canal.isOpen()) {
+                canal = FileChannel.open(fichier, StandardOpenOption.READ, StandardOpenOption.WRITE);
+                canal.position(canal.size());
+            }
+        }
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        canal.close();
+    }
+}
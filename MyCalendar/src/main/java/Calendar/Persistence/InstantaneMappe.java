@@ -0,0 +1,626 @@
+package Calendar.Persistence;
+
+import Calendar.Events.*;
+import Calendar.Serialization.CalendarSerializer;
+import Calendar.Util.RemplacementAtomique;
+import Calendar.vo.*;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+
+/**
+ * Instantané du calendrier en lecture seule, projeté en mémoire ({@code MappedByteBuffer})
+ * pour les fichiers {@value #EXTENSION}.
+ * <p>
+ * Le fichier contient une table d'enregistrements de taille fixe triée par début, la liste
+ * des événements récurrents, la liste des propriétaires, une table de hachage des identifiants
+ * et un tas de chaînes adressées par leur position (un identifiant UUID y est rangé sur ses
+ * deux {@code long}). L'ouverture ne lit que l'en-tête et la liste
+ * des propriétaires : une recherche par période est une dichotomie dans la table, une recherche
+ * par identifiant un sondage dans la table de hachage, et seuls les événements retenus sont
+ * reconstruits. Le système ne charge que les pages effectivement lues.
+ * <p>
+ * Brancher l'instantané sur le calendrier avec
+ * {@link Calendar.CalendarManager#ajouterSource(SourceEvenements)} ; ses événements ne
+ * peuvent pas être supprimés.
+ */
+public class InstantaneMappe implements SourceEvenements {
+
+    public static final String EXTENSION = ".mcmap";
+
+    // "MCSN" en ASCII
+    private static final int SIGNATURE = 0x4D43534E;
+    // Version 2 : table des identifiants hachée par EventId.hashCode()
+    // Version 3 : identifiants UUID rangés dans le tas sur leurs deux long
+    private static final int VERSION = 3;
+    private static final int TAILLE_ENTETE = 40;
+    private static final int TAILLE_ENREGISTREMENT = 64;
+    private static final int ABSENT = -1;
+    // Longueur d'une entrée du tas qui contient un UUID (deux long) et non une chaîne
+    private static final int UUID = -1;
+    private static final long MINUTES_PAR_JOUR = 24 * 60;
+
+    private static final int RENDEZ_VOUS = 1;
+    private static final int REUNION = 2;
+    private static final int EVENEMENT_PERIODIQUE = 3;
+    private static final int ANNIVERSAIRE = 4;
+
+    // Champs d'un enregistrement, en octets depuis son début
+    private static final int DEBUT = 0;
+    private static final int FIN = 8;
+    private static final int DATE_SECONDES = 16;
+    private static final int DATE_NANOS = 24;
+    private static final int MINUTE_DU_JOUR = 28;
+    private static final int TYPE = 30;
+    private static final int DUREE = 32;
+    private static final int FREQUENCE = 36;
+    private static final int ID = 40;
+    private static final int TITRE = 44;
+    private static final int PROPRIETAIRE = 48;
+    private static final int LIEU = 52;
+    // Participants d'une réunion ou personne fêtée d'un anniversaire
+    private static final int COMPLEMENT = 56;
+
+    private final ByteBuffer carte;
+    private final int version;
+    private final int nombre;
+    private final long dureeMax;
+    private final int[] recurrents;
+    private final Map<String, Integer> proprietaires;
+    private final int capaciteIndex;
+    private final int debutIndex;
+    private final int debutTas;
+
+    private InstantaneMappe(ByteBuffer carte, int version, int nombre, long dureeMax, int[] recurrents,
+                            Map<String, Integer> proprietaires, int capaciteIndex, int debutIndex, int debutTas) {
+        this.carte = carte;
+        this.version = version;
+        this.nombre = nombre;
+        this.dureeMax = dureeMax;
+        this.recurrents = recurrents;
+        this.proprietaires = proprietaires;
+        this.capaciteIndex = capaciteIndex;
+        this.debutIndex = debutIndex;
+        this.debutTas = debutTas;
+    }
+
+    /**
+     * Projette le fichier en mémoire sans lire les enregistrements
+     */
+    public static InstantaneMappe ouvrir(Path fichier) throws IOException {
+        ByteBuffer carte;
+        try (FileChannel canal = FileChannel.open(fichier, StandardOpenOption.READ)) {
+            if (canal.size() > Integer.MAX_VALUE) {
+                throw new IOException("Instantané trop volumineux pour être projeté: " + fichier);
+            }
+            // La projection reste valide après la fermeture du canal
+            carte = canal.map(FileChannel.MapMode.READ_ONLY, 0, canal.size());
+        }
+        if (carte.capacity() < TAILLE_ENTETE || carte.getInt(0) != SIGNATURE) {
+            throw new IOException("Le fichier n'est pas un instantané de calendrier: " + fichier);
+        }
+        int version = carte.getShort(4) & 0xFFFF;
+        if (version > VERSION) {
+            throw new IOException("Version d'instantané non prise en charge: " + version);
+        }
+        int nombre = carte.getInt(8);
+        int nombreRecurrents = carte.getInt(12);
+        int nombreProprietaires = carte.getInt(16);
+        int capaciteIndex = carte.getInt(20);
+        int tailleTas = carte.getInt(24);
+        long dureeMax = carte.getLong(32);
+
+        long debutRecurrents = TAILLE_ENTETE + (long) nombre * TAILLE_ENREGISTREMENT;
+        long debutProprietaires = debutRecurrents + 4L * nombreRecurrents;
+        long debutIndex = debutProprietaires + 4L * nombreProprietaires;
+        long debutTas = debutIndex + 4L * capaciteIndex;
+        if (nombre < 0 || nombreRecurrents < 0 || nombreProprietaires < 0 || tailleTas < 0
+                || Integer.bitCount(capaciteIndex) != 1 || debutTas + tailleTas != carte.capacity()) {
+            throw new IOException("Instantané de calendrier corrompu: " + fichier);
+        }
+
+        int[] recurrents = new int[nombreRecurrents];
+        for (int i = 0; i < recurrents.length; i++) {
+            recurrents[i] = carte.getInt((int) debutRecurrents + 4 * i);
+        }
+        InstantaneMappe instantane = new InstantaneMappe(carte, version, nombre, dureeMax, recurrents,
+                new HashMap<>(), capaciteIndex, (int) debutIndex, (int) debutTas);
+        for (int i = 0; i < nombreProprietaires; i++) {
+            int position = carte.getInt((int) debutProprietaires + 4 * i);
+            instantane.proprietaires.put(instantane.chaine(position), position);
+        }
+        return instantane;
+    }
+
+    /**
+     * Écrit un instantané des événements, en remplaçant le fichier de façon atomique
+     */
+    public static void ecrire(Iterable<Event> evenements, Path fichier) throws IOException {
+        List<Event> tries = new ArrayList<>();
+        evenements.forEach(tries::add);
+        tries.sort(Comparator.comparingLong(Event::debutEnMinutes));
+
+        Tas tas = new Tas();
+        int[][] chaines = new int[tries.size()][];
+        List<Integer> recurrents = new ArrayList<>();
+        Map<String, Integer> proprietaires = new HashMap<>();
+        long dureeMax = 0;
+        for (int i = 0; i < tries.size(); i++) {
+            Event e = tries.get(i);
+            int proprietaire = tas.chaine(e.getProprietaire().valeur());
+            proprietaires.putIfAbsent(e.getProprietaire().valeur(), proprietaire);
+            chaines[i] = new int[]{tas.identifiant(e.getId()), tas.chaine(e.getTitre().valeur()),
+                    proprietaire, lieu(e, tas), complement(e, tas)};
+            if (e.estRecurrent()) {
+                recurrents.add(i);
+            }
+            dureeMax = Math.max(dureeMax, e.getDuree().valeur());
+        }
+        int capaciteIndex = Math.max(2, Integer.highestOneBit(Math.max(1, tries.size())) << 2);
+        int[] index = new int[capaciteIndex];
+        for (int i = 0; i < tries.size(); i++) {
+            int case_ = hachage(tries.get(i).getId().hashCode(), capaciteIndex);
+            while (index[case_] != 0) {
+                case_ = (case_ + 1) & (capaciteIndex - 1);
+            }
+            index[case_] = i + 1;
+        }
+
+        long taille = TAILLE_ENTETE + (long) tries.size() * TAILLE_ENREGISTREMENT
+                + 4L * (recurrents.size() + proprietaires.size() + capaciteIndex) + tas.size();
+        if (taille > Integer.MAX_VALUE) {
+            throw new IOException("Instantané trop volumineux pour être projeté: " + taille + " octets");
+        }
+
+        Path temporaire = RemplacementAtomique.creerTemporaire(fichier);
+        try {
+            try (FileChannel canal = FileChannel.open(temporaire, StandardOpenOption.WRITE)) {
+                DataOutputStream sortie = new DataOutputStream(
+                        new BufferedOutputStream(Channels.newOutputStream(canal), CalendarSerializer.TAILLE_TAMPON));
+                sortie.writeInt(SIGNATURE);
+                sortie.writeShort(VERSION);
+                sortie.writeShort(0);
+                sortie.writeInt(tries.size());
+                sortie.writeInt(recurrents.size());
+                sortie.writeInt(proprietaires.size());
+                sortie.writeInt(capaciteIndex);
+                sortie.writeInt(tas.size());
+                sortie.writeInt(0);
+                sortie.writeLong(dureeMax);
+                for (int i = 0; i < tries.size(); i++) {
+                    ecrireEnregistrement(tries.get(i), chaines[i], sortie);
+                }
+                for (int recurrent : recurrents) {
+                    sortie.writeInt(recurrent);
+                }
+                for (int proprietaire : proprietaires.values()) {
+                    sortie.writeInt(proprietaire);
+                }
+                for (int case_ : index) {
+                    sortie.writeInt(case_);
+                }
+                tas.writeTo(sortie);
+                sortie.flush();
+                canal.force(true);
+            }
+            RemplacementAtomique.remplacer(temporaire, fichier);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(temporaire);
+            throw e;
+        }
+    }
+
+    private static void ecrireEnregistrement(Event e, int[] chaines, DataOutputStream sortie) throws IOException {
+        LocalDateTime date = e.getDateDebut().valeur();
+        sortie.writeLong(e.debutEnMinutes());
+        sortie.writeLong(e.finEnMinutes());
+        sortie.writeLong(date.toEpochSecond(ZoneOffset.UTC));
+        sortie.writeInt(date.getNano());
+        sortie.writeShort(e.getHeureDebut().heure() * 60 + e.getHeureDebut().minute());
+        sortie.writeShort(type(e));
+        sortie.writeInt(e.getDuree().valeur());
+        sortie.writeInt(e instanceof EvenementPeriodique periodique ? periodique.getFrequenceJours() : 0);
+        for (int chaine : chaines) {
+            sortie.writeInt(chaine);
+        }
+        sortie.writeInt(0);
+    }
+
+    private static int type(Event event) throws IOException {
+        if (event instanceof Reunion) {
+            return REUNION;
+        }
+        if (event instanceof EvenementPeriodique) {
+            return EVENEMENT_PERIODIQUE;
+        }
+        if (event instanceof Anniversaire) {
+            return ANNIVERSAIRE;
+        }
+        if (event instanceof RendezVous) {
+            return RENDEZ_VOUS;
+        }
+        throw new IOException("Type d'événement non pris en charge: " + event.getClass().getSimpleName());
+    }
+
+    private static int lieu(Event e, Tas tas) throws IOException {
+        return e instanceof Reunion reunion && reunion.getLieu() != null ? tas.chaine(reunion.getLieu().valeur()) : ABSENT;
+    }
+
+    private static int complement(Event e, Tas tas) throws IOException {
+        if (e instanceof Reunion reunion && reunion.getParticipants() != null) {
+            return tas.liste(reunion.getParticipants().noms());
+        }
+        if (e instanceof Anniversaire anniversaire) {
+            return tas.chaine(anniversaire.getPersonneFetee());
+        }
+        return ABSENT;
+    }
+
+    private static int hachage(int h, int capacite) {
+        return (h ^ (h >>> 16)) & (capacite - 1);
+    }
+
+    public int taille() {
+        return nombre;
+    }
+
+    @Override
+    public Optional<Event> trouverParId(EventId id) {
+        // Un UUID se hache sur ses deux long ; la version 1 hachait le texte
+        int case_ = hachage(version >= 2 ? id.hashCode() : id.valeur().hashCode(), capaciteIndex);
+        // Depuis la version 3, un UUID se compare sur ses deux long, sans passer par son texte
+        boolean uuid = version >= 3 && id.estCompact();
+        byte[] recherche = uuid ? null : id.valeur().getBytes(StandardCharsets.UTF_8);
+        int indice;
+        while ((indice = carte.getInt(debutIndex + 4 * case_)) != 0) {
+            int position = debutTas + carte.getInt(enregistrement(indice - 1) + ID);
+            boolean egal = uuid
+                    ? carte.getInt(position) == UUID && carte.getLong(position + 4) == id.poidsFort()
+                            && carte.getLong(position + 12) == id.poidsFaible()
+                    : chaineEgale(position - debutTas, recherche);
+            if (egal) {
+                return Optional.of(lire(indice - 1));
+            }
+            case_ = (case_ + 1) & (capaciteIndex - 1);
+        }
+        return Optional.empty();
+    }
+
+    @Override
+    public Iterator<Event> occurrences(Periode periode) {
+        return occurrences(ABSENT, periode);
+    }
+
+    @Override
+    public Iterator<Event> occurrences(ProprietaireEvenement proprietaire, Periode periode) {
+        Integer position = proprietaires.get(proprietaire.valeur());
+        return position == null ? Collections.emptyIterator() : occurrences(position, periode);
+    }
+
+    private Iterator<Event> occurrences(int proprietaire, Periode periode) {
+        // Une occurrence simple est retenue sur sa date, qui partage le jour de son début
+        int premier = premierDebutDepuis(Event.enMinutes(periode.debut()) - MINUTES_PAR_JOUR);
+        int dernier = premierDebutDepuis(Event.enMinutes(periode.fin()) + MINUTES_PAR_JOUR + 1);
+        Iterator<Event> simples = new Parcours(premier, dernier, proprietaire, periode);
+        if (recurrents.length == 0) {
+            return simples;
+        }
+        List<Event> series = new ArrayList<>();
+        for (int indice : recurrents) {
+            if (proprietaire == ABSENT || carte.getInt(enregistrement(indice) + PROPRIETAIRE) == proprietaire) {
+                lire(indice).occurrences(periode).forEachRemaining(series::add);
+            }
+        }
+        series.sort(Comparator.comparingLong(Event::debutEnMinutes));
+        return new Fusion(simples, series.iterator());
+    }
+
+    @Override
+    public List<Event> chevauchements(LocalDateTime debut, LocalDateTime fin) {
+        return chevauchements(ABSENT, debut, fin);
+    }
+
+    @Override
+    public List<Event> chevauchements(ProprietaireEvenement proprietaire, LocalDateTime debut, LocalDateTime fin) {
+        Integer position = proprietaires.get(proprietaire.valeur());
+        return position == null ? List.of() : chevauchements(position, debut, fin);
+    }
+
+    private List<Event> chevauchements(int position, LocalDateTime debut, LocalDateTime fin) {
+        long minuteDebut = Event.enMinutes(debut);
+        int premier = premierDebutDepuis(minuteDebut - dureeMax);
+        int dernier = premierDebutDepuis(Event.enMinutesParExces(fin));
+        List<Event> resultat = new ArrayList<>();
+        for (int i = premier; i < dernier; i++) {
+            int base = enregistrement(i);
+            // Filtre complet sur la table : seuls les événements retenus sont lus
+            if (carte.getLong(base + FIN) > minuteDebut
+                    && (position == ABSENT || carte.getInt(base + PROPRIETAIRE) == position)) {
+                resultat.add(lire(i));
+            }
+        }
+        return resultat;
+    }
+
+    @Override
+    public List<Event> recurrents(ProprietaireEvenement proprietaire) {
+        Integer position = proprietaires.get(proprietaire.valeur());
+        if (position == null) {
+            return List.of();
+        }
+        List<Event> resultat = new ArrayList<>();
+        for (int indice : recurrents) {
+            if (carte.getInt(enregistrement(indice) + PROPRIETAIRE) == position) {
+                resultat.add(lire(indice));
+            }
+        }
+        return resultat;
+    }
+
+    /**
+     * Indice du premier enregistrement qui commence à la minute donnée ou après
+     */
+    private int premierDebutDepuis(long minute) {
+        int bas = 0;
+        int haut = nombre;
+        while (bas < haut) {
+            int milieu = (bas + haut) >>> 1;
+            if (carte.getLong(enregistrement(milieu) + DEBUT) < minute) {
+                bas = milieu + 1;
+            } else {
+                haut = milieu;
+            }
+        }
+        return bas;
+    }
+
+    private static int enregistrement(int indice) {
+        return TAILLE_ENTETE + indice * TAILLE_ENREGISTREMENT;
+    }
+
+    /**
+     * Reconstruit l'événement d'un enregistrement
+     */
+    private Event lire(int indice) {
+        int base = enregistrement(indice);
+        EventId id = identifiant(carte.getInt(base + ID));
+        TitreEvenement titre = TitreEvenement.de(chaine(carte.getInt(base + TITRE)));
+        ProprietaireEvenement proprietaire = ProprietaireEvenement.de(chaine(carte.getInt(base + PROPRIETAIRE)));
+        DateEvenement date = new DateEvenement(LocalDateTime.ofEpochSecond(
+                carte.getLong(base + DATE_SECONDES), carte.getInt(base + DATE_NANOS), ZoneOffset.UTC));
+        int minuteDuJour = carte.getShort(base + MINUTE_DU_JOUR);
+        HeureDebut heure = new HeureDebut(minuteDuJour / 60, minuteDuJour % 60);
+        DureeEvenement duree = new DureeEvenement(carte.getInt(base + DUREE));
+        int complement = carte.getInt(base + COMPLEMENT);
+
+        switch (carte.getShort(base + TYPE)) {
+            case RENDEZ_VOUS:
+                return new RendezVous(id, titre, date, heure, duree, proprietaire);
+            case REUNION:
+                String lieu = chaine(carte.getInt(base + LIEU));
+                return new Reunion(id, titre, date, heure, duree,
+                        lieu == null ? null : new LieuEvenement(lieu), proprietaire,
+                        complement == ABSENT ? null : new Participants(liste(complement)));
+            case EVENEMENT_PERIODIQUE:
+                return new EvenementPeriodique(id, titre, date, heure, duree, carte.getInt(base + FREQUENCE), proprietaire);
+            case ANNIVERSAIRE:
+                return new Anniversaire(id, titre, date, heure, duree, proprietaire, chaine(complement));
+            default:
+                throw new IllegalStateException("Type d'événement inconnu: " + carte.getShort(base + TYPE));
+        }
+    }
+
+    private EventId identifiant(int position) {
+        if (version >= 3 && carte.getInt(debutTas + position) == UUID) {
+            return new EventId(carte.getLong(debutTas + position + 4), carte.getLong(debutTas + position + 12));
+        }
+        return new EventId(chaine(position));
+    }
+
+    private String chaine(int position) {
+        if (position == ABSENT) {
+            return null;
+        }
+        byte[] octets = new byte[carte.getInt(debutTas + position)];
+        carte.get(debutTas + position + 4, octets);
+        return new String(octets, StandardCharsets.UTF_8);
+    }
+
+    private boolean chaineEgale(int position, byte[] recherche) {
+        if (carte.getInt(debutTas + position) != recherche.length) {
+            return false;
+        }
+        for (int i = 0; i < recherche.length; i++) {
+            if (carte.get(debutTas + position + 4 + i) != recherche[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private String[] liste(int position) {
+        String[] noms = new String[carte.getInt(debutTas + position)];
+        for (int i = 0; i < noms.length; i++) {
+            noms[i] = chaine(carte.getInt(debutTas + position + 4 + 4 * i));
+        }
+        return noms;
+    }
+
+    /**
+     * Parcourt une plage de la table et ne reconstruit que les événements simples retenus
+     */
+    private final class Parcours implements Iterator<Event> {
+        private final int dernier;
+        private final int proprietaire;
+        private final long debutSecondes;
+        private final int debutNanos;
+        private final long finSecondes;
+        private final int finNanos;
+        private int courant;
+        private Event suivant;
+
+        private Parcours(int premier, int dernier, int proprietaire, Periode periode) {
+            this.courant = premier;
+            this.dernier = dernier;
+            this.proprietaire = proprietaire;
+            this.debutSecondes = periode.debut().toEpochSecond(ZoneOffset.UTC);
+            this.debutNanos = periode.debut().getNano();
+            this.finSecondes = periode.fin().toEpochSecond(ZoneOffset.UTC);
+            this.finNanos = periode.fin().getNano();
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (suivant == null && courant < dernier) {
+                int indice = courant++;
+                if (retenu(enregistrement(indice))) {
+                    suivant = lire(indice);
+                }
+            }
+            return suivant != null;
+        }
+
+        private boolean retenu(int base) {
+            if (carte.getShort(base + TYPE) == EVENEMENT_PERIODIQUE && carte.getInt(base + FREQUENCE) > 0) {
+                return false;
+            }
+            if (proprietaire != ABSENT && carte.getInt(base + PROPRIETAIRE) != proprietaire) {
+                return false;
+            }
+            // Même règle que Event.singleOccurrenceIterator : debut <= date < fin
+            long secondes = carte.getLong(base + DATE_SECONDES);
+            int nanos = carte.getInt(base + DATE_NANOS);
+            boolean apresDebut = secondes > debutSecondes || (secondes == debutSecondes && nanos >= debutNanos);
+            boolean avantFin = secondes < finSecondes || (secondes == finSecondes && nanos < finNanos);
+            return apresDebut && avantFin;
+        }
+
+        @Override
+        public Event next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            Event e = suivant;
+            suivant = null;
+            return e;
+        }
+    }
+
+    /**
+     * Fusion de deux itérateurs ordonnés par début
+     */
+    private static final class Fusion implements Iterator<Event> {
+        private final Iterator<Event> gauche;
+        private final Iterator<Event> droite;
+        private Event teteGauche;
+        private Event teteDroite;
+
+        private Fusion(Iterator<Event> gauche, Iterator<Event> droite) {
+            this.gauche = gauche;
+            this.droite = droite;
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (teteGauche == null && gauche.hasNext()) {
+                teteGauche = gauche.next();
+            }
+            if (teteDroite == null && droite.hasNext()) {
+                teteDroite = droite.next();
+            }
+            return teteGauche != null || teteDroite != null;
+        }
+
+        @Override
+        public Event next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            Event e;
+            if (teteDroite == null || (teteGauche != null
+                    && teteDroite.debutEnMinutes() >= teteGauche.debutEnMinutes())) {
+                e = teteGauche;
+                teteGauche = null;
+            } else {
+                e = teteDroite;
+                teteDroite = null;
+            }
+            return e;
+        }
+    }
+
+    /**
+     * Tas des chaînes, sans doublon : chaque chaîne est précédée de sa longueur en octets
+     */
+    private static final class Tas extends ByteArrayOutputStream {
+        private final DataOutputStream sortie = new DataOutputStream(this);
+        private final Map<String, Integer> positions = new HashMap<>();
+
+        Tas() {
+            super(CalendarSerializer.TAILLE_TAMPON);
+        }
+
+        int chaine(String chaine) throws IOException {
+            if (chaine == null) {
+                return ABSENT;
+            }
+            Integer position = positions.get(chaine);
+            if (position == null) {
+                position = size();
+                byte[] octets = chaine.getBytes(StandardCharsets.UTF_8);
+                sortie.writeInt(octets.length);
+                sortie.write(octets);
+                positions.put(chaine, position);
+            }
+            return position;
+        }
+
+        /**
+         * Un UUID sur ses deux long, derrière la longueur {@link #UUID} ; tout autre identifiant
+         * comme une chaîne
+         */
+        int identifiant(EventId id) throws IOException {
+            if (!id.estCompact()) {
+                return chaine(id.valeur());
+            }
+            int position = size();
+            sortie.writeInt(UUID);
+            sortie.writeLong(id.poidsFort());
+            sortie.writeLong(id.poidsFaible());
+            return position;
+        }
+
+        int liste(String[] chaines) throws IOException {
+            int[] positionsChaines = new int[chaines.length];
+            for (int i = 0; i < chaines.length; i++) {
+                positionsChaines[i] = chaine(chaines[i]);
+            }
+            int position = size();
+            sortie.writeInt(chaines.length);
+            for (int p : positionsChaines) {
+                sortie.writeInt(p);
+            }
+            return position;
+        }
+    }
+}
@@ -0,0 +1,403 @@
+package Calendar.Persistence;
+
+import Calendar.CalendarManager;
+import Calendar.JournalModifications;
+import Calendar.Events.Event;
+import Calendar.Serialization.BinaryCalendarSerializer;
+import Calendar.Util.RemplacementAtomique;
+import Calendar.vo.EventId;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.CRC32;
+
+/**
+ * Journal en ajout seul des modifications du calendrier (write-ahead log).
+ * <p>
+ * Chaque ajout, suppression ou vidage devient un petit enregistrement
+ * {@code [longueur][type][données][crc32]}, ajouté avant que la modification ne soit appliquée
+ * (voir {@link CalendarManager#brancherJournal(JournalModifications)}). La modification ne rend
+ * la main qu'une fois son enregistrement sur disque ; les écritures concurrentes sont regroupées
+ * (group commit) : le thread qui synchronise le fichier emporte tout ce qui a été journalisé
+ * pendant la synchronisation précédente, en un seul {@code force}.
+ * <p>
+ * Au démarrage, {@link #rejouer(CalendarManager)} réapplique le journal par-dessus le dernier
+ * instantané. Rejouer un enregistrement déjà présent dans l'instantané est sans effet, ce qui
+ * permet de compacter le journal après coup ({@link #compacter(long)}).
+ */
+public class JournalCalendrier implements JournalModifications, Closeable {
+
+    public static final String EXTENSION = ".journal";
+
+    // "MCJL" en ASCII
+    private static final int SIGNATURE = 0x4D434A4C;
+    // Version 2 : suppressions et ajouts avec l'identifiant UUID sur deux long
+    private static final int VERSION = 2;
+    private static final int TAILLE_ENTETE = 6;
+    private static final int TAILLE_MAX_ENREGISTREMENT = 16 * 1024 * 1024;
+
+    private static final int AJOUT = 1;
+    private static final int SUPPRESSION = 2;
+    private static final int VIDAGE = 3;
+    // Suppression d'un identifiant UUID, donné par ses deux long (SUPPRESSION garde le texte)
+    private static final int SUPPRESSION_UUID = 4;
+
+    private final Path fichier;
+    private final ReentrantLock verrou = new ReentrantLock();
+    private final Condition synchronise = verrou.newCondition();
+
+    private FileChannel canal;
+    // Enregistrements journalisés mais pas encore écrits
+    private final ByteArrayOutputStream enAttente = new ByteArrayOutputStream();
+    private final DataOutputStream sortie = new DataOutputStream(enAttente);
+    // Fin du journal, enregistrements en attente compris
+    private long fin;
+    private long journalises;
+    private long durables;
+    private boolean synchronisationEnCours;
+    private IOException echec;
+
+    private JournalCalendrier(Path fichier, FileChannel canal) {
+        this.fichier = fichier;
+        this.canal = canal;
+        this.fin = TAILLE_ENTETE;
+    }
+
+    /**
+     * Ouvre le journal, en le créant s'il n'existe pas
+     */
+    public static JournalCalendrier ouvrir(Path fichier) throws IOException {
+        FileChannel canal = FileChannel.open(fichier, StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            if (canal.size() == 0) {
+                ecrireEntete(canal);
+                canal.force(true);
+            } else {
+                ByteBuffer entete = ByteBuffer.allocate(TAILLE_ENTETE);
+                canal.read(entete, 0);
+                entete.flip();
+                if (entete.remaining() < TAILLE_ENTETE || entete.getInt() != SIGNATURE) {
+                    throw new IOException("Le fichier n'est pas un journal de calendrier: " + fichier);
+                }
+                int version = entete.getShort() & 0xFFFF;
+                if (version > VERSION) {
+                    throw new IOException("Version de journal non prise en charge: " + version);
+                }
+            }
+            canal.position(canal.size());
+            JournalCalendrier journal = new JournalCalendrier(fichier, canal);
+            journal.fin = canal.size();
+            return journal;
+        } catch (IOException e) {
+            canal.close();
+            throw e;
+        }
+    }
+
+    private static void ecrireEntete(FileChannel canal) throws IOException {
+        ByteBuffer entete = ByteBuffer.allocate(TAILLE_ENTETE).putInt(SIGNATURE).putShort((short) VERSION).flip();
+        while (entete.hasRemaining()) {
+            canal.write(entete);
+        }
+    }
+
+    /**
+     * Réapplique les enregistrements du journal sur le calendrier, à appeler avant de
+     * le brancher au calendrier. Une fin d'enregistrement incomplète ou corrompue (écriture
+     * interrompue par un arrêt brutal) est ignorée et retirée du fichier ; un enregistrement
+     * intact mais illisible fait échouer la reprise. Un ajout en conflit avec le calendrier
+     * est écarté et figure dans le bilan renvoyé.
+     */
+    public Reprise rejouer(CalendarManager calendar) throws IOException {
+        verrou.lock();
+        try {
+            int rejoues = 0;
+            List<CalendarManager.PaireEnConflit> conflits = new ArrayList<>();
+            List<Event> ecartes = new ArrayList<>();
+            long valide = TAILLE_ENTETE;
+            try (DataInputStream entree = new DataInputStream(new BufferedInputStream(
+                    Files.newInputStream(fichier), 64 * 1024))) {
+                entree.skipNBytes(TAILLE_ENTETE);
+                byte[] donnees;
+                while ((donnees = lireEnregistrement(entree)) != null) {
+                    appliquer(calendar, donnees, conflits, ecartes);
+                    valide += 8 + donnees.length;
+                    rejoues++;
+                }
+            }
+            if (valide < canal.size()) {
+                canal.truncate(valide);
+                canal.force(true);
+            }
+            canal.position(valide);
+            fin = valide;
+            return new Reprise(rejoues, conflits, ecartes);
+        } finally {
+            verrou.unlock();
+        }
+    }
+
+    /**
+     * Renvoie le type suivi des données, ou null en fin de journal valide
+     */
+    private static byte[] lireEnregistrement(DataInputStream entree) throws IOException {
+        try {
+            int longueur = entree.readInt();
+            if (longueur <= 0 || longueur > TAILLE_MAX_ENREGISTREMENT) {
+                return null;
+            }
+            byte[] donnees = new byte[longueur];
+            entree.readFully(donnees);
+            CRC32 crc = new CRC32();
+            crc.update(donnees);
+            return entree.readInt() == (int) crc.getValue() ? donnees : null;
+        } catch (EOFException e) {
+            return null;
+        }
+    }
+
+    private static void appliquer(CalendarManager calendar, byte[] donnees,
+                                  List<CalendarManager.PaireEnConflit> conflits, List<Event> ecartes) throws IOException {
+        byte[] charge = new byte[donnees.length - 1];
+        System.arraycopy(donnees, 1, charge, 0, charge.length);
+        switch (donnees[0]) {
+            case AJOUT:
+                Event evenement = BinaryCalendarSerializer.decoderEvenement(charge);
+                if (calendar.trouverParId(evenement.getId()).isPresent()) {
+                    // Déjà présent dans l'instantané
+                    break;
+                }
+                try {
+                    calendar.ajouterEvenement(evenement);
+                } catch (CalendarManager.ConflitEvenementException e) {
+                    // Le journal est écrit avant d'appliquer : l'ajout avait réussi, c'est le calendrier
+                    // rechargé qui a changé (instantané ou segments plus récents que le journal)
+                    for (Event existant : e.getEvenementsEnConflit()) {
+                        conflits.add(new CalendarManager.PaireEnConflit(existant, evenement));
+                    }
+                    ecartes.add(evenement);
+                }
+                break;
+            case SUPPRESSION:
+                calendar.supprimerEvenement(new EventId(new String(charge, StandardCharsets.UTF_8)));
+                break;
+            case SUPPRESSION_UUID:
+                if (charge.length != 2 * Long.BYTES) {
+                    throw new IOException("Enregistrement de suppression corrompu");
+                }
+                ByteBuffer uuid = ByteBuffer.wrap(charge);
+                calendar.supprimerEvenement(new EventId(uuid.getLong(), uuid.getLong()));
+                break;
+            case VIDAGE:
+                calendar.clearEvents();
+                break;
+            default:
+                throw new IOException("Type d'enregistrement de journal inconnu: " + donnees[0]);
+        }
+    }
+
+    @Override
+    public long journaliserAjouts(List<Event> evenements) throws IOException {
+        byte[][] charges = new byte[evenements.size()][];
+        for (int i = 0; i < charges.length; i++) {
+            charges[i] = BinaryCalendarSerializer.encoderEvenement(evenements.get(i));
+        }
+        return journaliser(AJOUT, charges);
+    }
+
+    @Override
+    public long journaliserSuppression(EventId id) throws IOException {
+        if (id.estCompact()) {
+            return journaliser(SUPPRESSION_UUID, ByteBuffer.allocate(2 * Long.BYTES)
+                    .putLong(id.poidsFort()).putLong(id.poidsFaible()).array());
+        }
+        return journaliser(SUPPRESSION, id.valeur().getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Override
+    public long journaliserVidage() throws IOException {
+        return journaliser(VIDAGE, new byte[0]);
+    }
+
+    /**
+     * Ajoute les enregistrements aux écritures en attente, sans attendre le disque,
+     * et renvoie le numéro du dernier
+     */
+    private long journaliser(int type, byte[]... charges) throws IOException {
+        verrou.lock();
+        try {
+            verifierUtilisable();
+            for (byte[] charge : charges) {
+                CRC32 crc = new CRC32();
+                crc.update(type);
+                crc.update(charge);
+                sortie.writeInt(1 + charge.length);
+                sortie.writeByte(type);
+                sortie.write(charge);
+                sortie.writeInt((int) crc.getValue());
+                fin += 9 + charge.length;
+                journalises++;
+            }
+            return journalises;
+        } finally {
+            verrou.unlock();
+        }
+    }
+
+    /**
+     * Attend que l'enregistrement soit sur disque. Si aucune synchronisation n'est en cours,
+     * ce thread écrit et synchronise tout ce qui attend ; sinon il attend la suivante.
+     */
+    @Override
+    public void attendreDurable(long numero) throws IOException {
+        verrou.lock();
+        try {
+            while (durables < numero) {
+                verifierUtilisable();
+                if (synchronisationEnCours) {
+                    synchronise.awaitUninterruptibly();
+                    continue;
+                }
+                synchronisationEnCours = true;
+                byte[] lot = enAttente.toByteArray();
+                enAttente.reset();
+                long cible = journalises;
+                verrou.unlock();
+                try {
+                    ecrire(lot);
+                } catch (IOException e) {
+                    echec = e;
+                } finally {
+                    verrou.lock();
+                    synchronisationEnCours = false;
+                    if (echec == null) {
+                        durables = cible;
+                    }
+                    synchronise.signalAll();
+                }
+            }
+        } finally {
+            verrou.unlock();
+        }
+    }
+
+    private void ecrire(byte[] lot) throws IOException {
+        ByteBuffer tampon = ByteBuffer.wrap(lot);
+        while (tampon.hasRemaining()) {
+            canal.write(tampon);
+        }
+        canal.force(false);
+    }
+
+    private void verifierUtilisable() throws IOException {
+        if (echec != null) {
+            throw new IOException("Journal inutilisable après une erreur d'écriture", echec);
+        }
+        if (!canal.isOpen()) {
+            throw new IllegalStateException("Journal fermé");
+        }
+    }
+
+    /**
+     * Bilan d'un {@link #rejouer(CalendarManager)} : enregistrements rejoués, et ajouts écartés
+     * parce qu'ils chevauchaient un événement du calendrier, avec les paires en conflit
+     */
+    public record Reprise(int rejoues, List<CalendarManager.PaireEnConflit> conflits, List<Event> ecartes) {
+
+        public Reprise {
+            conflits = List.copyOf(conflits);
+            ecartes = List.copyOf(ecartes);
+        }
+
+        public boolean estComplete() {
+            return ecartes.isEmpty();
+        }
+    }
+
+    /**
+     * Position de fin du journal, en comptant les enregistrements pas encore écrits.
+     * À relever avant d'écrire un instantané, puis à passer à {@link #compacter(long)}.
+     */
+    public long position() {
+        verrou.lock();
+        try {
+            return fin;
+        } finally {
+            verrou.unlock();
+        }
+    }
+
+    /**
+     * Retire du journal tout ce qui précède la position donnée, désormais couvert par un instantané.
+     * Le reste est recopié dans un nouveau fichier qui remplace l'ancien de façon atomique.
+     */
+    public void compacter(long position) throws IOException {
+        verrou.lock();
+        try {
+            verifierUtilisable();
+            while (synchronisationEnCours) {
+                synchronise.awaitUninterruptibly();
+            }
+            long ecrit = canal.size();
+            long debut = Math.max(TAILLE_ENTETE, Math.min(position, ecrit));
+            Path temporaire = RemplacementAtomique.creerTemporaire(fichier);
+            try {
+                try (FileChannel nouveau = FileChannel.open(temporaire, StandardOpenOption.WRITE)) {
+                    ecrireEntete(nouveau);
+                    long copie = debut;
+                    while (copie < ecrit) {
+                        copie += canal.transferTo(copie, ecrit - copie, nouveau);
+                    }
+                    nouveau.force(true);
+                }
+                canal.close();
+                RemplacementAtomique.remplacer(temporaire, fichier);
+            } catch (IOException | RuntimeException e) {
+                Files.deleteIfExists(temporaire);
+                throw e;
+            } finally {
+                // Nouveau journal, ou l'ancien si le remplacement a échoué
+                if (!canal.isOpen()) {
+                    canal = FileChannel.open(fichier, StandardOpenOption.READ, StandardOpenOption.WRITE);
+                    canal.position(canal.size());
+                    fin = canal.size() + enAttente.size();
+                }
+            }
+        } finally {
+            verrou.unlock();
+        }
+    }
+
+    /**
+     * Écrit les enregistrements en attente puis ferme le fichier
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            attendreDurable(journalises);
+        } finally {
+            verrou.lock();
+            try {
+                canal.close();
+            } finally {
+                verrou.unlock();
+            }
+        }
+    }
+}
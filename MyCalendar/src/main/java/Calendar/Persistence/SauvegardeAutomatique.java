@@ -0,0 +1,238 @@
+package Calendar.Persistence;
+
+import Calendar.CalendarManager;
+import Calendar.EcouteurCalendrier;
+import Calendar.Events.Event;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Sauvegarde automatique d'un calendrier, sur un thread d'arrière-plan.
+ * <p>
+ * La sauvegarde a lieu quand le calendrier n'a plus été modifié depuis le délai donné :
+ * chaque modification repousse l'échéance, et toute une série est écrite en une fois.
+ * Une série continue n'est pas repoussée au-delà de {@link #REPORTS_MAX} fois le délai
+ * après sa première modification. Les écouteurs du calendrier ne font que compter : aucune écriture n'a lieu sur le thread
+ * qui modifie le calendrier. Une sauvegarde qui échoue est retentée, après un délai qui
+ * double à chaque échec consécutif (jusqu'à {@link #ATTENTE_MAX_APRES_ECHEC}). Les
+ * modifications en attente sont écrites à la fermeture et à l'arrêt de la JVM.
+ */
+public class SauvegardeAutomatique implements EcouteurCalendrier, Closeable {
+
+    public static final int REPORTS_MAX = 10;
+    public static final Duration ATTENTE_MAX_APRES_ECHEC = Duration.ofMinutes(5);
+
+    private final CalendarManager calendar;
+    private final StockageCalendrier stockage;
+    private final Duration delai;
+    private final ScheduledExecutorService executeur = Executors.newSingleThreadScheduledExecutor(tache -> {
+        Thread thread = new Thread(tache, "sauvegarde-calendrier");
+        thread.setDaemon(true);
+        return thread;
+    });
+    // Crochet d'arrêt, créé par demarrer() : le constructeur ne publie pas this
+    private volatile Thread arretJvm;
+
+    private final AtomicInteger enAttente = new AtomicInteger();
+    private final AtomicBoolean programmee = new AtomicBoolean();
+    // System.nanoTime() de la dernière modification, et de la première depuis la sauvegarde programmée
+    private volatile long derniereModification;
+    private volatile long premiereModification;
+    private volatile long sauvegardes;
+    private volatile Duration derniereDuree = Duration.ZERO;
+    private volatile Instant derniereSauvegarde;
+    private volatile IOException derniereErreur;
+    // Échecs consécutifs des sauvegardes d'arrière-plan ; lu et écrit par l'exécuteur seulement
+    private int echecs;
+
+    public SauvegardeAutomatique(CalendarManager calendar, StockageCalendrier stockage, Duration delai) {
+        this.calendar = calendar;
+        this.stockage = stockage;
+        this.delai = delai;
+    }
+
+    /**
+     * Suit les modifications du calendrier et sauvegarde à l'arrêt de la JVM
+     */
+    public void demarrer() {
+        calendar.ajouterEcouteur(this);
+        Thread crochet = new Thread(this::sauvegarderAvantArret, "sauvegarde-calendrier-arret");
+        arretJvm = crochet;
+        Runtime.getRuntime().addShutdownHook(crochet);
+    }
+
+    @Override
+    public void evenementAjoute(Event evenement) {
+        modifie(1);
+    }
+
+    @Override
+    public void evenementsAjoutes(List<Event> evenements) {
+        modifie(evenements.size());
+    }
+
+    @Override
+    public void evenementSupprime(Event evenement) {
+        modifie(1);
+    }
+
+    @Override
+    public void calendrierVide() {
+        modifie(1);
+    }
+
+    // Ne reprogramme rien si une sauvegarde l'est déjà : c'est elle qui constate le report
+    private void modifie(int nombre) {
+        enAttente.addAndGet(nombre);
+        long maintenant = System.nanoTime();
+        derniereModification = maintenant;
+        if (programmee.compareAndSet(false, true)) {
+            premiereModification = maintenant;
+            executeur.schedule(this::sauvegarderEnArrierePlan, delai.toNanos(), TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private void sauvegarderEnArrierePlan() {
+        long maintenant = System.nanoTime();
+        long calme = maintenant - derniereModification;
+        long attendu = maintenant - premiereModification;
+        if (echecs == 0 && calme < delai.toNanos() && attendu < delai.toNanos() * REPORTS_MAX) {
+            // Modifié pendant l'attente : l'échéance recule d'autant
+            executeur.schedule(this::sauvegarderEnArrierePlan, delai.toNanos() - calme, TimeUnit.NANOSECONDS);
+            return;
+        }
+        try {
+            sauvegarder(false);
+            echecs = 0;
+        } catch (IOException e) {
+            // Gardée dans derniereErreur ; les modifications restent en attente et sont retentées
+            echecs++;
+            if (!executeur.isShutdown() && programmee.compareAndSet(false, true)) {
+                executeur.schedule(this::sauvegarderEnArrierePlan, attenteApresEchec().toMillis(), TimeUnit.MILLISECONDS);
+            }
+        }
+    }
+
+    // Délai doublé à chaque échec consécutif, borné (sauf si le délai lui-même est plus long)
+    private Duration attenteApresEchec() {
+        Duration attente = delai.multipliedBy(1L << Math.min(echecs, 20));
+        Duration borne = delai.compareTo(ATTENTE_MAX_APRES_ECHEC) > 0 ? delai : ATTENTE_MAX_APRES_ECHEC;
+        return attente.compareTo(borne) > 0 ? borne : attente;
+    }
+
+    /**
+     * Sauvegarde, sur le thread de l'exécuteur uniquement. Sans {@code forcer}, rien n'est
+     * écrit si aucune modification n'a été signalée depuis la sauvegarde précédente.
+     */
+    private void sauvegarder(boolean forcer) throws IOException {
+        // Les modifications arrivées à partir d'ici programment la sauvegarde suivante
+        programmee.set(false);
+        int modifications = enAttente.getAndSet(0);
+        if ((modifications == 0 && !forcer) || !stockage.estOuvert()) {
+            enAttente.addAndGet(modifications);
+            return;
+        }
+        long debut = System.nanoTime();
+        try {
+            stockage.sauvegarder();
+        } catch (IOException | RuntimeException e) {
+            enAttente.addAndGet(modifications);
+            IOException erreur = e instanceof IOException io ? io : new IOException(e);
+            derniereErreur = erreur;
+            throw erreur;
+        }
+        derniereDuree = Duration.ofNanos(System.nanoTime() - debut);
+        derniereSauvegarde = Instant.now();
+        derniereErreur = null;
+        sauvegardes++;
+    }
+
+    /**
+     * Écrit tout de suite les modifications en attente et attend la fin de l'écriture
+     */
+    public void vider() throws IOException {
+        try {
+            executeur.submit(() -> {
+                sauvegarder(true);
+                return null;
+            }).get();
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof IOException io ? io : new IOException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Sauvegarde interrompue", e);
+        }
+    }
+
+    private void sauvegarderAvantArret() {
+        try {
+            vider();
+        } catch (IOException | RuntimeException e) {
+            // Le journal garde les modifications : elles seront rejouées à la prochaine ouverture
+            derniereErreur = e instanceof IOException io ? io : new IOException(e);
+        }
+    }
+
+    /**
+     * Modifications du calendrier pas encore sauvegardées
+     */
+    public int modificationsEnAttente() {
+        return enAttente.get();
+    }
+
+    /**
+     * Durée de la dernière sauvegarde réussie
+     */
+    public Duration derniereDuree() {
+        return derniereDuree;
+    }
+
+    /**
+     * Instant de la dernière sauvegarde réussie, ou null
+     */
+    public Instant derniereSauvegarde() {
+        return derniereSauvegarde;
+    }
+
+    public long nombreSauvegardes() {
+        return sauvegardes;
+    }
+
+    /**
+     * Erreur de la dernière sauvegarde si elle a échoué, sinon null
+     */
+    public IOException derniereErreur() {
+        return derniereErreur;
+    }
+
+    /**
+     * Cesse de suivre le calendrier et écrit les modifications en attente
+     */
+    @Override
+    public void close() throws IOException {
+        calendar.retirerEcouteur(this);
+        Thread crochet = arretJvm;
+        if (crochet != null) {
+            try {
+                Runtime.getRuntime().removeShutdownHook(crochet);
+            } catch (IllegalStateException e) {
+                // Arrêt de la JVM déjà en cours : le crochet fait la même chose
+            }
+        }
+        try {
+            vider();
+        } finally {
+            executeur.shutdown();
+        }
+    }
+}
@@ -0,0 +1,305 @@
+package Calendar.Persistence;
+
+import Calendar.CalendarManager;
+import Calendar.Serialization.CalendarSerializer;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.time.Period;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Persistance d'un calendrier : un instantané complet (JSON ou binaire selon l'extension)
+ * complété par un journal des modifications faites depuis.
+ * <p>
+ * Chaque modification ne coûte qu'un ajout au journal. {@link #sauvegarder()} n'écrit que
+ * l'effet net des modifications depuis la sauvegarde précédente, en un segment ajouté au
+ * fichier de modifications ({@link FichierModifications}), puis retire du journal ce qu'il
+ * couvre désormais. Quand les segments deviennent trop gros par rapport à l'instantané, ils
+ * sont repliés en arrière-plan dans un nouvel instantané complet. Avec une rétention, les
+ * événements terminés depuis plus longtemps partent d'abord dans l'archive
+ * ({@link ArchiveCalendrier}) et ne sont plus réécrits à chaque sauvegarde.
+ */
+public class StockageCalendrier implements Closeable {
+
+    // Les segments sont repliés quand ils dépassent ce seuil et le quart de l'instantané
+    private static final long SEUIL_REPLIAGE = 1024 * 1024;
+
+    private final CalendarManager calendar;
+    private final String fichier;
+    // Null : pas d'archivage
+    private final Period retention;
+    private final SuiviModifications suivi = new SuiviModifications();
+    // Sérialise les écritures d'instantané ; toujours pris avant le moniteur de l'objet
+    private final ReentrantLock ecritureInstantane = new ReentrantLock();
+    private final AtomicBoolean repliageEnCours = new AtomicBoolean();
+    private volatile IOException erreurRepliage;
+    private final ExecutorService repliage = Executors.newSingleThreadExecutor(tache -> {
+        Thread thread = new Thread(tache, "repliage-calendrier");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private JournalCalendrier journal;
+    private FichierModifications modifications;
+    private ArchiveCalendrier archive;
+
+    public StockageCalendrier(CalendarManager calendar, String fichier) {
+        this(calendar, fichier, null);
+    }
+
+    public StockageCalendrier(CalendarManager calendar, String fichier, Period retention) {
+        this.calendar = calendar;
+        this.fichier = fichier;
+        this.retention = retention;
+    }
+
+    /**
+     * Charge le dernier instantané s'il existe, applique les segments de modifications et
+     * rejoue le journal par-dessus, puis suit les modifications suivantes du calendrier.
+     * Le rapport renvoyé compte aussi les ajouts des segments et du journal écartés pour conflit.
+     */
+    public synchronized CalendarManager.RapportChargement ouvrir() throws IOException {
+        if (journal != null) {
+            throw new IllegalStateException("Stockage déjà ouvert");
+        }
+        if (retention != null && archive == null) {
+            archive = ArchiveCalendrier.ouvrir(Paths.get(fichier + ".archives"));
+            calendar.ajouterSource(archive);
+        }
+        CalendarManager.RapportChargement rapport = new File(fichier).exists()
+                ? calendar.charger(fichier)
+                : new CalendarManager.RapportChargement(0, List.of(), List.of());
+        modifications = FichierModifications.ouvrir(Paths.get(fichier + FichierModifications.EXTENSION));
+        try {
+            CalendarManager.RapportChargement segments = modifications.appliquer(calendar);
+            rapport = new CalendarManager.RapportChargement(rapport.ajoutes() + segments.ajoutes(),
+                    concatener(rapport.conflits(), segments.conflits()),
+                    concatener(rapport.rejetes(), segments.rejetes()));
+            journal = JournalCalendrier.ouvrir(Paths.get(fichier + JournalCalendrier.EXTENSION));
+            JournalCalendrier.Reprise reprise = journal.rejouer(calendar);
+            if (!reprise.estComplete()) {
+                rapport = new CalendarManager.RapportChargement(rapport.ajoutes(),
+                        concatener(rapport.conflits(), reprise.conflits()),
+                        concatener(rapport.rejetes(), reprise.ecartes()));
+            }
+        } catch (IOException e) {
+            fermerFichiers();
+            throw e;
+        }
+        calendar.ajouterEcouteur(suivi);
+        calendar.brancherJournal(journal);
+        return rapport;
+    }
+
+    private static <T> List<T> concatener(List<T> premiers, List<T> suivants) {
+        List<T> tous = new ArrayList<>(premiers);
+        tous.addAll(suivants);
+        return tous;
+    }
+
+    /**
+     * Sauvegarde les modifications faites depuis la sauvegarde précédente. Un instantané
+     * complet n'est écrit que s'il n'en existe pas encore ou si le calendrier a été vidé.
+     */
+    public void sauvegarder() throws IOException {
+        verifierOuvert();
+        if (archive != null) {
+            archive.archiver(calendar, retention);
+        }
+        boolean complete;
+        synchronized (this) {
+            complete = !Files.exists(Paths.get(fichier)) || suivi.aEteVide();
+            if (!complete) {
+                sauvegarderModifications();
+            }
+        }
+        if (complete) {
+            sauvegarderTout();
+        } else if (doitReplier()) {
+            replierEnArrierePlan();
+        }
+    }
+
+    private void sauvegarderModifications() throws IOException {
+        Releve releve = relever();
+        if (releve.delta().aucune()) {
+            return;
+        }
+        try {
+            modifications.ajouter(releve.delta());
+        } catch (IOException e) {
+            suivi.restituer(releve.delta());
+            throw e;
+        }
+        journal.compacter(releve.position());
+    }
+
+    /**
+     * Position du journal et modifications suivies à un même instant
+     */
+    private record Releve(long position, SuiviModifications.Modifications delta) {
+    }
+
+    /**
+     * Relève la position du journal et prélève le suivi pendant qu'aucune modification n'est
+     * en cours. Une modification est journalisée avant d'être vue par le suivi : relevés
+     * séparément, un enregistrement pourrait précéder la position sans être dans le delta,
+     * et manquer à la fois au segment et au journal compacté.
+     */
+    private Releve relever() {
+        return calendar.calculerSansModification(() -> new Releve(journal.position(), suivi.prelever()));
+    }
+
+    /**
+     * Écrit un instantané complet, vide le fichier de modifications et compacte le journal
+     */
+    public void sauvegarderTout() throws IOException {
+        verifierOuvert();
+        ecritureInstantane.lock();
+        try {
+            synchronized (this) {
+                Releve releve = relever();
+                long longueur = modifications.longueur();
+                try {
+                    ecrireInstantane();
+                } catch (IOException e) {
+                    suivi.restituer(releve.delta());
+                    throw e;
+                }
+                modifications.compacter(longueur);
+                journal.compacter(releve.position());
+            }
+        } finally {
+            ecritureInstantane.unlock();
+        }
+    }
+
+    /**
+     * Replie les segments de modifications dans un nouvel instantané, sans bloquer les
+     * sauvegardes incrémentales pendant l'écriture
+     */
+    public void replier() throws IOException {
+        verifierOuvert();
+        ecritureInstantane.lock();
+        try {
+            long longueur;
+            synchronized (this) {
+                longueur = modifications.longueur();
+            }
+            // L'instantané est au moins aussi récent que les segments relevés : les suivants,
+            // et le journal, restent rejoués par-dessus
+            ecrireInstantane();
+            synchronized (this) {
+                modifications.compacter(longueur);
+            }
+        } finally {
+            ecritureInstantane.unlock();
+        }
+    }
+
+    private void ecrireInstantane() throws IOException {
+        // Remplacement atomique, avec une ligne de contrôle vérifiée à l'ouverture
+        CalendarSerializer.pourFichier(fichier).saveCalendarToFile(calendar, fichier, true);
+    }
+
+    private boolean doitReplier() throws IOException {
+        long taille = modifications.longueur();
+        return taille > SEUIL_REPLIAGE && taille * 4 > Files.size(Paths.get(fichier));
+    }
+
+    private void replierEnArrierePlan() {
+        if (!repliageEnCours.compareAndSet(false, true)) {
+            return;
+        }
+        repliage.execute(() -> {
+            try {
+                replier();
+                erreurRepliage = null;
+            } catch (IOException | IllegalStateException e) {
+                // Les segments restent en place : le repliage sera retenté à la prochaine sauvegarde
+                erreurRepliage = e instanceof IOException io ? io : new IOException(e);
+            } finally {
+                repliageEnCours.set(false);
+            }
+        });
+    }
+
+    /**
+     * Erreur du dernier repliage en arrière-plan s'il a échoué, sinon null
+     */
+    public IOException erreurRepliage() {
+        return erreurRepliage;
+    }
+
+    /**
+     * Événements modifiés depuis la dernière sauvegarde
+     */
+    public int nombreModifications() {
+        return suivi.nombreModifications();
+    }
+
+    private synchronized void verifierOuvert() {
+        if (journal == null) {
+            throw new IllegalStateException("Stockage non ouvert");
+        }
+    }
+
+    public synchronized boolean estOuvert() {
+        return journal != null;
+    }
+
+    /**
+     * Archive des événements passés, ou null sans rétention
+     */
+    public ArchiveCalendrier getArchive() {
+        return archive;
+    }
+
+    public String getFichier() {
+        return fichier;
+    }
+
+    @Override
+    public void close() throws IOException {
+        repliage.shutdown();
+        try {
+            repliage.awaitTermination(1, TimeUnit.MINUTES);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        synchronized (this) {
+            if (archive != null) {
+                calendar.retirerSource(archive);
+                archive = null;
+            }
+            calendar.retirerEcouteur(suivi);
+            if (journal != null) {
+                calendar.debrancherJournal(journal);
+            }
+            fermerFichiers();
+        }
+    }
+
+    private void fermerFichiers() throws IOException {
+        try {
+            if (journal != null) {
+                journal.close();
+            }
+        } finally {
+            journal = null;
+            if (modifications != null) {
+                modifications.close();
+                modifications = null;
+            }
+        }
+    }
+}
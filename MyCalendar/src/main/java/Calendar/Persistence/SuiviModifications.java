@@ -0,0 +1,111 @@
+package Calendar.Persistence;
+
+import Calendar.EcouteurCalendrier;
+import Calendar.Events.Event;
+import Calendar.vo.EventId;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Relève les événements ajoutés et supprimés depuis la dernière sauvegarde.
+ * <p>
+ * Seul l'effet net est conservé : un événement ajouté puis supprimé avant la sauvegarde
+ * n'apparaît que comme une suppression, et vider le calendrier efface tout ce qui précède.
+ */
+public class SuiviModifications implements EcouteurCalendrier {
+
+    private boolean vide;
+    private Map<EventId, Event> ajoutes = new LinkedHashMap<>();
+    private Set<EventId> supprimes = new LinkedHashSet<>();
+
+    /**
+     * Modifications à appliquer dans l'ordre : vidage, suppressions puis ajouts
+     */
+    public record Modifications(boolean vide, Set<EventId> supprimes, Collection<Event> ajoutes) {
+
+        public boolean aucune() {
+            return !vide && supprimes.isEmpty() && ajoutes.isEmpty();
+        }
+
+        public int taille() {
+            return supprimes.size() + ajoutes.size();
+        }
+    }
+
+    @Override
+    public synchronized void evenementAjoute(Event evenement) {
+        ajoutes.put(evenement.getId(), evenement);
+    }
+
+    @Override
+    public synchronized void evenementsAjoutes(List<Event> evenements) {
+        for (Event evenement : evenements) {
+            ajoutes.put(evenement.getId(), evenement);
+        }
+    }
+
+    @Override
+    public synchronized void evenementSupprime(Event evenement) {
+        ajoutes.remove(evenement.getId());
+        supprimes.add(evenement.getId());
+    }
+
+    @Override
+    public synchronized void calendrierVide() {
+        vide = true;
+        ajoutes = new LinkedHashMap<>();
+        supprimes = new LinkedHashSet<>();
+    }
+
+    /**
+     * Nombre d'événements modifiés depuis la dernière sauvegarde
+     */
+    public synchronized int nombreModifications() {
+        return ajoutes.size() + supprimes.size();
+    }
+
+    /**
+     * Indique si le calendrier a été vidé depuis la dernière sauvegarde
+     */
+    public synchronized boolean aEteVide() {
+        return vide;
+    }
+
+    /**
+     * Renvoie les modifications relevées et repart de zéro
+     */
+    public synchronized Modifications prelever() {
+        Modifications modifications = new Modifications(vide, supprimes, ajoutes.values());
+        vide = false;
+        ajoutes = new LinkedHashMap<>();
+        supprimes = new LinkedHashSet<>();
+        return modifications;
+    }
+
+    /**
+     * Remet en tête des modifications courantes celles d'une sauvegarde qui a échoué
+     */
+    public synchronized void restituer(Modifications anciennes) {
+        if (vide) {
+            // Le vidage postérieur efface les anciennes modifications
+            return;
+        }
+        Map<EventId, Event> fusion = new LinkedHashMap<>();
+        for (Event e : anciennes.ajoutes()) {
+            if (!supprimes.contains(e.getId())) {
+                fusion.put(e.getId(), e);
+            }
+        }
+        fusion.putAll(ajoutes);
+        Set<EventId> tousSupprimes = new LinkedHashSet<>(anciennes.supprimes());
+        tousSupprimes.addAll(supprimes);
+        vide = anciennes.vide();
+        ajoutes = fusion;
+        supprimes = tousSupprimes;
+    }
+}
@@ -0,0 +1,476 @@
+package Calendar.Serialization;
+
+import Calendar.CalendarManager;
+import Calendar.Events.*;
+import Calendar.vo.*;
+
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.function.Consumer;
+
+/**
+ * Format binaire compact du calendrier, pour les fichiers {@value #EXTENSION}.
+ * <p>
+ * Le fichier commence par un en-tête (signature, version, nombre d'événements), suivi d'un
+ * dictionnaire des chaînes répétées (titres, propriétaires, lieux, participants) puis d'un
+ * enregistrement préfixé par sa longueur pour chaque événement. Les dates sont stockées en
+ * minutes depuis l'époque et les entiers sur une longueur variable. Un identifiant UUID
+ * s'écrit sur ses deux {@code long} ; seuls les autres identifiants gardent leur texte.
+ */
+public class BinaryCalendarSerializer implements CalendarSerializer {
+
+    public static final String EXTENSION = ".mcal";
+
+    // "MCAL" en ASCII
+    private static final int SIGNATURE = 0x4D43414C;
+    // Version 2 : identifiants UUID sur deux long (les enregistrements de la version 1 restent lisibles)
+    private static final int VERSION = 2;
+
+    private static final int RENDEZ_VOUS = 1;
+    private static final int REUNION = 2;
+    private static final int EVENEMENT_PERIODIQUE = 3;
+    private static final int ANNIVERSAIRE = 4;
+    // Ajouté au type quand la date a des secondes : elles suivent alors les minutes
+    private static final int AVEC_SECONDES = 0x80;
+    // Ajouté au type quand l'identifiant est un UUID écrit sur deux long
+    private static final int ID_UUID = 0x40;
+
+    @Override
+    public void saveCalendarToStream(CalendarManager calendar, OutputStream out) throws IOException {
+        ecrireEvenements(calendar.getAllEvents(), out);
+    }
+
+    /**
+     * Écrit une liste d'événements au format binaire, indépendamment de tout calendrier
+     */
+    public void ecrireEvenements(List<Event> events, OutputStream out) throws IOException {
+        Dictionnaire dictionnaire = new Dictionnaire();
+        for (Event event : events) {
+            dictionnaire.indexer(event);
+        }
+
+        DataOutputStream sortie = new DataOutputStream(out);
+        sortie.writeInt(SIGNATURE);
+        sortie.writeShort(VERSION);
+
+        Tampon tampon = new Tampon();
+        tampon.varint(events.size());
+        tampon.varint(dictionnaire.taille());
+        for (String chaine : dictionnaire.chaines()) {
+            tampon.chaine(chaine);
+            tampon.viderSiPlein(sortie);
+        }
+
+        Tampon enregistrement = new Tampon();
+        for (Event event : events) {
+            enregistrement.reinitialiser();
+            ecrireEvenement(event, enregistrement, dictionnaire);
+            tampon.varint(enregistrement.taille);
+            tampon.ajouter(enregistrement);
+            tampon.viderSiPlein(sortie);
+        }
+        tampon.vider(sortie);
+        sortie.flush();
+    }
+
+    /**
+     * Encode un événement isolé, avec son propre dictionnaire (utilisé par le journal)
+     */
+    public static byte[] encoderEvenement(Event event) throws IOException {
+        Dictionnaire dictionnaire = new Dictionnaire();
+        dictionnaire.indexer(event);
+        Tampon tampon = new Tampon(128);
+        tampon.varint(dictionnaire.taille());
+        for (String chaine : dictionnaire.chaines()) {
+            tampon.chaine(chaine);
+        }
+        ecrireEvenement(event, tampon, dictionnaire);
+        return Arrays.copyOf(tampon.octets, tampon.taille);
+    }
+
+    /**
+     * Décode un événement produit par {@link #encoderEvenement(Event)}
+     */
+    public static Event decoderEvenement(byte[] octets) throws IOException {
+        ByteBuffer entree = ByteBuffer.wrap(octets);
+        try {
+            String[] chaines = new String[Math.toIntExact(lireVarint(entree))];
+            for (int i = 0; i < chaines.length; i++) {
+                chaines[i] = lireChaine(entree);
+            }
+            Event event = lireEvenement(entree, chaines);
+            if (entree.hasRemaining()) {
+                throw new IOException("Enregistrement d'événement corrompu");
+            }
+            return event;
+        } catch (BufferUnderflowException | ArithmeticException | IllegalArgumentException e) {
+            throw new IOException("Enregistrement d'événement corrompu", e);
+        }
+    }
+
+    private static void ecrireEvenement(Event event, Tampon sortie, Dictionnaire dictionnaire) throws IOException {
+        LocalDateTime date = event.getDateDebut().valeur();
+        long secondes = date.toEpochSecond(ZoneOffset.UTC);
+        long minutes = Math.floorDiv(secondes, 60);
+        long reste = Math.floorMod(secondes, 60) * 1_000_000_000L + date.getNano();
+
+        EventId id = event.getId();
+        sortie.octet(type(event) | (reste != 0 ? AVEC_SECONDES : 0) | (id.estCompact() ? ID_UUID : 0));
+        if (id.estCompact()) {
+            sortie.long64(id.poidsFort());
+            sortie.long64(id.poidsFaible());
+        } else {
+            sortie.chaine(id.valeur());
+        }
+        sortie.varint(dictionnaire.indice(event.getTitre().valeur()));
+        sortie.varint(dictionnaire.indice(event.getProprietaire().valeur()));
+        sortie.zigzag(minutes);
+        if (reste != 0) {
+            sortie.varint(reste);
+        }
+        sortie.varint(event.getHeureDebut().heure() * 60L + event.getHeureDebut().minute());
+        sortie.zigzag(event.getDuree().valeur());
+
+        if (event instanceof Reunion reunion) {
+            sortie.varint(dictionnaire.indice(reunion.getLieu() == null ? null : reunion.getLieu().valeur()));
+            String[] noms = reunion.getParticipants() == null ? null : reunion.getParticipants().noms();
+            // 0 : pas de participants, sinon nombre + 1
+            sortie.varint(noms == null ? 0 : noms.length + 1L);
+            if (noms != null) {
+                for (String nom : noms) {
+                    sortie.varint(dictionnaire.indice(nom));
+                }
+            }
+        } else if (event instanceof EvenementPeriodique periodique) {
+            sortie.zigzag(periodique.getFrequenceJours());
+        } else if (event instanceof Anniversaire anniversaire) {
+            sortie.varint(dictionnaire.indice(anniversaire.getPersonneFetee()));
+        }
+    }
+
+    private static int type(Event event) throws IOException {
+        if (event instanceof Reunion) {
+            return REUNION;
+        }
+        if (event instanceof EvenementPeriodique) {
+            return EVENEMENT_PERIODIQUE;
+        }
+        if (event instanceof Anniversaire) {
+            return ANNIVERSAIRE;
+        }
+        if (event instanceof RendezVous) {
+            return RENDEZ_VOUS;
+        }
+        throw new IOException("Type d'événement non pris en charge: " + event.getClass().getSimpleName());
+    }
+
+    @Override
+    public CalendarManager.RapportChargement loadCalendarFromStream(CalendarManager calendar, InputStream in) throws IOException {
+        LectureEvenements lecture = ouvrirLecture(in);
+        try {
+            return calendar.remplacerEnMasse(() -> lecture);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Lit les événements d'un flux binaire un par un, sans les ajouter à un calendrier
+     */
+    public void lireEvenements(InputStream in, Consumer<Event> action) throws IOException {
+        LectureEvenements lecture = ouvrirLecture(in);
+        try {
+            lecture.forEachRemaining(action);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private static LectureEvenements ouvrirLecture(InputStream in) throws IOException {
+        DataInputStream entree = new DataInputStream(in);
+        if (entree.readInt() != SIGNATURE) {
+            throw new IOException("Le fichier n'est pas un calendrier binaire.");
+        }
+        int version = entree.readUnsignedShort();
+        if (version > VERSION) {
+            throw new IOException("Version de calendrier binaire non prise en charge: " + version);
+        }
+
+        long nombre = lireVarint(entree);
+        String[] chaines = new String[Math.toIntExact(lireVarint(entree))];
+        for (int i = 0; i < chaines.length; i++) {
+            byte[] octets = new byte[Math.toIntExact(lireVarint(entree))];
+            entree.readFully(octets);
+            chaines[i] = new String(octets, StandardCharsets.UTF_8);
+        }
+
+        return new LectureEvenements(entree, nombre, chaines);
+    }
+
+    private static Event lireEvenement(ByteBuffer entree, String[] chaines) throws IOException {
+        int type = entree.get() & 0xFF;
+        EventId id = (type & ID_UUID) != 0
+                ? new EventId(entree.getLong(), entree.getLong())
+                : new EventId(lireChaine(entree));
+        TitreEvenement titre = TitreEvenement.de(chaine(chaines, lireVarint(entree)));
+        ProprietaireEvenement proprietaire = ProprietaireEvenement.de(chaine(chaines, lireVarint(entree)));
+        long secondes = lireZigzag(entree) * 60;
+        long reste = (type & AVEC_SECONDES) != 0 ? lireVarint(entree) : 0;
+        DateEvenement date = new DateEvenement(LocalDateTime.ofEpochSecond(
+                secondes + reste / 1_000_000_000L, (int) (reste % 1_000_000_000L), ZoneOffset.UTC));
+        int minuteDuJour = (int) lireVarint(entree);
+        HeureDebut heure = new HeureDebut(minuteDuJour / 60, minuteDuJour % 60);
+        DureeEvenement duree = new DureeEvenement((int) lireZigzag(entree));
+
+        switch (type & ~(AVEC_SECONDES | ID_UUID)) {
+            case RENDEZ_VOUS:
+                return new RendezVous(id, titre, date, heure, duree, proprietaire);
+            case REUNION:
+                String lieu = chaine(chaines, lireVarint(entree));
+                long nombreNoms = lireVarint(entree);
+                String[] noms = nombreNoms == 0 ? null : new String[Math.toIntExact(nombreNoms - 1)];
+                for (int i = 0; noms != null && i < noms.length; i++) {
+                    noms[i] = chaine(chaines, lireVarint(entree));
+                }
+                return new Reunion(id, titre, date, heure, duree,
+                        lieu == null ? null : new LieuEvenement(lieu), proprietaire,
+                        noms == null ? null : new Participants(noms));
+            case EVENEMENT_PERIODIQUE:
+                return new EvenementPeriodique(id, titre, date, heure, duree, (int) lireZigzag(entree), proprietaire);
+            case ANNIVERSAIRE:
+                return new Anniversaire(id, titre, date, heure, duree, proprietaire, chaine(chaines, lireVarint(entree)));
+            default:
+                throw new IOException("Type d'événement inconnu: " + type);
+        }
+    }
+
+    // L'indice 0 représente une chaîne absente
+    private static String chaine(String[] chaines, long indice) throws IOException {
+        if (indice == 0) {
+            return null;
+        }
+        if (indice > chaines.length) {
+            throw new IOException("Indice de dictionnaire invalide: " + indice);
+        }
+        return chaines[(int) indice - 1];
+    }
+
+    private static String lireChaine(ByteBuffer entree) throws IOException {
+        int longueur = Math.toIntExact(lireVarint(entree));
+        if (longueur > entree.remaining()) {
+            throw new IOException("Chaîne tronquée");
+        }
+        String chaine = new String(entree.array(), entree.arrayOffset() + entree.position(), longueur, StandardCharsets.UTF_8);
+        entree.position(entree.position() + longueur);
+        return chaine;
+    }
+
+    private static long lireVarint(DataInput entree) throws IOException {
+        long valeur = 0;
+        for (int decalage = 0; decalage < 64; decalage += 7) {
+            byte octet = entree.readByte();
+            valeur |= (long) (octet & 0x7F) << decalage;
+            if (octet >= 0) {
+                return valeur;
+            }
+        }
+        throw new IOException("Entier de longueur variable invalide");
+    }
+
+    private static long lireVarint(ByteBuffer entree) throws IOException {
+        long valeur = 0;
+        for (int decalage = 0; decalage < 64; decalage += 7) {
+            byte octet = entree.get();
+            valeur |= (long) (octet & 0x7F) << decalage;
+            if (octet >= 0) {
+                return valeur;
+            }
+        }
+        throw new IOException("Entier de longueur variable invalide");
+    }
+
+    private static long lireZigzag(ByteBuffer entree) throws IOException {
+        long valeur = lireVarint(entree);
+        return (valeur >>> 1) ^ -(valeur & 1);
+    }
+
+    /**
+     * Lit les enregistrements un par un, à mesure que le calendrier les consomme
+     */
+    private static final class LectureEvenements implements Iterator<Event> {
+        private final DataInputStream entree;
+        private final String[] chaines;
+        private long restants;
+        private byte[] enregistrement = new byte[256];
+
+        private LectureEvenements(DataInputStream entree, long nombre, String[] chaines) {
+            this.entree = entree;
+            this.restants = nombre;
+            this.chaines = chaines;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return restants > 0;
+        }
+
+        @Override
+        public Event next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            try {
+                int longueur = Math.toIntExact(lireVarint(entree));
+                if (longueur > enregistrement.length) {
+                    enregistrement = new byte[Math.max(longueur, enregistrement.length * 2)];
+                }
+                entree.readFully(enregistrement, 0, longueur);
+                ByteBuffer tampon = ByteBuffer.wrap(enregistrement, 0, longueur);
+                Event event = lireEvenement(tampon, chaines);
+                if (tampon.hasRemaining()) {
+                    throw new IOException("Enregistrement d'événement corrompu");
+                }
+                restants--;
+                return event;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            } catch (BufferUnderflowException | ArithmeticException | IllegalArgumentException e) {
+                throw new UncheckedIOException(new IOException("Enregistrement d'événement corrompu", e));
+            }
+        }
+    }
+
+    /**
+     * Chaînes répétées, numérotées à partir de 1 dans leur ordre d'apparition
+     */
+    private static final class Dictionnaire {
+        private final Map<String, Integer> indices = new LinkedHashMap<>();
+
+        void indexer(Event event) {
+            ajouter(event.getTitre().valeur());
+            ajouter(event.getProprietaire().valeur());
+            if (event instanceof Reunion reunion) {
+                if (reunion.getLieu() != null) {
+                    ajouter(reunion.getLieu().valeur());
+                }
+                if (reunion.getParticipants() != null) {
+                    for (String nom : reunion.getParticipants().noms()) {
+                        ajouter(nom);
+                    }
+                }
+            } else if (event instanceof Anniversaire anniversaire) {
+                ajouter(anniversaire.getPersonneFetee());
+            }
+        }
+
+        private void ajouter(String chaine) {
+            if (chaine != null) {
+                indices.putIfAbsent(chaine, indices.size() + 1);
+            }
+        }
+
+        int indice(String chaine) {
+            return chaine == null ? 0 : indices.get(chaine);
+        }
+
+        int taille() {
+            return indices.size();
+        }
+
+        Iterable<String> chaines() {
+            return indices.keySet();
+        }
+    }
+
+    /**
+     * Tableau d'octets extensible, écrit d'un bloc dans le flux de sortie
+     */
+    private static final class Tampon {
+        private byte[] octets;
+        private int taille;
+
+        Tampon() {
+            this(TAILLE_TAMPON);
+        }
+
+        Tampon(int capacite) {
+            octets = new byte[capacite];
+        }
+
+        void octet(int valeur) {
+            assurerPlace(1);
+            octets[taille++] = (byte) valeur;
+        }
+
+        void varint(long valeur) {
+            assurerPlace(10);
+            while ((valeur & ~0x7FL) != 0) {
+                octets[taille++] = (byte) ((valeur & 0x7F) | 0x80);
+                valeur >>>= 7;
+            }
+            octets[taille++] = (byte) valeur;
+        }
+
+        void long64(long valeur) {
+            assurerPlace(8);
+            for (int decalage = 56; decalage >= 0; decalage -= 8) {
+                octets[taille++] = (byte) (valeur >>> decalage);
+            }
+        }
+
+        void zigzag(long valeur) {
+            varint((valeur << 1) ^ (valeur >> 63));
+        }
+
+        void chaine(String valeur) {
+            byte[] utf8 = valeur.getBytes(StandardCharsets.UTF_8);
+            varint(utf8.length);
+            assurerPlace(utf8.length);
+            System.arraycopy(utf8, 0, octets, taille, utf8.length);
+            taille += utf8.length;
+        }
+
+        void ajouter(Tampon autre) {
+            assurerPlace(autre.taille);
+            System.arraycopy(autre.octets, 0, octets, taille, autre.taille);
+            taille += autre.taille;
+        }
+
+        void reinitialiser() {
+            taille = 0;
+        }
+
+        void viderSiPlein(OutputStream out) throws IOException {
+            if (taille >= TAILLE_TAMPON / 2) {
+                vider(out);
+            }
+        }
+
+        void vider(OutputStream out) throws IOException {
+            out.write(octets, 0, taille);
+            taille = 0;
+        }
+
+        private void assurerPlace(int n) {
+            if (taille + n > octets.length) {
+                octets = Arrays.copyOf(octets, Math.max(octets.length * 2, taille + n));
+            }
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package Calendar.Serialization;
+
+import Calendar.CalendarManager;
+import Calendar.Util.RemplacementAtomique;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * Format de fichier du calendrier. Chaque format sait écrire et relire le calendrier
+ * en flux ; le format d'un fichier est choisi d'après son extension.
+ */
+public interface CalendarSerializer {
+
+    int TAILLE_TAMPON = 64 * 1024;
+
+    /**
+     * Format binaire pour les fichiers {@value BinaryCalendarSerializer#EXTENSION}, JSON sinon ;
+     * l'extension {@value GzipCalendarSerializer#EXTENSION} ajoute la compression à ce format
+     */
+    static CalendarSerializer pourFichier(String filePath) {
+        if (filePath.endsWith(GzipCalendarSerializer.EXTENSION)) {
+            String sansCompression = filePath.substring(0, filePath.length() - GzipCalendarSerializer.EXTENSION.length());
+            return new GzipCalendarSerializer(pourFichier(sansCompression));
+        }
+        if (filePath.endsWith(BinaryCalendarSerializer.EXTENSION)) {
+            return new BinaryCalendarSerializer();
+        }
+        return new JsonCalendarSerializer();
+    }
+
+    void saveCalendarToStream(CalendarManager calendar, OutputStream out) throws IOException;
+
+    /**
+     * Remplace le contenu du calendrier par les événements lus dans le flux
+     */
+    CalendarManager.RapportChargement loadCalendarFromStream(CalendarManager calendar, InputStream in) throws IOException;
+
+    /**
+     * Sauvegarde tous les événements d'un CalendarManager dans un fichier
+     */
+    default void saveCalendarToFile(CalendarManager calendar, String filePath) throws IOException {
+        saveCalendarToFile(calendar, filePath, false);
+    }
+
+    /**
+     * Sauvegarde dans un fichier temporaire voisin, synchronisé sur disque, qui remplace
+     * ensuite le fichier de façon atomique : un arrêt brutal laisse l'ancien fichier intact.
+     * Le dossier est synchronisé après le remplacement, qui est alors lui aussi durable, et le
+     * fichier garde ses droits d'accès.
+     * Avec {@code sommeDeControle}, une ligne de contrôle est ajoutée après le calendrier.
+     */
+    default void saveCalendarToFile(CalendarManager calendar, String filePath, boolean sommeDeControle) throws IOException {
+        Path cible = Paths.get(filePath);
+        // Nom unique : deux sauvegardes du même fichier n'écrivent pas dans le même temporaire
+        Path temporaire = RemplacementAtomique.creerTemporaire(cible);
+        try {
+            try (FileChannel canal = FileChannel.open(temporaire, StandardOpenOption.WRITE)) {
+                OutputStream tampon = new BufferedOutputStream(Channels.newOutputStream(canal), TAILLE_TAMPON);
+                CheckedOutputStream out = new CheckedOutputStream(tampon, new CRC32());
+                saveCalendarToStream(calendar, sommeDeControle ? out : tampon);
+                out.flush();
+                if (sommeDeControle) {
+                    SommeDeControle.ecrirePied(canal, out.getChecksum().getValue(), canal.position());
+                }
+                canal.force(true);
+            }
+            RemplacementAtomique.remplacer(temporaire, cible);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(temporaire);
+            throw e;
+        }
+    }
+
+    /**
+     * Charge les événements d'un fichier dans un CalendarManager.
+     * Les événements en conflit sont écartés et décrits dans le rapport renvoyé.
+     * Si le fichier a une ligne de contrôle, elle est vérifiée avant toute analyse.
+     */
+    default CalendarManager.RapportChargement loadCalendarFromFile(CalendarManager calendar, String filePath) throws IOException {
+        if (!new File(filePath).exists()) {
+            throw new IOException("Le fichier n'existe pas: " + filePath);
+        }
+
+        Path fichier = Paths.get(filePath);
+        long longueur = SommeDeControle.verifier(fichier);
+        try (InputStream in = new BufferedInputStream(
+                SommeDeControle.limiter(Files.newInputStream(fichier), longueur), TAILLE_TAMPON)) {
+            return loadCalendarFromStream(calendar, in);
+        }
+    }
+}
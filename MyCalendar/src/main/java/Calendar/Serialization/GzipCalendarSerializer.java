@@ -0,0 +1,87 @@
+package Calendar.Serialization;
+
+import Calendar.CalendarManager;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Compression gzip d'un autre format, pour les fichiers {@value #EXTENSION}
+ * ({@code calendar.json.gz}, {@code calendar.mcal.gz}). La compression et la
+ * décompression se font au fil de l'écriture et de la lecture, sans jamais
+ * tenir le document entier en mémoire.
+ */
+public class GzipCalendarSerializer implements CalendarSerializer {
+
+    public static final String EXTENSION = ".gz";
+
+    private final CalendarSerializer format;
+    private final int niveau;
+
+    public GzipCalendarSerializer(CalendarSerializer format) {
+        this(format, Deflater.DEFAULT_COMPRESSION);
+    }
+
+    /**
+     * @param niveau niveau de compression, de {@link Deflater#BEST_SPEED} à {@link Deflater#BEST_COMPRESSION}
+     */
+    public GzipCalendarSerializer(CalendarSerializer format, int niveau) {
+        if (niveau != Deflater.DEFAULT_COMPRESSION && (niveau < Deflater.NO_COMPRESSION || niveau > Deflater.BEST_COMPRESSION)) {
+            throw new IllegalArgumentException("Niveau de compression invalide: " + niveau);
+        }
+        this.format = format;
+        this.niveau = niveau;
+    }
+
+    @Override
+    public void saveCalendarToStream(CalendarManager calendar, OutputStream out) throws IOException {
+        SortieGzip gzip = new SortieGzip(out, niveau);
+        try {
+            format.saveCalendarToStream(calendar, gzip);
+            // Termine le flux gzip sans fermer le flux sous-jacent
+            gzip.finish();
+        } finally {
+            gzip.liberer();
+        }
+    }
+
+    @Override
+    public CalendarManager.RapportChargement loadCalendarFromStream(CalendarManager calendar, InputStream in) throws IOException {
+        EntreeGzip gzip = new EntreeGzip(in);
+        try {
+            return format.loadCalendarFromStream(calendar, gzip);
+        } finally {
+            gzip.liberer();
+        }
+    }
+
+    /**
+     * Libère la mémoire native du compresseur sans fermer le flux sous-jacent
+     */
+    private static final class SortieGzip extends GZIPOutputStream {
+
+        SortieGzip(OutputStream out, int niveau) throws IOException {
+            super(out, TAILLE_TAMPON);
+            def.setLevel(niveau);
+        }
+
+        void liberer() {
+            def.end();
+        }
+    }
+
+    private static final class EntreeGzip extends GZIPInputStream {
+
+        EntreeGzip(InputStream in) throws IOException {
+            super(in, TAILLE_TAMPON);
+        }
+
+        void liberer() {
+            inf.end();
+        }
+    }
+}
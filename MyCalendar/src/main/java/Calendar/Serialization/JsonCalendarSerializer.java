@@ -5,29 +5,48 @@ import Calendar.Events.*;
 import Calendar.vo.*;
 import com.fasterxml.jackson.annotation.JsonAutoDetect;
 import com.fasterxml.jackson.annotation.PropertyAccessor;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.MappingIterator;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.databind.jsontype.NamedType;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 
-import java.io.File;
 import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Paths;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
+import java.util.NoSuchElementException;
 import java.util.stream.Collectors;
 
 /**
  * Classe utilitaire pour gérer la sérialisation et la désérialisation du calendrier et des événements
  */
-public class JsonCalendarSerializer {
+public class JsonCalendarSerializer implements CalendarSerializer {
 
     private final ObjectMapper objectMapper;
+    private final ObjectReader lecteurWrappers;
+    private final ObjectWriter ecrivainEvenements;
+    // Fichiers indentés (lisibles) ou compacts (plus petits et plus rapides à écrire)
+    private final boolean indente;
 
+    /**
+     * Fichiers indentés, comme ceux de {@link #serializeEvents(List)}
+     */
     public JsonCalendarSerializer() {
+        this(true);
+    }
+
+    public JsonCalendarSerializer(boolean indente) {
+        this.indente = indente;
         objectMapper = new ObjectMapper();
 
         objectMapper.registerModule(new JavaTimeModule());
@@ -44,6 +63,18 @@ public class JsonCalendarSerializer {
                 new NamedType(EvenementPeriodique.class, "EvenementPeriodique"),
                 new NamedType(Anniversaire.class, "Anniversaire")
         );
+
+        lecteurWrappers = objectMapper.readerFor(EventWrapper.class);
+        // Type déclaré Event, comme le champ de EventWrapper, pour conserver l'identifiant de type
+        ecrivainEvenements = objectMapper.writerFor(Event.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    }
+
+    /**
+     * Fichiers compacts, sans indentation : plus petits et plus rapides à écrire
+     */
+    public static JsonCalendarSerializer compact() {
+        return new JsonCalendarSerializer(false);
     }
 
     /**
@@ -75,32 +106,73 @@ public class JsonCalendarSerializer {
     }
 
     /**
-     * Sauvegarde tous les événements d'un CalendarManager dans un fichier JSON
+     * Écrit les événements en flux, au même format que {@link #serializeEvents(List)} :
+     * ni chaîne intermédiaire ni liste d'enveloppes
      */
-    public void saveCalendarToFile(CalendarManager calendar, String filePath) throws IOException {
-        // Récupérer tous les événements (sans filtre de période)
-        List<Event> allEvents = new ArrayList<>();
-        calendar.getAllEvents().forEach(allEvents::add);
+    @Override
+    public void saveCalendarToStream(CalendarManager calendar, OutputStream out) throws IOException {
+        try (JsonGenerator generateur = objectMapper.getFactory().createGenerator(out, JsonEncoding.UTF8)) {
+            // Le flux appartient à l'appelant
+            generateur.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            if (indente) {
+                generateur.useDefaultPrettyPrinter();
+            }
+            generateur.writeStartArray();
+            for (Event event : calendar.getAllEvents()) {
+                // Équivalent d'un EventWrapper, sans l'allouer
+                generateur.writeStartObject();
+                generateur.writeStringField("type", event.getClass().getSimpleName());
+                generateur.writeFieldName("event");
+                ecrivainEvenements.writeValue(generateur, event);
+                generateur.writeEndObject();
+            }
+            generateur.writeEndArray();
+        }
+    }
 
-        String json = serializeEvents(allEvents);
-        Files.writeString(Paths.get(filePath), json);
+    /**
+     * Remplace le contenu du calendrier par les événements lus en flux depuis le tableau JSON.
+     * Chaque événement est transmis au calendrier dès qu'il est lu : aucune copie intégrale
+     * du texte ni liste intermédiaire.
+     */
+    @Override
+    public CalendarManager.RapportChargement loadCalendarFromStream(CalendarManager calendar, InputStream in) throws IOException {
+        try (MappingIterator<EventWrapper> wrappers = lecteurWrappers.readValues(in)) {
+            return calendar.remplacerEnMasse(() -> new LectureEvenements(wrappers));
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
     }
 
     /**
-     * Charge les événements depuis un fichier JSON dans un CalendarManager
+     * Parcourt les éléments du tableau JSON un par un, à mesure que le parseur avance
      */
-    public void loadCalendarFromFile(CalendarManager calendar, String filePath) throws IOException {
-        if (!new File(filePath).exists()) {
-            throw new IOException("Le fichier n'existe pas: " + filePath);
+    private static final class LectureEvenements implements Iterator<Event> {
+        private final MappingIterator<EventWrapper> wrappers;
+
+        private LectureEvenements(MappingIterator<EventWrapper> wrappers) {
+            this.wrappers = wrappers;
         }
 
-        String json = Files.readString(Paths.get(filePath));
-        List<Event> events = deserializeEvents(json);
+        @Override
+        public boolean hasNext() {
+            try {
+                return wrappers.hasNextValue();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
 
-        // Ajouter tous les événements au calendrier
-        calendar.clearEvents();
-        for (Event event : events) {
-            calendar.ajouterEvenement(event);
+        @Override
+        public Event next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            try {
+                return wrappers.nextValue().getEvent();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
         }
     }
-}
\ No newline at end of file
+}
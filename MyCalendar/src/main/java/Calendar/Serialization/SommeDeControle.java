@@ -0,0 +1,131 @@
+package Calendar.Serialization;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
+
+/**
+ * Pied de fichier facultatif : une ligne {@code #MCALSUM <crc32> <longueur>} ajoutée après
+ * le calendrier. Elle permet de détecter un fichier corrompu ou tronqué avant de l'analyser.
+ */
+final class SommeDeControle {
+
+    private static final String MARQUE = "\n#MCALSUM ";
+    // Marque, CRC32 sur 8 chiffres hexadécimaux, espace, longueur sur 16, fin de ligne
+    static final int TAILLE_PIED = MARQUE.length() + 8 + 1 + 16 + 1;
+
+    private SommeDeControle() {
+    }
+
+    static void ecrirePied(FileChannel canal, long crc, long longueur) throws IOException {
+        String pied = MARQUE + String.format("%08x %016x\n", crc, longueur);
+        ByteBuffer octets = StandardCharsets.US_ASCII.encode(pied);
+        while (octets.hasRemaining()) {
+            canal.write(octets);
+        }
+    }
+
+    /**
+     * Vérifie le pied du fichier s'il en a un, sans analyser le contenu
+     *
+     * @return la longueur du calendrier, pied exclu
+     */
+    static long verifier(Path fichier) throws IOException {
+        try (FileChannel canal = FileChannel.open(fichier, StandardOpenOption.READ)) {
+            long taille = canal.size();
+            if (taille < TAILLE_PIED) {
+                return taille;
+            }
+            ByteBuffer octets = ByteBuffer.allocate(TAILLE_PIED);
+            while (octets.hasRemaining() && canal.read(octets, taille - TAILLE_PIED + octets.position()) >= 0) {
+                // Lecture du pied jusqu'au bout
+            }
+            String pied = new String(octets.array(), StandardCharsets.US_ASCII);
+            if (!pied.startsWith(MARQUE)) {
+                return taille;
+            }
+
+            long attendu;
+            long longueur;
+            try {
+                attendu = Long.parseLong(pied, MARQUE.length(), MARQUE.length() + 8, 16);
+                longueur = Long.parseLong(pied, MARQUE.length() + 9, TAILLE_PIED - 1, 16);
+            } catch (NumberFormatException e) {
+                throw new IOException("Somme de contrôle illisible: " + fichier, e);
+            }
+            if (longueur != taille - TAILLE_PIED) {
+                throw new IOException("Fichier de calendrier tronqué ou corrompu (longueur attendue "
+                        + longueur + ", trouvée " + (taille - TAILLE_PIED) + "): " + fichier);
+            }
+
+            CRC32 crc = new CRC32();
+            ByteBuffer tampon = ByteBuffer.allocateDirect(CalendarSerializer.TAILLE_TAMPON);
+            long position = 0;
+            while (position < longueur) {
+                tampon.clear().limit((int) Math.min(tampon.capacity(), longueur - position));
+                int lus = canal.read(tampon, position);
+                if (lus < 0) {
+                    break;
+                }
+                tampon.flip();
+                crc.update(tampon);
+                position += lus;
+            }
+            if (crc.getValue() != attendu) {
+                throw new IOException("Fichier de calendrier corrompu (somme de contrôle invalide): " + fichier);
+            }
+            return longueur;
+        }
+    }
+
+    /**
+     * Flux qui s'arrête après la longueur donnée, pour ne pas lire le pied
+     */
+    static InputStream limiter(InputStream in, long longueur) {
+        return new FilterInputStream(in) {
+            private long restants = longueur;
+
+            @Override
+            public int read() throws IOException {
+                if (restants <= 0) {
+                    return -1;
+                }
+                int octet = super.read();
+                if (octet >= 0) {
+                    restants--;
+                }
+                return octet;
+            }
+
+            @Override
+            public int read(byte[] b, int off, int len) throws IOException {
+                if (restants <= 0) {
+                    return -1;
+                }
+                int lus = super.read(b, off, (int) Math.min(len, restants));
+                if (lus > 0) {
+                    restants -= lus;
+                }
+                return lus;
+            }
+
+            @Override
+            public long skip(long n) throws IOException {
+                long sautes = super.skip(Math.min(n, restants));
+                restants -= sautes;
+                return sautes;
+            }
+
+            @Override
+            public int available() throws IOException {
+                return (int) Math.min(super.available(), restants);
+            }
+        };
+    }
+}
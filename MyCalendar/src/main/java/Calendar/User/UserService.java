@@ -1,12 +1,12 @@
 package Calendar.User;
 
-import java.util.HashMap;
-import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import Calendar.vo.User;
 
 public class UserService {
 
-    private final Map<String, User> users = new HashMap<>();
+    private final ConcurrentMap<String, User> users = new ConcurrentHashMap<>();
     private final PasswordEncoder encoder;
 
     public UserService(PasswordEncoder encoder) {
@@ -14,17 +14,20 @@ public class UserService {
     }
 
     public User inscrire(String username, String rawPassword) {
-        if (users.containsKey(username)) {
+        if (username != null && users.containsKey(username)) {
             throw new IllegalArgumentException("Identifiant déjà utilisé.");
         }
         String hashed = encoder.encode(rawPassword);
         User user = new User(username, hashed);
-        users.put(username, user);
+        // Deux inscriptions simultanées du même identifiant : une seule l'emporte
+        if (users.putIfAbsent(username, user) != null) {
+            throw new IllegalArgumentException("Identifiant déjà utilisé.");
+        }
         return user;
     }
 
     public User seConnecter(String username, String rawPassword) {
-        User user = users.get(username);
+        User user = trouverParUsername(username);
         if (user == null) {
             throw new IllegalArgumentException("Identifiant inexistant.");
         }
@@ -35,6 +38,9 @@ public class UserService {
     }
 
     public User trouverParUsername(String username) {
+        if (username == null) {
+            return null;
+        }
         return users.get(username);
     }
 }
@@ -1,33 +1,158 @@
 package Calendar.Util;
 
 import Calendar.Events.Event;
+import Calendar.vo.ProprietaireEvenement;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.Objects;
 
+/**
+ * Détecte les conflits entre deux événements, occurrences des séries récurrentes comprises.
+ * Les occurrences ne sont jamais énumérées : une série est une suite de créneaux de même
+ * durée espacés d'une période, et deux séries se rencontrent selon l'écart de leurs débuts
+ * modulo le pgcd de leurs périodes. Deux séries quotidiennes se comparent en temps constant.
+ * <p>
+ * Un horizon limite chaque série aux occurrences qui commencent moins de {@code horizon}
+ * après son début ; sans horizon, une série n'a pas de fin.
+ */
 public class EventConflitDetector {
 
+    // Minute de LocalDateTime.MAX : fin des occurrences d'une série sans horizon
+    private static final long SANS_FIN = Event.enMinutes(LocalDateTime.MAX);
+
+    // En minutes, ou SANS_FIN
+    private final long horizon;
+
+    public EventConflitDetector() {
+        this.horizon = SANS_FIN;
+    }
+
+    public EventConflitDetector(Duration horizon) {
+        if (horizon.toMinutes() <= 0) {
+            throw new IllegalArgumentException("L'horizon doit être d'au moins une minute");
+        }
+        this.horizon = horizon.toMinutes();
+    }
+
     public boolean detectConflict(Event event1, Event event2) {
         // Vérifier si les événements concernent le même propriétaire
-        // Si les propriétaires sont différents, il n'y a pas de conflit
-        if (!Objects.equals(event1.getProprietaire().valeur(), event2.getProprietaire().valeur())) {
+        // Si les propriétaires sont différents, il n'y a pas de conflit.
+        // Les constructeurs d'Event internent le propriétaire : l'identité suffit, equals ne sert
+        // qu'aux événements dont les champs auraient été renseignés sans passer par eux
+        ProprietaireEvenement proprietaire1 = event1.getProprietaire();
+        ProprietaireEvenement proprietaire2 = event2.getProprietaire();
+        if (proprietaire1 != proprietaire2 && !Objects.equals(proprietaire1, proprietaire2)) {
             return false;
         }
 
-        // Obtenir le début et la fin des événements
-        LocalDateTime debut1 = event1.getDateDebut().valeur()
-                .withHour(event1.getHeureDebut().heure())
-                .withMinute(event1.getHeureDebut().minute());
-        LocalDateTime fin1 = debut1.plusMinutes(event1.getDuree().valeur());
+        long periode1 = event1.periodeEnMinutes();
+        long periode2 = event2.periodeEnMinutes();
+        if (periode1 == 0 && periode2 == 0) {
+            // Deux événements se chevauchent si:
+            // Le début du premier est avant la fin du second ET
+            // La fin du premier est après le début du second
+            // (créneaux en minutes, calculés une fois par événement)
+            return event1.debutEnMinutes() < event2.finEnMinutes()
+                    && event1.finEnMinutes() > event2.debutEnMinutes();
+        }
+        if (periode2 == 0) {
+            return serieContreCreneau(event1, event2);
+        }
+        if (periode1 == 0) {
+            return serieContreCreneau(event2, event1);
+        }
+        return deuxSeries(event1, event2);
+    }
 
-        LocalDateTime debut2 = event2.getDateDebut().valeur()
-                .withHour(event2.getHeureDebut().heure())
-                .withMinute(event2.getHeureDebut().minute());
-        LocalDateTime fin2 = debut2.plusMinutes(event2.getDuree().valeur());
+    /**
+     * Fin (exclue, en minutes) de la dernière occurrence examinée : un événement en conflit
+     * avec celui-ci commence avant
+     */
+    public long finDesOccurrences(Event e) {
+        if (e.periodeEnMinutes() == 0) {
+            return e.finEnMinutes();
+        }
+        if (horizon == SANS_FIN) {
+            return SANS_FIN;
+        }
+        return e.finEnMinutes() + horizon;
+    }
 
-        // Deux événements se chevauchent si:
-        // Le début du premier est avant la fin du second ET
-        // La fin du premier est après le début du second
-        return debut1.isBefore(fin2) && fin1.isAfter(debut2);
+    private long nombreOccurrences(Event serie) {
+        return horizon == SANS_FIN ? Long.MAX_VALUE : Math.ceilDiv(horizon, serie.periodeEnMinutes());
+    }
+
+    private boolean serieContreCreneau(Event serie, Event creneau) {
+        long debut = serie.debutEnMinutes();
+        long duree = serie.finEnMinutes() - debut;
+        long periode = serie.periodeEnMinutes();
+        // Première occurrence qui finit après le début du créneau
+        long rang = Math.max(0, Math.floorDiv(creneau.debutEnMinutes() - duree - debut, periode) + 1);
+        return rang < nombreOccurrences(serie) && debut + rang * periode < creneau.finEnMinutes();
+    }
+
+    private boolean deuxSeries(Event a, Event b) {
+        long p = a.periodeEnMinutes();
+        long q = b.periodeEnMinutes();
+        long dureeA = a.finEnMinutes() - a.debutEnMinutes();
+        long dureeB = b.finEnMinutes() - b.debutEnMinutes();
+        long ecart = b.debutEnMinutes() - a.debutEnMinutes();
+        long pgcd = pgcd(p, q);
+
+        // L'occurrence i de a et l'occurrence j de b se chevauchent si l'écart de leurs débuts,
+        // ecart + j*q - i*p, est dans ]-dureeB, dureeA[. Avec i et j positifs, ces écarts
+        // prennent exactement les valeurs congrues à ecart modulo le pgcd.
+        long x = 1 - dureeB + Math.floorMod(ecart + dureeB - 1, pgcd);
+        if (horizon == SANS_FIN) {
+            return x < dureeA;
+        }
+        long pa = p / pgcd;
+        long qb = q / pgcd;
+        long inverse = inverseModulaire(qb, pa);
+        for (; x < dureeA; x += pgcd) {
+            // Plus petits rangs (i, j) tels que j*qb - i*pa = m
+            long m = (x - ecart) / pgcd;
+            long j = Math.floorMod(Math.floorMod(m, pa) * inverse, pa);
+            long i = (j * qb - m) / pa;
+            if (i < 0) {
+                long pas = Math.ceilDiv(-i, qb);
+                i += pas * qb;
+                j += pas * pa;
+            }
+            if (i < nombreOccurrences(a) && j < nombreOccurrences(b)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static long pgcd(long a, long b) {
+        while (b != 0) {
+            long reste = a % b;
+            a = b;
+            b = reste;
+        }
+        return a;
+    }
+
+    /**
+     * Inverse de {@code a} modulo {@code n}, premiers entre eux (Euclide étendu)
+     */
+    private static long inverseModulaire(long a, long n) {
+        long t = 0;
+        long tSuivant = 1;
+        long r = n;
+        long rSuivant = Math.floorMod(a, n);
+        while (rSuivant != 0) {
+            long quotient = r / rSuivant;
+            long tampon = t - quotient * tSuivant;
+            t = tSuivant;
+            tSuivant = tampon;
+            tampon = r - quotient * rSuivant;
+            r = rSuivant;
+            rSuivant = tampon;
+        }
+        return Math.floorMod(t, n);
     }
 }
\ No newline at end of file
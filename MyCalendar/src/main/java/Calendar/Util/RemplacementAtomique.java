@@ -0,0 +1,73 @@
+package Calendar.Util;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.AccessDeniedException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Remplacement d'un fichier par un fichier temporaire voisin : le temporaire a un nom unique,
+ * le renommage est atomique et le dossier est synchronisé ensuite, pour qu'un arrêt brutal
+ * laisse l'ancien fichier ou le nouveau, jamais un mélange des deux.
+ */
+public final class RemplacementAtomique {
+
+    private RemplacementAtomique() {
+    }
+
+    /**
+     * Crée un fichier temporaire vide à côté de la cible. Il reçoit les droits de la cible si
+     * elle existe, sinon les droits par défaut d'un nouveau fichier (et non ceux, réservés au
+     * seul propriétaire, de {@link Files#createTempFile}).
+     */
+    public static Path creerTemporaire(Path cible) throws IOException {
+        Path dossier = cible.toAbsolutePath().getParent();
+        Path temporaire;
+        while (true) {
+            temporaire = dossier.resolve(cible.getFileName() + "."
+                    + Long.toUnsignedString(ThreadLocalRandom.current().nextLong(), 36) + ".tmp");
+            try {
+                Files.createFile(temporaire);
+                break;
+            } catch (FileAlreadyExistsException e) {
+                // Nom déjà pris : on en tire un autre
+            }
+        }
+        if (Files.exists(cible)) {
+            try {
+                Files.setPosixFilePermissions(temporaire, Files.getPosixFilePermissions(cible));
+            } catch (UnsupportedOperationException e) {
+                // Système de fichiers sans droits POSIX
+            } catch (IOException e) {
+                Files.deleteIfExists(temporaire);
+                throw e;
+            }
+        }
+        return temporaire;
+    }
+
+    /**
+     * Remplace la cible par le temporaire, déjà synchronisé sur disque, puis synchronise le dossier
+     */
+    public static void remplacer(Path temporaire, Path cible) throws IOException {
+        Files.move(temporaire, cible, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        synchroniserDossier(cible.toAbsolutePath().getParent());
+    }
+
+    /**
+     * Synchronise le dossier pour qu'un renommage survive lui aussi à un arrêt brutal.
+     * Sans effet là où un dossier ne s'ouvre pas comme un fichier (Windows).
+     */
+    public static void synchroniserDossier(Path dossier) throws IOException {
+        try (FileChannel canal = FileChannel.open(dossier, StandardOpenOption.READ)) {
+            canal.force(true);
+        } catch (UnsupportedOperationException | AccessDeniedException e) {
+            // Plateforme sans synchronisation de dossier
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package Calendar.Util;
+
+import Calendar.vo.ProprietaireEvenement;
+
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Verrous répartis en bandes selon le propriétaire (lock striping).
+ * Deux propriétaires ne se bloquent que s'ils tombent sur la même bande ;
+ * les lectures du calendrier n'en prennent aucun.
+ */
+public class VerrousParProprietaire {
+
+    private final ReentrantLock[] bandes;
+
+    public VerrousParProprietaire() {
+        this(Runtime.getRuntime().availableProcessors() * 4);
+    }
+
+    public VerrousParProprietaire(int nombreBandes) {
+        if (nombreBandes <= 0) {
+            throw new IllegalArgumentException("Le nombre de bandes doit être positif.");
+        }
+        // Puissance de deux pour choisir la bande par masque
+        int taille = Integer.highestOneBit((nombreBandes - 1) | 1) << 1;
+        this.bandes = new ReentrantLock[taille];
+        for (int i = 0; i < taille; i++) {
+            bandes[i] = new ReentrantLock();
+        }
+    }
+
+    public void executer(ProprietaireEvenement proprietaire, Runnable action) {
+        calculer(proprietaire, () -> {
+            action.run();
+            return null;
+        });
+    }
+
+    public <T> T calculer(ProprietaireEvenement proprietaire, Supplier<T> action) {
+        ReentrantLock verrou = bande(proprietaire);
+        verrou.lock();
+        try {
+            return action.get();
+        } finally {
+            verrou.unlock();
+        }
+    }
+
+    /**
+     * Exécute l'action en tenant toutes les bandes, prises dans un ordre fixe
+     */
+    public void executerSurTous(Runnable action) {
+        calculerSurTous(() -> {
+            action.run();
+            return null;
+        });
+    }
+
+    public <T> T calculerSurTous(Supplier<T> action) {
+        int prises = 0;
+        try {
+            for (ReentrantLock verrou : bandes) {
+                verrou.lock();
+                prises++;
+            }
+            return action.get();
+        } finally {
+            for (int i = prises - 1; i >= 0; i--) {
+                bandes[i].unlock();
+            }
+        }
+    }
+
+    private ReentrantLock bande(ProprietaireEvenement proprietaire) {
+        int h = proprietaire.hashCode();
+        // Mélange les bits de poids fort, comme HashMap
+        h ^= h >>> 16;
+        return bandes[h & (bandes.length - 1)];
+    }
+}
@@ -1,18 +1,55 @@
 package Calendar.vo;
 
+import com.fasterxml.jackson.annotation.JsonAutoDetect;
 import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import java.util.Objects;
 import java.util.UUID;
 
-public record EventId(String valeur) {
+/**
+ * Identifiant d'un événement. Un UUID sous sa forme canonique (minuscules) est rangé sur deux
+ * {@code long}, sa forme textuelle n'étant calculée qu'à la demande ; tout autre identifiant
+ * (« event-123 », UUID en majuscules...) garde son texte tel quel. En JSON, l'identifiant
+ * s'écrit toujours {@code {"valeur": "..."}}.
+ */
+@JsonAutoDetect(fieldVisibility = JsonAutoDetect.Visibility.NONE,
+        getterVisibility = JsonAutoDetect.Visibility.NONE,
+        isGetterVisibility = JsonAutoDetect.Visibility.NONE)
+public final class EventId implements Comparable<EventId> {
+
+    private static volatile GenerateurIdentifiants generateur = GenerateurIdentifiants.chronologique();
+
+    private final long poidsFort;
+    private final long poidsFaible;
+    // Identifiant textuel ; pour un UUID, null jusqu'au premier appel de valeur()
+    private String valeur;
+    private final boolean compact;
 
     @JsonCreator
     public EventId(@JsonProperty("valeur") String valeur) {
         if (valeur == null || valeur.isBlank()) {
             throw new IllegalArgumentException("L'identifiant de l'événement ne peut pas être vide ou null");
         }
-        this.valeur = valeur;
+        this.compact = estUuidCanonique(valeur);
+        if (compact) {
+            this.poidsFort = hex(valeur, 0, 8) << 32 | hex(valeur, 9, 13) << 16 | hex(valeur, 14, 18);
+            this.poidsFaible = hex(valeur, 19, 23) << 48 | hex(valeur, 24, 36);
+        } else {
+            this.poidsFort = 0;
+            this.poidsFaible = 0;
+        }
+        // Le texte d'un UUID se déduit des deux long : il n'est pas gardé
+        this.valeur = compact ? null : valeur;
+    }
+
+    /**
+     * Identifiant UUID donné par ses deux moitiés, sans passer par le texte
+     */
+    public EventId(long poidsFort, long poidsFaible) {
+        this.poidsFort = poidsFort;
+        this.poidsFaible = poidsFaible;
+        this.valeur = null;
+        this.compact = true;
     }
 
     // Constructeur par défaut pour la sérialisation JSON
@@ -21,24 +58,111 @@ public record EventId(String valeur) {
     }
 
     public static EventId generate() {
-        return new EventId(UUID.randomUUID().toString());
+        return generateur.suivant();
+    }
+
+    /**
+     * Remplace la stratégie de {@link #generate()} pour toute l'application
+     * (par défaut {@link GenerateurIdentifiants#chronologique()})
+     */
+    public static void utiliserGenerateur(GenerateurIdentifiants nouveau) {
+        generateur = Objects.requireNonNull(nouveau);
+    }
+
+    /**
+     * Forme textuelle, calculée au premier appel pour un UUID puis gardée
+     */
+    @JsonProperty("valeur")
+    public String valeur() {
+        String texte = valeur;
+        if (texte == null) {
+            // Course bénigne : deux threads calculent la même chaîne
+            texte = new UUID(poidsFort, poidsFaible).toString();
+            valeur = texte;
+        }
+        return texte;
+    }
+
+    /**
+     * Vrai si l'identifiant est un UUID rangé sur {@link #poidsFort()} et {@link #poidsFaible()}
+     */
+    public boolean estCompact() {
+        return compact;
+    }
+
+    public long poidsFort() {
+        return poidsFort;
+    }
+
+    public long poidsFaible() {
+        return poidsFaible;
     }
 
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
-        if (o == null || getClass() != o.getClass()) return false;
-        EventId eventId = (EventId) o;
-        return Objects.equals(valeur, eventId.valeur);
+        if (!(o instanceof EventId eventId) || compact != eventId.compact) return false;
+        return compact
+                ? poidsFort == eventId.poidsFort && poidsFaible == eventId.poidsFaible
+                : valeur.equals(eventId.valeur);
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(valeur);
+        if (!compact) {
+            return valeur.hashCode();
+        }
+        long h = (poidsFort ^ Long.rotateLeft(poidsFaible, 32)) * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+
+    /**
+     * Ordre des UUID comme des entiers de 128 bits non signés, donc par date de création pour
+     * des identifiants chronologiques ; les identifiants textuels viennent après, par texte
+     */
+    @Override
+    public int compareTo(EventId autre) {
+        if (compact != autre.compact) {
+            return compact ? -1 : 1;
+        }
+        if (!compact) {
+            return valeur.compareTo(autre.valeur);
+        }
+        int ordre = Long.compareUnsigned(poidsFort, autre.poidsFort);
+        return ordre != 0 ? ordre : Long.compareUnsigned(poidsFaible, autre.poidsFaible);
     }
 
     @Override
     public String toString() {
-        return valeur;
+        return valeur();
+    }
+
+    /**
+     * Reconnaît la forme canonique d'un UUID (minuscules), seule à pouvoir être reconstruite
+     * à l'identique depuis ses deux {@code long}
+     */
+    private static boolean estUuidCanonique(String valeur) {
+        if (valeur.length() != 36) {
+            return false;
+        }
+        for (int i = 0; i < 36; i++) {
+            char c = valeur.charAt(i);
+            if (i == 8 || i == 13 || i == 18 || i == 23) {
+                if (c != '-') {
+                    return false;
+                }
+            } else if (!((c >= '0' && c <= '9') || (c >= 'a' && c <= 'f'))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static long hex(String valeur, int de, int a) {
+        long resultat = 0;
+        for (int i = de; i < a; i++) {
+            resultat = resultat << 4 | Character.digit(valeur.charAt(i), 16);
+        }
+        return resultat;
     }
 }
\ No newline at end of file
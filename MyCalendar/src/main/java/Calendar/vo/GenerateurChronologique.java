@@ -0,0 +1,49 @@
+package Calendar.vo;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Disposition (RFC 9562) : horodatage (48 bits), version 7 (4 bits), compteur (12 bits
+ * hauts) | variante (2 bits), compteur (18 bits bas), aléatoire (44 bits)
+ */
+final class GenerateurChronologique implements GenerateurIdentifiants {
+
+    static final GenerateurChronologique INSTANCE = new GenerateurChronologique();
+
+    private static final int BITS_COMPTEUR = 30;
+    private static final int BITS_ALEATOIRES = 44;
+    // Le compteur part d'une valeur aléatoire de la moitié basse, pour garder de la marge
+    private static final long DEPART_MAX = 1L << (BITS_COMPTEUR - 1);
+    private static final long COMPTEUR_MAX = (1L << BITS_COMPTEUR) - 1;
+
+    private static final class Etat {
+        long milli = -1;
+        long compteur;
+    }
+
+    private final ThreadLocal<Etat> etats = ThreadLocal.withInitial(Etat::new);
+
+    private GenerateurChronologique() {
+    }
+
+    @Override
+    public EventId suivant() {
+        Etat etat = etats.get();
+        ThreadLocalRandom aleatoire = ThreadLocalRandom.current();
+        long maintenant = System.currentTimeMillis();
+        if (maintenant > etat.milli) {
+            etat.milli = maintenant;
+            etat.compteur = aleatoire.nextLong(DEPART_MAX);
+        } else if (++etat.compteur > COMPTEUR_MAX) {
+            // Compteur épuisé, ou horloge revenue en arrière : on avance d'une milliseconde
+            etat.milli++;
+            etat.compteur = aleatoire.nextLong(DEPART_MAX);
+        }
+        long compteur = etat.compteur;
+        long poidsFort = etat.milli << 16 | 0x7000L | compteur >>> 18;
+        long poidsFaible = 0x8000_0000_0000_0000L
+                | (compteur & 0x3FFFFL) << BITS_ALEATOIRES
+                | aleatoire.nextLong() >>> (64 - BITS_ALEATOIRES);
+        return new EventId(poidsFort, poidsFaible);
+    }
+}
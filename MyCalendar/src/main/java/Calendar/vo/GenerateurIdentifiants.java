@@ -0,0 +1,34 @@
+package Calendar.vo;
+
+import java.util.UUID;
+
+/**
+ * Stratégie de création des identifiants d'événements, choisie avec
+ * {@link EventId#utiliserGenerateur(GenerateurIdentifiants)}
+ */
+@FunctionalInterface
+public interface GenerateurIdentifiants {
+
+    EventId suivant();
+
+    /**
+     * UUID version 4 tirés de {@link UUID#randomUUID()} : un {@code SecureRandom} partagé
+     * par tous les threads, sans ordre entre les identifiants
+     */
+    static GenerateurIdentifiants aleatoire() {
+        return () -> {
+            UUID uuid = UUID.randomUUID();
+            return new EventId(uuid.getMostSignificantBits(), uuid.getLeastSignificantBits());
+        };
+    }
+
+    /**
+     * UUID version 7 : horodatage en millisecondes sur les 48 premiers bits, puis un
+     * compteur propre à chaque thread et des bits aléatoires. Les identifiants se trient
+     * par date de création, et ceux d'un même thread sont strictement croissants. Aucun
+     * verrou ni état partagé entre threads.
+     */
+    static GenerateurIdentifiants chronologique() {
+        return GenerateurChronologique.INSTANCE;
+    }
+}
@@ -0,0 +1,59 @@
+package Calendar.vo;
+
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Dictionnaire d'instances canoniques : tant qu'une instance d'une valeur est vivante, toute
+ * demande de cette valeur la renvoie, si bien que deux instances internées égales sont
+ * identiques. Les instances sont retenues par des références faibles : une valeur qui n'est
+ * plus utilisée quitte le dictionnaire, qui ne grandit donc qu'avec les valeurs vivantes.
+ */
+final class Interneur<T> {
+
+    private final ConcurrentHashMap<String, Entree<T>> entrees = new ConcurrentHashMap<>();
+    private final ReferenceQueue<T> liberees = new ReferenceQueue<>();
+
+    private static final class Entree<T> extends WeakReference<T> {
+        private final String cle;
+
+        private Entree(String cle, T valeur, ReferenceQueue<T> file) {
+            super(valeur, file);
+            this.cle = cle;
+        }
+    }
+
+    /**
+     * Instance canonique de la clé ; {@code creer} ne fournit l'instance que si aucune n'est vivante
+     */
+    T interner(String cle, Function<String, T> creer) {
+        purger();
+        while (true) {
+            Entree<T> entree = entrees.get(cle);
+            T present = entree == null ? null : entree.get();
+            if (present != null) {
+                return present;
+            }
+            T nouveau = creer.apply(cle);
+            Entree<T> nouvelle = new Entree<>(cle, nouveau, liberees);
+            boolean installee = entree == null
+                    ? entrees.putIfAbsent(cle, nouvelle) == null
+                    : entrees.replace(cle, entree, nouvelle);
+            if (installee) {
+                return nouveau;
+            }
+            // Un autre thread a installé une instance entre-temps : on reprend la sienne
+        }
+    }
+
+    // Retire les entrées dont l'instance a été récupérée (sans toucher à une entrée remplacée depuis)
+    @SuppressWarnings("unchecked")
+    private void purger() {
+        Entree<T> liberee;
+        while ((liberee = (Entree<T>) liberees.poll()) != null) {
+            entrees.remove(liberee.cle, liberee);
+        }
+    }
+}
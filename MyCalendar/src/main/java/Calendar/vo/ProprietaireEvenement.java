@@ -5,14 +5,34 @@ import com.fasterxml.jackson.annotation.JsonProperty;
 
 public record ProprietaireEvenement(String valeur) {
 
-    @JsonCreator
-    public ProprietaireEvenement(@JsonProperty("valeur") String valeur) {
+    // Une instance par propriétaire en usage : deux propriétaires internés égaux sont identiques
+    private static final Interneur<ProprietaireEvenement> PARTAGES = new Interneur<>();
+
+    public ProprietaireEvenement(String valeur) {
         if(valeur == null || valeur.isBlank()) {
             throw new IllegalArgumentException("Le propriétaire ne peut pas être vide ou nul.");
         }
         this.valeur = valeur;
     }
 
+    /**
+     * Instance canonique du propriétaire, partagée par tous ses événements
+     */
+    @JsonCreator
+    public static ProprietaireEvenement de(@JsonProperty("valeur") String valeur) {
+        if (valeur == null) {
+            return new ProprietaireEvenement(null);
+        }
+        return PARTAGES.interner(valeur, ProprietaireEvenement::new);
+    }
+
+    /**
+     * Instance canonique égale à celle-ci (celle-ci si aucune n'est encore en usage)
+     */
+    public ProprietaireEvenement partage() {
+        return PARTAGES.interner(valeur, v -> this);
+    }
+
     // Constructeur par défaut pour la sérialisation JSON
     private ProprietaireEvenement() {
         this("Propriétaire par défaut");
@@ -5,14 +5,34 @@ import com.fasterxml.jackson.annotation.JsonProperty;
 
 public record TitreEvenement(String valeur) {
 
-    @JsonCreator
-    public TitreEvenement(@JsonProperty("valeur") String valeur) {
+    // Une instance par titre en usage ("Daily standup"), oubliée quand plus aucun événement ne la porte
+    private static final Interneur<TitreEvenement> PARTAGES = new Interneur<>();
+
+    public TitreEvenement(String valeur) {
         if (valeur == null || valeur.isBlank()) {
             throw new IllegalArgumentException("Le titre ne peut pas être vide.");
         }
         this.valeur = valeur;
     }
 
+    /**
+     * Instance canonique du titre, partagée par tous les événements de même titre
+     */
+    @JsonCreator
+    public static TitreEvenement de(@JsonProperty("valeur") String valeur) {
+        if (valeur == null) {
+            return new TitreEvenement(null);
+        }
+        return PARTAGES.interner(valeur, TitreEvenement::new);
+    }
+
+    /**
+     * Instance canonique égale à celle-ci (celle-ci si aucune n'est encore en usage)
+     */
+    public TitreEvenement partage() {
+        return PARTAGES.interner(valeur, v -> this);
+    }
+
     // Constructeur par défaut pour la sérialisation JSON
     private TitreEvenement() {
         this("Titre par défaut");
@@ -0,0 +1,147 @@
+package Calendar;
+
+import Calendar.Events.*;
+import Calendar.Persistence.ArchiveCalendrier;
+import Calendar.Persistence.StockageCalendrier;
+import Calendar.vo.*;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.Period;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ArchiveCalendrierTests {
+
+    private static final LocalDateTime ORIGINE = LocalDateTime.of(2024, 1, 10, 9, 0);
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void shouldMovePastEventsIntoMonthlySegments() throws IOException {
+        CalendarManager calendar = new CalendarManager();
+        for (int mois = 0; mois < 6; mois++) {
+            calendar.ajouterEvenement(rdv("RDV " + mois, ORIGINE.plusMonths(mois), "Alice"));
+        }
+        Event footing = new EvenementPeriodique(new TitreEvenement("Footing"), new DateEvenement(ORIGINE),
+                new HeureDebut(7, 0), new DureeEvenement(30), 7, new ProprietaireEvenement("Alice"));
+        calendar.ajouterEvenement(footing);
+
+        ArchiveCalendrier archive = ArchiveCalendrier.ouvrir(tempDir.resolve("archives"));
+        calendar.ajouterSource(archive);
+        int archives = archive.archiver(calendar, ORIGINE.plusMonths(3));
+
+        // Janvier à mars archivés, un segment par mois ; la série récurrente reste en mémoire
+        assertEquals(3, archives);
+        assertEquals(4, calendar.getAllEvents().size());
+        assertTrue(calendar.getAllEvents().contains(footing));
+        assertEquals(List.of(YearMonth.of(2024, 1), YearMonth.of(2024, 2), YearMonth.of(2024, 3)),
+                archive.segments().stream().map(ArchiveCalendrier.Segment::mois).toList());
+
+        // Les recherches voient toujours les événements archivés
+        List<Event> fevrier = calendar.eventsDansPeriode(new ProprietaireEvenement("Alice"),
+                new Periode(LocalDateTime.of(2024, 2, 1, 0, 0), LocalDateTime.of(2024, 3, 1, 0, 0)));
+        assertEquals(1, fevrier.stream().filter(e -> e.getTitre().valeur().equals("RDV 1")).count());
+        assertEquals(4, fevrier.stream().filter(e -> e.getTitre().valeur().equals("Footing")).count());
+        for (int i = 1; i < fevrier.size(); i++) {
+            assertFalse(fevrier.get(i).getStartDateTime().isBefore(fevrier.get(i - 1).getStartDateTime()));
+        }
+
+        // Et l'archive participe à la détection de conflits
+        assertThrows(CalendarManager.ConflitEvenementException.class,
+                () -> calendar.ajouterEvenement(rdv("Doublon", ORIGINE.plusMonths(1), "Alice")));
+        assertDoesNotThrow(() -> calendar.ajouterEvenement(rdv("Autre", ORIGINE.plusMonths(1), "Bob")));
+    }
+
+    @Test
+    void shouldOnlyOpenOverlappingSegments() throws IOException {
+        CalendarManager calendar = new CalendarManager();
+        calendar.ajouterEvenement(rdv("Janvier", ORIGINE, "Alice"));
+        calendar.ajouterEvenement(rdv("Mars", ORIGINE.plusMonths(2), "Alice"));
+        Path dossier = tempDir.resolve("archives");
+        ArchiveCalendrier archive = ArchiveCalendrier.ouvrir(dossier);
+        archive.archiver(calendar, ORIGINE.plusYears(1));
+
+        // Le segment de janvier est rendu illisible : une recherche en mars ne doit pas l'ouvrir
+        ArchiveCalendrier relue = ArchiveCalendrier.ouvrir(dossier);
+        Files.writeString(dossier.resolve(relue.segments().get(0).fichier()), "corrompu");
+        CalendarManager vide = new CalendarManager();
+        vide.ajouterSource(relue);
+
+        List<Event> mars = vide.eventsDansPeriode(new Periode(ORIGINE.plusMonths(2).minusDays(1), ORIGINE.plusMonths(2).plusDays(1)));
+        assertEquals(1, mars.size());
+        assertEquals("Mars", mars.get(0).getTitre().valeur());
+        assertThrows(RuntimeException.class, () -> vide.eventsDansPeriode(new Periode(ORIGINE.minusDays(1), ORIGINE.plusDays(1))));
+    }
+
+    @Test
+    void shouldFindArchivedEventsById() throws IOException {
+        CalendarManager calendar = new CalendarManager();
+        Event janvier = rdv("Janvier", ORIGINE, "Alice");
+        Event fevrier = rdv("Février", ORIGINE.plusMonths(1), "Alice");
+        calendar.ajouterEvenement(janvier);
+        calendar.ajouterEvenement(fevrier);
+        Path dossier = tempDir.resolve("archives");
+        ArchiveCalendrier archive = ArchiveCalendrier.ouvrir(dossier);
+        calendar.ajouterSource(archive);
+        archive.archiver(calendar, ORIGINE.plusYears(1));
+
+        assertEquals("Février", calendar.trouverParId(fevrier.getId()).orElseThrow().getTitre().valeur());
+        assertTrue(calendar.trouverParId(EventId.generate()).isEmpty());
+        // Un identifiant archivé reste pris, même sur un autre créneau
+        Event doublon = new RendezVous(janvier.getId(), new TitreEvenement("Doublon"),
+                new DateEvenement(ORIGINE.plusMonths(5)), new HeureDebut(9, 0), new DureeEvenement(60),
+                new ProprietaireEvenement("Bob"));
+        assertThrows(IllegalArgumentException.class, () -> calendar.ajouterEvenement(doublon));
+
+        // Une archive sans fichiers d'empreintes les recalcule à l'ouverture
+        try (Stream<Path> fichiers = Files.list(dossier)) {
+            for (Path ids : fichiers.filter(f -> f.toString().endsWith(".ids")).toList()) {
+                Files.delete(ids);
+            }
+        }
+        ArchiveCalendrier relue = ArchiveCalendrier.ouvrir(dossier);
+        assertEquals("Janvier", relue.trouverParId(janvier.getId()).orElseThrow().getTitre().valeur());
+    }
+
+    @Test
+    void shouldKeepArchivedEventsOutOfSnapshot() throws IOException {
+        String fichier = tempDir.resolve("calendrier.json").toString();
+        LocalDateTime ancien = LocalDateTime.now().minusYears(2).withHour(9).withMinute(0).withSecond(0).withNano(0);
+        LocalDateTime recent = LocalDateTime.now().plusDays(1).withHour(9).withMinute(0).withSecond(0).withNano(0);
+
+        CalendarManager calendar = new CalendarManager();
+        try (StockageCalendrier stockage = new StockageCalendrier(calendar, fichier, Period.ofMonths(6))) {
+            stockage.ouvrir();
+            calendar.ajouterEvenement(rdv("Ancien", ancien, "Alice"));
+            calendar.ajouterEvenement(rdv("Récent", recent, "Alice"));
+            stockage.sauvegarder();
+        }
+        assertFalse(Files.readString(Path.of(fichier)).contains("Ancien"));
+
+        CalendarManager relu = new CalendarManager();
+        try (StockageCalendrier stockage = new StockageCalendrier(relu, fichier, Period.ofMonths(6))) {
+            stockage.ouvrir();
+            assertEquals(1, relu.getAllEvents().size());
+            assertEquals(1, relu.eventsDansPeriode(new Periode(ancien.minusDays(1), ancien.plusDays(1))).size());
+        }
+    }
+
+    private static Event rdv(String titre, LocalDateTime debut, String proprietaire) {
+        return new RendezVous(
+                new TitreEvenement(titre),
+                new DateEvenement(debut),
+                new HeureDebut(debut.getHour(), debut.getMinute()),
+                new DureeEvenement(60),
+                new ProprietaireEvenement(proprietaire)
+        );
+    }
+}
@@ -0,0 +1,156 @@
+package Calendar;
+
+import Calendar.Events.*;
+import Calendar.Serialization.BinaryCalendarSerializer;
+import Calendar.Serialization.CalendarSerializer;
+import Calendar.Serialization.JsonCalendarSerializer;
+import Calendar.vo.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BinaryCalendarSerializerTest {
+
+    private final BinaryCalendarSerializer serializer = new BinaryCalendarSerializer();
+    private CalendarManager calendar;
+    private LocalDateTime base;
+
+    @TempDir
+    Path tempDir;
+
+    @BeforeEach
+    void setUp() {
+        calendar = new CalendarManager();
+        base = LocalDateTime.of(2025, 3, 24, 10, 0);
+        calendar.ajouterEvenement(new RendezVous(new TitreEvenement("Dentiste"), new DateEvenement(base),
+                new HeureDebut(10, 0), new DureeEvenement(60), new ProprietaireEvenement("Alice")));
+        calendar.ajouterEvenement(new Reunion(new TitreEvenement("Réunion d'équipe €"), new DateEvenement(base.plusDays(1)),
+                new HeureDebut(14, 30), new DureeEvenement(90), new LieuEvenement("Salle 1"),
+                new ProprietaireEvenement("Alice"), new Participants(new String[]{"Bob", "Charlie"})));
+        calendar.ajouterEvenement(new EvenementPeriodique(new TitreEvenement("Footing"), new DateEvenement(base.minusDays(10)),
+                new HeureDebut(7, 0), new DureeEvenement(30), 7, new ProprietaireEvenement("Bob")));
+        // Date avec secondes : elles doivent survivre au stockage en minutes
+        calendar.ajouterEvenement(new Anniversaire(new TitreEvenement("Anniversaire"),
+                new DateEvenement(base.plusDays(2).withSecond(42).withNano(123_000_000)),
+                new HeureDebut(20, 0), new DureeEvenement(120), new ProprietaireEvenement("Charlie"), "Dana"));
+    }
+
+    @Test
+    void testAllerRetourConserveTousLesChamps() throws IOException {
+        Path fichier = tempDir.resolve("calendrier" + BinaryCalendarSerializer.EXTENSION);
+        serializer.saveCalendarToFile(calendar, fichier.toString());
+
+        CalendarManager recharge = new CalendarManager();
+        CalendarManager.RapportChargement rapport = serializer.loadCalendarFromFile(recharge, fichier.toString());
+
+        assertTrue(rapport.estComplet());
+        assertEquals(calendar.getAllEvents().size(), recharge.getAllEvents().size());
+        for (Event original : calendar.getAllEvents()) {
+            Event relu = recharge.trouverParId(original.getId()).orElseThrow();
+            assertSame(original.getClass(), relu.getClass());
+            assertEquals(original.getTitre(), relu.getTitre());
+            assertEquals(original.getDateDebut(), relu.getDateDebut());
+            assertEquals(original.getHeureDebut(), relu.getHeureDebut());
+            assertEquals(original.getDuree(), relu.getDuree());
+            assertEquals(original.getProprietaire(), relu.getProprietaire());
+            assertEquals(original.description(), relu.description());
+            if (original instanceof Reunion reunion) {
+                assertEquals(reunion.getLieu(), ((Reunion) relu).getLieu());
+                assertArrayEquals(reunion.getParticipants().noms(), ((Reunion) relu).getParticipants().noms());
+            }
+            if (original instanceof EvenementPeriodique periodique) {
+                assertEquals(periodique.getFrequenceJours(), ((EvenementPeriodique) relu).getFrequenceJours());
+            }
+        }
+    }
+
+    @Test
+    void testFichierBinaireNettementPlusPetitQueJson() throws IOException {
+        List<Event> lot = new ArrayList<>();
+        for (int i = 0; i < 5_000; i++) {
+            LocalDateTime debut = base.plusMinutes(30L * i);
+            lot.add(new RendezVous(new TitreEvenement("Consultation"), new DateEvenement(debut),
+                    new HeureDebut(debut.getHour(), debut.getMinute()), new DureeEvenement(30),
+                    new ProprietaireEvenement("user" + (i % 5))));
+        }
+        CalendarManager gros = new CalendarManager();
+        gros.ajouterEnMasse(lot);
+
+        Path binaire = tempDir.resolve("gros" + BinaryCalendarSerializer.EXTENSION);
+        Path json = tempDir.resolve("gros.json");
+        serializer.saveCalendarToFile(gros, binaire.toString());
+        new JsonCalendarSerializer().saveCalendarToFile(gros, json.toString());
+
+        assertTrue(Files.size(binaire) * 5 < Files.size(json),
+                "binaire " + Files.size(binaire) + " o, JSON " + Files.size(json) + " o");
+    }
+
+    @Test
+    void testChoixDuFormatParExtension() throws IOException {
+        assertInstanceOf(BinaryCalendarSerializer.class, CalendarSerializer.pourFichier("agenda.mcal"));
+        assertInstanceOf(JsonCalendarSerializer.class, CalendarSerializer.pourFichier("agenda.json"));
+
+        Path fichier = tempDir.resolve("agenda.mcal");
+        calendar.sauvegarder(fichier.toString());
+        assertEquals(0x4D, Files.readAllBytes(fichier)[0]);
+
+        CalendarManager recharge = new CalendarManager();
+        recharge.charger(fichier.toString());
+        assertEquals(calendar.getAllEvents().size(), recharge.getAllEvents().size());
+    }
+
+    @Test
+    void testIdentifiantsUuidEtTextuelsConserves() throws IOException {
+        Event textuel = new RendezVous(new EventId("event-123"), new TitreEvenement("Ancien import"),
+                new DateEvenement(base.plusDays(5)), new HeureDebut(10, 0), new DureeEvenement(30),
+                new ProprietaireEvenement("Alice"));
+        Event majuscules = new RendezVous(new EventId("3F2504E0-4F89-11D3-9A0C-0305E82C3301"),
+                new TitreEvenement("UUID en majuscules"), new DateEvenement(base.plusDays(6)),
+                new HeureDebut(10, 0), new DureeEvenement(30), new ProprietaireEvenement("Alice"));
+        calendar.ajouterEvenement(textuel);
+        calendar.ajouterEvenement(majuscules);
+        Path fichier = tempDir.resolve("identifiants.mcal");
+        serializer.saveCalendarToFile(calendar, fichier.toString());
+
+        CalendarManager recharge = new CalendarManager();
+        serializer.loadCalendarFromFile(recharge, fichier.toString());
+        for (Event original : calendar.getAllEvents()) {
+            EventId relu = recharge.trouverParId(original.getId()).orElseThrow().getId();
+            assertEquals(original.getId().valeur(), relu.valeur());
+            assertEquals(original.getId().estCompact(), relu.estCompact());
+        }
+        // Le journal encode chaque événement de la même façon
+        assertEquals("event-123", BinaryCalendarSerializer.decoderEvenement(
+                BinaryCalendarSerializer.encoderEvenement(textuel)).getId().valeur());
+    }
+
+    @Test
+    void testFichierTronqueRejete() throws IOException {
+        Path fichier = tempDir.resolve("tronque.mcal");
+        serializer.saveCalendarToFile(calendar, fichier.toString());
+        byte[] octets = Files.readAllBytes(fichier);
+        Files.write(fichier, Arrays.copyOf(octets, octets.length - 5));
+        List<Event> avant = calendar.getAllEvents();
+
+        assertThrows(IOException.class, () -> serializer.loadCalendarFromFile(calendar, fichier.toString()));
+        assertEquals(avant, calendar.getAllEvents());
+    }
+
+    @Test
+    void testSignatureInconnueRejetee() throws IOException {
+        Path fichier = tempDir.resolve("faux.mcal");
+        Files.writeString(fichier, "[{\"type\":\"RendezVous\"}]");
+
+        assertThrows(IOException.class, () -> serializer.loadCalendarFromFile(new CalendarManager(), fichier.toString()));
+    }
+}
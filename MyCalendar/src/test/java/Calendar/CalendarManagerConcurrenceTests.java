@@ -0,0 +1,102 @@
+package Calendar;
+
+import Calendar.Events.*;
+import Calendar.vo.*;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CalendarManagerConcurrenceTests {
+
+    private static final LocalDateTime ORIGINE = LocalDateTime.of(2025, 1, 1, 0, 0);
+    private static final String[] PROPRIETAIRES = {"Alice", "Bob", "Charlie"};
+    private static final int NB_ECRIVAINS = 8;
+    private static final int AJOUTS_PAR_ECRIVAIN = 3_000;
+
+    @Test
+    void shouldNeverDoubleBookUnderConcurrentInserts() throws Exception {
+        CalendarManager calendar = new CalendarManager();
+        ExecutorService pool = Executors.newFixedThreadPool(NB_ECRIVAINS + 2);
+        CountDownLatch depart = new CountDownLatch(1);
+        AtomicInteger ajouts = new AtomicInteger();
+        AtomicBoolean ecrituresTerminees = new AtomicBoolean();
+        List<Future<?>> taches = new ArrayList<>();
+
+        for (int t = 0; t < NB_ECRIVAINS; t++) {
+            taches.add(pool.submit(() -> {
+                depart.await();
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                for (int i = 0; i < AJOUTS_PAR_ECRIVAIN; i++) {
+                    // Créneaux serrés sur deux jours : beaucoup de collisions entre threads
+                    LocalDateTime debut = ORIGINE.plusMinutes(15L * random.nextInt(192));
+                    Event rdv = new RendezVous(
+                            new TitreEvenement("RDV " + i),
+                            new DateEvenement(debut),
+                            new HeureDebut(debut.getHour(), debut.getMinute()),
+                            new DureeEvenement(15 * (1 + random.nextInt(4))),
+                            new ProprietaireEvenement(PROPRIETAIRES[random.nextInt(PROPRIETAIRES.length)])
+                    );
+                    try {
+                        calendar.ajouterEvenement(rdv);
+                        ajouts.incrementAndGet();
+                    } catch (CalendarManager.ConflitEvenementException e) {
+                        // attendu
+                    }
+                }
+                return null;
+            }));
+        }
+        // Lecteurs concurrents : ils ne doivent ni échouer ni bloquer les écrivains
+        for (int t = 0; t < 2; t++) {
+            taches.add(pool.submit(() -> {
+                depart.await();
+                Periode periode = new Periode(ORIGINE, ORIGINE.plusDays(2));
+                while (!ecrituresTerminees.get()) {
+                    calendar.fluxDansPeriode(periode).limit(50).count();
+                    calendar.getAllEvents().size();
+                }
+                return null;
+            }));
+        }
+
+        depart.countDown();
+        for (Future<?> tache : taches.subList(0, NB_ECRIVAINS)) {
+            tache.get(60, TimeUnit.SECONDS);
+        }
+        ecrituresTerminees.set(true);
+        for (Future<?> tache : taches) {
+            tache.get(60, TimeUnit.SECONDS);
+        }
+        pool.shutdown();
+
+        List<Event> tous = calendar.getAllEvents();
+        assertEquals(ajouts.get(), tous.size());
+
+        Map<String, List<Event>> parProprietaire = tous.stream()
+                .collect(Collectors.groupingBy(e -> e.getProprietaire().valeur()));
+        for (List<Event> events : parProprietaire.values()) {
+            List<Event> tries = events.stream()
+                    .sorted(Comparator.comparing(Event::getStartDateTime))
+                    .toList();
+            for (int i = 1; i < tries.size(); i++) {
+                assertFalse(tries.get(i).getStartDateTime().isBefore(tries.get(i - 1).getEndDateTime()),
+                        "Double réservation : " + tries.get(i - 1).description() + " / " + tries.get(i).description());
+            }
+        }
+    }
+}
@@ -8,7 +8,10 @@ import org.junit.jupiter.api.Test;
 import java.io.ByteArrayOutputStream;
 import java.io.PrintStream;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Random;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -135,4 +138,231 @@ class CalendarManagerTests {
         );
         assertEquals(3, results.size());
     }
-}
+
+    @Test
+    void testEventsDansPeriodeParProprietaire() {
+        LocalDateTime d = LocalDateTime.of(2025, 1, 1, 10, 0);
+        Event rdvAlice = new RendezVous(
+                new TitreEvenement("Dentiste"),
+                new DateEvenement(d),
+                new HeureDebut(10, 0),
+                new DureeEvenement(30),
+                new ProprietaireEvenement("Alice")
+        );
+        Event rdvBob = new RendezVous(
+                new TitreEvenement("Garage"),
+                new DateEvenement(d),
+                new HeureDebut(10, 0),
+                new DureeEvenement(30),
+                new ProprietaireEvenement("Bob")
+        );
+        Event yogaAlice = new EvenementPeriodique(
+                new TitreEvenement("Yoga"),
+                new DateEvenement(d.minusDays(30).withHour(18)),
+                new HeureDebut(18, 0),
+                new DureeEvenement(60),
+                7,
+                new ProprietaireEvenement("Alice")
+        );
+        manager.ajouterEvenement(rdvAlice);
+        manager.ajouterEvenement(rdvBob);
+        manager.ajouterEvenement(yogaAlice);
+
+        List<Event> results = manager.eventsDansPeriode(
+                new ProprietaireEvenement("Alice"),
+                new Periode(d.minusDays(3), d.plusDays(3))
+        );
+
+        assertEquals(2, results.size());
+        assertTrue(results.stream().allMatch(e -> e.getProprietaire().valeur().equals("Alice")));
+        assertTrue(manager.eventsDansPeriode(
+                new ProprietaireEvenement("Charlie"),
+                new Periode(d.minusDays(3), d.plusDays(3))
+        ).isEmpty());
+    }
+
+    @Test
+    void testMemeCreneauPourDeuxProprietairesSansConflit() {
+        LocalDateTime d = LocalDateTime.of(2025, 1, 1, 10, 0);
+        manager.ajouterEvenement(new RendezVous(
+                new TitreEvenement("Dentiste"),
+                new DateEvenement(d),
+                new HeureDebut(10, 0),
+                new DureeEvenement(30),
+                new ProprietaireEvenement("Alice")
+        ));
+
+        assertDoesNotThrow(() -> manager.ajouterEvenement(new RendezVous(
+                new TitreEvenement("Garage"),
+                new DateEvenement(d),
+                new HeureDebut(10, 0),
+                new DureeEvenement(30),
+                new ProprietaireEvenement("Bob")
+        )));
+    }
+
+    @Test
+    void testFluxDansPeriodeOrdonneEtParesseux() {
+        LocalDateTime d = LocalDateTime.of(2025, 1, 1, 8, 0);
+        manager.ajouterEvenement(new EvenementPeriodique(
+                new TitreEvenement("Footing"),
+                new DateEvenement(d),
+                new HeureDebut(8, 0),
+                new DureeEvenement(30),
+                1,
+                new ProprietaireEvenement("Alice")
+        ));
+        Event dentiste = new RendezVous(
+                new TitreEvenement("Dentiste"),
+                new DateEvenement(d.plusDays(1).withHour(7)),
+                new HeureDebut(7, 0),
+                new DureeEvenement(30),
+                new ProprietaireEvenement("Bob")
+        );
+        manager.ajouterEvenement(dentiste);
+
+        List<Event> premiers = manager.fluxDansPeriode(new Periode(d, d.plusYears(10)))
+                .limit(3)
+                .toList();
+
+        assertEquals(3, premiers.size());
+        assertEquals(d, premiers.get(0).getStartDateTime());
+        assertSame(dentiste, premiers.get(1));
+        assertEquals(d.plusDays(1), premiers.get(2).getStartDateTime());
+    }
+
+    @Test
+    void testAjouterEnMasseRapporteTousLesConflits() {
+        LocalDateTime d = LocalDateTime.of(2025, 1, 1, 10, 0);
+        ProprietaireEvenement alice = new ProprietaireEvenement("Alice");
+        Event existant = rdv("Existant", d, 60, alice);
+        manager.ajouterEvenement(existant);
+
+        Event chevaucheExistant = rdv("Chevauche existant", d.plusMinutes(30), 60, alice);
+        Event libre = rdv("Libre", d.plusHours(3), 60, alice);
+        Event chevaucheLibre = rdv("Chevauche libre", d.plusHours(3).plusMinutes(15), 30, alice);
+        Event autreProprietaire = rdv("Bob", d, 60, new ProprietaireEvenement("Bob"));
+
+        CalendarManager.RapportChargement rapport = manager.ajouterEnMasse(
+                List.of(chevaucheLibre, libre, chevaucheExistant, autreProprietaire));
+
+        assertEquals(2, rapport.ajoutes());
+        assertFalse(rapport.estComplet());
+        assertEquals(List.of(chevaucheExistant, chevaucheLibre), rapport.rejetes());
+        assertEquals(List.of(
+                new CalendarManager.PaireEnConflit(existant, chevaucheExistant),
+                new CalendarManager.PaireEnConflit(libre, chevaucheLibre)
+        ), rapport.conflits());
+        assertTrue(manager.trouverParId(libre.getId()).isPresent());
+        assertTrue(manager.trouverParId(autreProprietaire.getId()).isPresent());
+        assertEquals(3, manager.getAllEvents().size());
+    }
+
+    @Test
+    void testAjouterEnMasseEquivautAuxAjoutsUnitairesTries() {
+        Random random = new Random(42);
+        LocalDateTime origine = LocalDateTime.of(2025, 1, 1, 0, 0);
+        ProprietaireEvenement alice = new ProprietaireEvenement("Alice");
+        List<Event> lot = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            lot.add(rdv("RDV " + i, origine.plusMinutes(15L * random.nextInt(400)), 15 * (1 + random.nextInt(6)), alice));
+        }
+
+        CalendarManager.RapportChargement rapport = manager.ajouterEnMasse(lot);
+
+        CalendarManager unitaire = new CalendarManager();
+        lot.stream().sorted(Comparator.comparing(Event::getStartDateTime)).forEach(e -> {
+            try {
+                unitaire.ajouterEvenement(e);
+            } catch (CalendarManager.ConflitEvenementException ignore) {
+                // écarté, comme dans le chargement en masse
+            }
+        });
+        assertEquals(unitaire.getAllEvents(), manager.getAllEvents());
+        assertEquals(lot.size() - rapport.ajoutes(), rapport.rejetes().size());
+        for (CalendarManager.PaireEnConflit paire : rapport.conflits()) {
+            assertTrue(paire.premier().getStartDateTime().isBefore(paire.second().getEndDateTime())
+                    && paire.second().getStartDateTime().isBefore(paire.premier().getEndDateTime()));
+        }
+    }
+
+    private static Event rdv(String titre, LocalDateTime debut, int minutes, ProprietaireEvenement proprietaire) {
+        return new RendezVous(
+                new TitreEvenement(titre),
+                new DateEvenement(debut),
+                new HeureDebut(debut.getHour(), debut.getMinute()),
+                new DureeEvenement(minutes),
+                proprietaire
+        );
+    }
+
+    @Test
+    void testFreeBusyFusionneLesCreneauxEtLesOccurrences() {
+        LocalDateTime lundi = LocalDateTime.of(2025, 3, 24, 0, 0);
+        ProprietaireEvenement alice = new ProprietaireEvenement("Alice");
+        // Veille au soir, déborde sur lundi matin
+        manager.ajouterEvenement(rdv("RDV", lundi.minusHours(1), 90, alice));
+        manager.ajouterEvenement(rdv("RDV", lundi.withHour(9), 60, alice));
+        manager.ajouterEvenement(rdv("RDV", lundi.withHour(10), 30, alice));
+        manager.ajouterEvenement(rdv("RDV", lundi.plusDays(2).withHour(14), 60, alice));
+        // Tous les jours de 12h à 13h, depuis la semaine précédente
+        manager.ajouterEvenement(new EvenementPeriodique(new TitreEvenement("Déjeuner"),
+                new DateEvenement(lundi.minusDays(7)), new HeureDebut(12, 0), new DureeEvenement(60), 1, alice));
+        manager.ajouterEvenement(new RendezVous(new TitreEvenement("RDV de Bob"), new DateEvenement(lundi),
+                new HeureDebut(15, 0), new DureeEvenement(60), new ProprietaireEvenement("Bob")));
+
+        CalendarManager.Disponibilites disponibilites = manager.freeBusy(alice,
+                new Periode(lundi, lundi.plusDays(2).withHour(13).withMinute(30)));
+
+        assertEquals(List.of(
+                new Periode(lundi, lundi.withMinute(30)),
+                new Periode(lundi.withHour(9), lundi.withHour(10).withMinute(30)),
+                new Periode(lundi.withHour(12), lundi.withHour(13)),
+                new Periode(lundi.plusDays(1).withHour(12), lundi.plusDays(1).withHour(13)),
+                new Periode(lundi.plusDays(2).withHour(12), lundi.plusDays(2).withHour(13))
+        ), disponibilites.occupes());
+        assertEquals(List.of(
+                new Periode(lundi.withMinute(30), lundi.withHour(9)),
+                new Periode(lundi.withHour(10).withMinute(30), lundi.withHour(12)),
+                new Periode(lundi.withHour(13), lundi.plusDays(1).withHour(12)),
+                new Periode(lundi.plusDays(1).withHour(13), lundi.plusDays(2).withHour(12)),
+                new Periode(lundi.plusDays(2).withHour(13), lundi.plusDays(2).withHour(13).withMinute(30))
+        ), disponibilites.libres());
+    }
+
+    @Test
+    void testFreeBusyCouvreLaPeriodeSansTrou() {
+        LocalDateTime debut = LocalDateTime.of(2025, 1, 1, 0, 0);
+        ProprietaireEvenement alice = new ProprietaireEvenement("Alice");
+        Random random = new Random(3);
+        List<Event> lot = new ArrayList<>();
+        for (int i = 0; i < 2_000; i++) {
+            lot.add(rdv("RDV", debut.plusMinutes(random.nextInt(60 * 24 * 60)), 5 + random.nextInt(300), alice));
+        }
+        CalendarManager colonnes = new CalendarManager(Evenements.enColonnes());
+        colonnes.ajouterEnMasse(lot);
+        manager.ajouterEnMasse(lot);
+        Periode periode = new Periode(debut.plusDays(10).plusSeconds(30), debut.plusDays(40));
+
+        CalendarManager.Disponibilites disponibilites = manager.freeBusy(alice, periode);
+
+        assertEquals(disponibilites, colonnes.freeBusy(alice, periode));
+        List<Periode> toutes = new ArrayList<>(disponibilites.occupes());
+        toutes.addAll(disponibilites.libres());
+        toutes.sort(Comparator.comparing(Periode::debut));
+        LocalDateTime curseur = periode.debut();
+        for (Periode p : toutes) {
+            assertEquals(curseur, p.debut());
+            assertTrue(p.debut().isBefore(p.fin()));
+            curseur = p.fin();
+        }
+        assertEquals(periode.fin(), curseur);
+        for (Event e : manager.eventsDansPeriode(periode)) {
+            // Chaque événement de la période est couvert par un créneau occupé
+            LocalDateTime de = e.getStartDateTime().isBefore(periode.debut()) ? periode.debut() : e.getStartDateTime();
+            LocalDateTime a = e.getEndDateTime().isAfter(periode.fin()) ? periode.fin() : e.getEndDateTime();
+            assertTrue(disponibilites.occupes().stream()
+                    .anyMatch(p -> !p.debut().isAfter(de) && !p.fin().isBefore(a)));
+        }
+    }
+}
\ No newline at end of file
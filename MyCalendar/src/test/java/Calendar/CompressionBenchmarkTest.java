@@ -0,0 +1,88 @@
+package Calendar;
+
+import Calendar.Events.*;
+import Calendar.Serialization.CalendarSerializer;
+import Calendar.Serialization.GzipCalendarSerializer;
+import Calendar.Serialization.JsonCalendarSerializer;
+import Calendar.vo.*;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.Deflater;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Taille et débit du JSON indenté, brut puis compressé aux différents niveaux de gzip
+ * (6 est le niveau par défaut).
+ * Lancer avec : mvn test -Pbenchmark
+ */
+@Tag("benchmark")
+class CompressionBenchmarkTest {
+
+    private static final int NB_EVENEMENTS = 500_000;
+    private static final int[] NIVEAUX = {Deflater.BEST_SPEED, 3, 6, Deflater.BEST_COMPRESSION};
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void niveauxDeCompression() throws IOException {
+        CalendarManager calendar = new CalendarManager();
+        List<Event> lot = new ArrayList<>(NB_EVENEMENTS);
+        LocalDateTime origine = LocalDateTime.of(2025, 1, 1, 0, 0);
+        for (int i = 0; i < NB_EVENEMENTS; i++) {
+            LocalDateTime debut = origine.plusMinutes(30L * i);
+            lot.add(new RendezVous(
+                    new TitreEvenement("RDV " + i),
+                    new DateEvenement(debut),
+                    new HeureDebut(debut.getHour(), debut.getMinute()),
+                    new DureeEvenement(15),
+                    new ProprietaireEvenement("user" + (i % 10))
+            ));
+        }
+        assertEquals(NB_EVENEMENTS, calendar.ajouterEnMasse(lot).ajoutes());
+
+        JsonCalendarSerializer json = new JsonCalendarSerializer(true);
+        Mesure brut = mesurer(json, calendar, tempDir.resolve("benchmark.json"));
+        System.out.printf("%,d événements%n  JSON indenté : %s%n", NB_EVENEMENTS, brut);
+        for (int niveau : NIVEAUX) {
+            Mesure compresse = mesurer(new GzipCalendarSerializer(json, niveau), calendar,
+                    tempDir.resolve("benchmark" + niveau + ".json.gz"));
+            System.out.printf("  gzip %2d : %s, %.1f fois plus petit%n", niveau, compresse,
+                    (double) brut.tailleFichier() / compresse.tailleFichier());
+            assertTrue(compresse.tailleFichier() * 5 < brut.tailleFichier());
+        }
+    }
+
+    private Mesure mesurer(CalendarSerializer serializer, CalendarManager calendar, Path fichier)
+            throws IOException {
+        // Préchauffage
+        serializer.saveCalendarToFile(calendar, fichier.toString());
+        long debut = System.nanoTime();
+        serializer.saveCalendarToFile(calendar, fichier.toString());
+        long ecriture = System.nanoTime() - debut;
+
+        CalendarManager recharge = new CalendarManager();
+        debut = System.nanoTime();
+        serializer.loadCalendarFromFile(recharge, fichier.toString());
+        long lecture = System.nanoTime() - debut;
+        assertEquals(calendar.getAllEvents().size(), recharge.getAllEvents().size());
+        return new Mesure(ecriture / 1_000_000, lecture / 1_000_000, Files.size(fichier));
+    }
+
+    private record Mesure(long millisEcriture, long millisLecture, long tailleFichier) {
+        @Override
+        public String toString() {
+            return String.format("fichier %,d Ko, écriture %,d ms, lecture %,d ms",
+                    tailleFichier >> 10, millisEcriture, millisLecture);
+        }
+    }
+}
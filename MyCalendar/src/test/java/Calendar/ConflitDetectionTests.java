@@ -1,11 +1,17 @@
 package Calendar;
 
 import Calendar.Events.*;
+import Calendar.Serialization.JsonCalendarSerializer;
 import Calendar.Util.EventConflitDetector;
 import Calendar.vo.*;
 import org.junit.jupiter.api.Test;
 
+import java.io.IOException;
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -87,4 +93,179 @@ public class ConflitDetectionTests {
         // When & Then
         assertFalse(detector.detectConflict(event1, event2));
     }
+
+    @Test
+    void shouldComputeSlotInMinutesFromDateAndStartTime() {
+        // Les secondes de la date ne comptent pas, comme pour getStartDateTime à la minute près
+        LocalDateTime date = LocalDateTime.of(2025, 3, 24, 0, 0, 42);
+        RendezVous event = new RendezVous(
+                new TitreEvenement("RDV"),
+                new DateEvenement(date),
+                new HeureDebut(23, 30),
+                new DureeEvenement(90),
+                new ProprietaireEvenement("user1")
+        );
+
+        assertEquals(Event.enMinutes(event.getStartDateTime()), event.debutEnMinutes());
+        assertEquals(Event.enMinutes(event.getEndDateTime()), event.finEnMinutes());
+        assertEquals(event.debutEnMinutes() + 90, event.finEnMinutes());
+        assertEquals(Event.enMinutes(LocalDateTime.of(2025, 3, 25, 1, 0)), event.finEnMinutes());
+        assertEquals(Event.enMinutes(date) + 1, Event.enMinutesParExces(date));
+        assertEquals(Event.enMinutes(date.withSecond(0)), Event.enMinutesParExces(date.withSecond(0)));
+    }
+
+    @Test
+    void shouldDetectConflictOnEventsLoadedFromJson() throws IOException {
+        // Jackson renseigne les champs après le constructeur : le créneau est calculé à la lecture
+        EventConflitDetector detector = new EventConflitDetector();
+        RendezVous original = new RendezVous(
+                new TitreEvenement("RDV 1"),
+                new DateEvenement(LocalDateTime.of(2025, 3, 24, 10, 0)),
+                new HeureDebut(10, 0),
+                new DureeEvenement(60),
+                new ProprietaireEvenement("user1")
+        );
+        JsonCalendarSerializer serializer = new JsonCalendarSerializer();
+        Event relu = serializer.deserializeEvents(serializer.serializeEvents(List.of(original))).get(0);
+
+        assertEquals(original.debutEnMinutes(), relu.debutEnMinutes());
+        assertEquals(original.finEnMinutes(), relu.finEnMinutes());
+        assertFalse(serializer.serializeEvents(List.of(original)).contains("Minutes"));
+        assertTrue(detector.detectConflict(original, relu));
+    }
+
+    private static final LocalDateTime LUNDI = LocalDateTime.of(2025, 3, 24, 0, 0);
+
+    private static EvenementPeriodique serie(int jour, int heure, int minute, int duree, int frequenceJours) {
+        return new EvenementPeriodique(new TitreEvenement("Série"), new DateEvenement(LUNDI.plusDays(jour)),
+                new HeureDebut(heure, minute), new DureeEvenement(duree), frequenceJours,
+                new ProprietaireEvenement("user1"));
+    }
+
+    private static RendezVous rdv(int jour, int heure, int minute, int duree) {
+        return new RendezVous(new TitreEvenement("RDV"), new DateEvenement(LUNDI.plusDays(jour)),
+                new HeureDebut(heure, minute), new DureeEvenement(duree), new ProprietaireEvenement("user1"));
+    }
+
+    @Test
+    void shouldDetectConflictWithLaterOccurrenceOfPeriodicEvent() {
+        // Given : réunion hebdomadaire le lundi de 10h à 11h
+        EventConflitDetector detector = new EventConflitDetector();
+        EvenementPeriodique hebdo = serie(0, 10, 0, 60, 7);
+
+        // When & Then : rendez-vous un lundi du mois suivant
+        assertTrue(detector.detectConflict(hebdo, rdv(35, 10, 30, 30)));
+        assertTrue(detector.detectConflict(rdv(35, 9, 30, 31), hebdo));
+        assertFalse(detector.detectConflict(hebdo, rdv(35, 11, 0, 30)));
+        assertFalse(detector.detectConflict(hebdo, rdv(36, 10, 0, 60)));
+        // Avant le début de la série, aucune occurrence
+        assertFalse(detector.detectConflict(hebdo, rdv(-7, 10, 0, 60)));
+    }
+
+    @Test
+    void shouldDetectConflictBetweenTwoPeriodicEvents() {
+        // Given
+        EventConflitDetector detector = new EventConflitDetector();
+
+        // When & Then
+        // Tous les jours 9h-10h contre tous les deux jours à 9h30
+        assertTrue(detector.detectConflict(serie(0, 9, 0, 60, 1), serie(1, 9, 30, 30, 2)));
+        assertFalse(detector.detectConflict(serie(0, 9, 0, 60, 1), serie(1, 10, 0, 30, 2)));
+        // Jours pairs contre jours impairs : jamais le même jour
+        assertFalse(detector.detectConflict(serie(0, 9, 0, 60, 2), serie(1, 9, 0, 60, 4)));
+        // Tous les 3 jours depuis le jour 1 et tous les 2 jours depuis le jour 0 : jour 4
+        assertTrue(detector.detectConflict(serie(1, 9, 0, 60, 3), serie(0, 9, 0, 60, 2)));
+        // Une occurrence de 23h à 1h déborde sur le lendemain
+        assertTrue(detector.detectConflict(serie(0, 23, 0, 120, 2), serie(1, 0, 30, 15, 2)));
+    }
+
+    @Test
+    void shouldIgnoreOccurrencesBeyondHorizon() {
+        // Given : tous les 7 jours depuis le jour 0 et tous les 5 jours depuis le jour 1,
+        // qui se rencontrent pour la première fois le jour 21
+        EvenementPeriodique septJours = serie(0, 9, 0, 60, 7);
+        EvenementPeriodique cinqJours = serie(1, 9, 0, 60, 5);
+
+        // When & Then
+        assertTrue(new EventConflitDetector().detectConflict(septJours, cinqJours));
+        assertFalse(new EventConflitDetector(Duration.ofDays(14)).detectConflict(septJours, cinqJours));
+        assertTrue(new EventConflitDetector(Duration.ofDays(30)).detectConflict(septJours, cinqJours));
+        assertFalse(new EventConflitDetector(Duration.ofDays(30)).detectConflict(septJours, rdv(35, 9, 0, 60)));
+        assertTrue(new EventConflitDetector(Duration.ofDays(36)).detectConflict(septJours, rdv(35, 9, 0, 60)));
+        assertThrows(IllegalArgumentException.class, () -> new EventConflitDetector(Duration.ZERO));
+    }
+
+    @Test
+    void shouldRejectEventsCollidingWithPeriodicOccurrencesInCalendar() {
+        for (Evenements evenements : List.of(new Evenements(), Evenements.enColonnes())) {
+            // Given
+            CalendarManager calendar = new CalendarManager(evenements);
+            calendar.ajouterEvenement(serie(0, 10, 0, 60, 7));
+            calendar.ajouterEvenement(rdv(40, 8, 0, 60));
+
+            // When & Then
+            assertThrows(CalendarManager.ConflitEvenementException.class,
+                    () -> calendar.ajouterEvenement(rdv(28, 10, 30, 30)));
+            // Tous les 4 jours depuis le jour 4 : rencontre l'hebdomadaire le jour 28
+            assertThrows(CalendarManager.ConflitEvenementException.class,
+                    () -> calendar.ajouterEvenement(serie(4, 10, 0, 30, 4)));
+            // Tous les 5 jours depuis le jour 0 à 8h : rencontre le rendez-vous du jour 40
+            assertThrows(CalendarManager.ConflitEvenementException.class,
+                    () -> calendar.ajouterEvenement(serie(0, 8, 0, 30, 5)));
+            calendar.ajouterEvenement(rdv(29, 10, 30, 30));
+
+            CalendarManager.RapportChargement rapport = calendar.ajouterEnMasse(List.of(
+                    rdv(14, 10, 0, 15), serie(1, 18, 0, 60, 2), rdv(101, 18, 30, 15), rdv(102, 18, 30, 15)));
+            assertEquals(2, rapport.ajoutes());
+            assertEquals(2, rapport.rejetes().size());
+            assertEquals(5, calendar.getAllEvents().size());
+        }
+    }
+
+    @Test
+    void shouldMatchOccurrenceByOccurrenceComparison() {
+        // Given
+        Random random = new Random(7);
+        int horizonJours = 60;
+        EventConflitDetector detector = new EventConflitDetector(Duration.ofDays(horizonJours));
+
+        for (int essai = 0; essai < 2_000; essai++) {
+            Event a = tirer(random);
+            Event b = tirer(random);
+
+            // When
+            boolean attendu = false;
+            for (Event x : occurrences(a, horizonJours)) {
+                for (Event y : occurrences(b, horizonJours)) {
+                    attendu |= x.debutEnMinutes() < y.finEnMinutes() && x.finEnMinutes() > y.debutEnMinutes();
+                }
+            }
+
+            // Then
+            assertEquals(attendu, detector.detectConflict(a, b), () -> a.description() + " / " + b.description());
+            assertEquals(attendu, detector.detectConflict(b, a));
+        }
+    }
+
+    private static Event tirer(Random random) {
+        int jour = random.nextInt(10);
+        int heure = random.nextInt(24);
+        int minute = random.nextInt(4) * 15;
+        int duree = 15 + random.nextInt(6) * 15 + (random.nextInt(10) == 0 ? 24 * 60 : 0);
+        return random.nextInt(4) == 0 ? rdv(jour + random.nextInt(50), heure, minute, duree)
+                : serie(jour, heure, minute, duree, 1 + random.nextInt(9));
+    }
+
+    private static List<Event> occurrences(Event e, int horizonJours) {
+        if (!e.estRecurrent()) {
+            return List.of(e);
+        }
+        List<Event> resultat = new ArrayList<>();
+        int frequence = ((EvenementPeriodique) e).getFrequenceJours();
+        for (int jour = 0; jour < horizonJours; jour += frequence) {
+            resultat.add(new RendezVous(e.getTitre(), new DateEvenement(e.getDateDebut().valeur().plusDays(jour)),
+                    e.getHeureDebut(), e.getDuree(), e.getProprietaire()));
+        }
+        return resultat;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,105 @@
+package Calendar;
+
+import Calendar.Events.*;
+import Calendar.vo.*;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Mémoire retenue, temps de ramasse-miettes et recherche de chevauchements : rangement
+ * en objets contre rangement en colonnes. Lancer avec : mvn test -Pbenchmark
+ */
+@Tag("benchmark")
+class EvenementsColonnesBenchmarkTest {
+
+    private static final int NB_EVENEMENTS = 3_000_000;
+    private static final int NB_PROPRIETAIRES = 10;
+    private static final int TAILLE_LOT = 10_000;
+    private static final String[] TITRES = {"Daily standup", "Revue de code", "Point client", "Déjeuner"};
+
+    @Test
+    void memoireEtRecherche() {
+        Mesure objets = mesurer(Evenements::new);
+        Mesure colonnes = mesurer(Evenements::enColonnes);
+
+        System.out.printf("%,d événements%n  objets   : %s%n  colonnes : %s%n", NB_EVENEMENTS, objets, colonnes);
+        assertTrue(colonnes.octets() * 3 < objets.octets(),
+                "Le rangement en colonnes devrait occuper au moins trois fois moins de mémoire");
+    }
+
+    private Mesure mesurer(Supplier<Evenements> fabrique) {
+        long avant = memoireUtilisee();
+        Evenements evenements = fabrique.get();
+        LocalDateTime origine = LocalDateTime.of(2025, 1, 1, 0, 0);
+        int parProprietaire = NB_EVENEMENTS / NB_PROPRIETAIRES;
+        for (int p = 0; p < NB_PROPRIETAIRES; p++) {
+            ProprietaireEvenement proprietaire = new ProprietaireEvenement("user" + p);
+            for (int debutLot = 0; debutLot < parProprietaire; debutLot += TAILLE_LOT) {
+                List<Event> lot = new ArrayList<>(TAILLE_LOT);
+                for (int i = debutLot; i < debutLot + TAILLE_LOT; i++) {
+                    LocalDateTime debut = origine.plusMinutes(30L * i);
+                    lot.add(new RendezVous(
+                            new TitreEvenement(TITRES[i % TITRES.length]),
+                            new DateEvenement(debut),
+                            new HeureDebut(debut.getHour(), debut.getMinute()),
+                            new DureeEvenement(15),
+                            proprietaire
+                    ));
+                }
+                evenements.ajouterTries(proprietaire, lot);
+            }
+        }
+        long octets = memoireUtilisee() - avant;
+
+        long gcAvant = tempsRamasseMiettes();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        long gc = tempsRamasseMiettes() - gcAvant;
+
+        ProprietaireEvenement alice = new ProprietaireEvenement("user3");
+        LocalDateTime debut = origine.plusDays(1_000);
+        long depart = System.nanoTime();
+        int trouves = 0;
+        for (int i = 0; i < 100_000; i++) {
+            trouves += evenements.chevauchements(alice, debut.plusMinutes(i), debut.plusMinutes(i + 60)).size();
+        }
+        long recherche = (System.nanoTime() - depart) / 100_000;
+        assertTrue(trouves > 0);
+        assertEquals(NB_EVENEMENTS, evenements.taille());
+        return new Mesure(octets, gc, recherche);
+    }
+
+    private static long memoireUtilisee() {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        Runtime runtime = Runtime.getRuntime();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    private static long tempsRamasseMiettes() {
+        long total = 0;
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            total += gc.getCollectionTime();
+        }
+        return total;
+    }
+
+    private record Mesure(long octets, long millisGc, long nanosParRecherche) {
+        @Override
+        public String toString() {
+            return String.format("%,d Mo retenus (%d o/événement), 3 GC complets %,d ms, chevauchements %,d ns",
+                    octets >> 20, octets / NB_EVENEMENTS, millisGc, nanosParRecherche);
+        }
+    }
+}
@@ -0,0 +1,238 @@
+package Calendar;
+
+import Calendar.Events.*;
+import Calendar.vo.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EvenementsColonnesTests {
+
+    private static final LocalDateTime ORIGINE = LocalDateTime.of(2025, 1, 1, 0, 0);
+
+    private Evenements evenements;
+
+    @BeforeEach
+    void setUp() {
+        evenements = Evenements.enColonnes();
+    }
+
+    private Event rdv(String proprietaire, LocalDateTime debut, int minutes) {
+        return new RendezVous(
+                new TitreEvenement("RDV " + debut),
+                new DateEvenement(debut),
+                new HeureDebut(debut.getHour(), debut.getMinute()),
+                new DureeEvenement(minutes),
+                new ProprietaireEvenement(proprietaire)
+        );
+    }
+
+    private static List<String> ids(List<Event> events) {
+        return events.stream()
+                .map(e -> e.getId().valeur())
+                .sorted(Comparator.naturalOrder())
+                .toList();
+    }
+
+    @Test
+    void shouldRebuildEveryFieldOfEachType() {
+        Reunion reunion = new Reunion(new TitreEvenement("Réunion d'équipe €"),
+                new DateEvenement(ORIGINE.withSecond(42).withNano(123_000_000)), new HeureDebut(14, 30),
+                new DureeEvenement(90), new LieuEvenement("Salle 1"), new ProprietaireEvenement("Alice"),
+                new Participants(new String[]{"Bob", "Charlie"}));
+        EvenementPeriodique footing = new EvenementPeriodique(new TitreEvenement("Footing"),
+                new DateEvenement(ORIGINE.minusDays(10)), new HeureDebut(7, 0), new DureeEvenement(30), 7,
+                new ProprietaireEvenement("Bob"));
+        Anniversaire anniversaire = new Anniversaire(new EventId("event-123"), new TitreEvenement("Anniversaire"),
+                new DateEvenement(ORIGINE.plusDays(2)), new HeureDebut(20, 0), new DureeEvenement(120),
+                new ProprietaireEvenement("Charlie"), "Dana");
+        RendezVous dentiste = new RendezVous(new EventId("6F9619FF-8B86-D011-B42D-00CF4FC964FF"),
+                new TitreEvenement("Dentiste"), new DateEvenement(ORIGINE), new HeureDebut(23, 45),
+                new DureeEvenement(30), new ProprietaireEvenement("Alice"));
+
+        for (Event original : List.of(reunion, footing, anniversaire, dentiste)) {
+            evenements.ajouter(original);
+            Event relu = evenements.trouverParId(original.getId()).orElseThrow();
+            assertSame(original.getClass(), relu.getClass());
+            assertEquals(original.getId(), relu.getId());
+            assertEquals(original.getTitre(), relu.getTitre());
+            assertEquals(original.getDateDebut(), relu.getDateDebut());
+            assertEquals(original.getHeureDebut(), relu.getHeureDebut());
+            assertEquals(original.getDuree(), relu.getDuree());
+            assertEquals(original.getProprietaire(), relu.getProprietaire());
+            assertEquals(original.description(), relu.description());
+            assertEquals(original.debutEnMinutes(), relu.debutEnMinutes());
+        }
+        assertEquals(7, ((EvenementPeriodique) evenements.trouverParId(footing.getId()).orElseThrow()).getFrequenceJours());
+        assertEquals(4, evenements.taille());
+    }
+
+    @Test
+    void shouldKeepUnknownEventTypesAsIs() {
+        Event autre = new RendezVous(new TitreEvenement("Sur mesure"), new DateEvenement(ORIGINE),
+                new HeureDebut(9, 0), new DureeEvenement(60), new ProprietaireEvenement("Alice")) {
+            @Override
+            public String description() {
+                return "Type ajouté par une extension";
+            }
+        };
+        evenements.ajouter(autre);
+
+        assertSame(autre, evenements.trouverParId(autre.getId()).orElseThrow());
+        assertEquals(List.of(autre), evenements.chevauchements(ORIGINE, ORIGINE.plusDays(1)));
+    }
+
+    @Test
+    void shouldMatchObjectStoreAfterRandomInsertionsAndDeletions() {
+        Evenements objets = new Evenements();
+        List<Event> presents = new ArrayList<>();
+        Random random = new Random(42);
+        for (int i = 0; i < 3_000; i++) {
+            Event e = rdv("user" + random.nextInt(3), ORIGINE.plusMinutes(random.nextInt(60 * 24 * 30)),
+                    1 + random.nextInt(600));
+            evenements.ajouter(e);
+            objets.ajouter(e);
+            presents.add(e);
+        }
+        for (int i = 0; i < 800; i++) {
+            Event retire = presents.remove(random.nextInt(presents.size()));
+            assertTrue(evenements.supprimer(retire.getId()));
+            assertTrue(objets.supprimer(retire.getId()));
+        }
+        assertEquals(objets.taille(), evenements.taille());
+        assertEquals(ids(objets.instantane()), ids(evenements.instantane()));
+
+        for (int i = 0; i < 200; i++) {
+            LocalDateTime debut = ORIGINE.plusMinutes(random.nextInt(60 * 24 * 30));
+            LocalDateTime fin = debut.plusMinutes(1 + random.nextInt(600));
+            ProprietaireEvenement proprietaire = new ProprietaireEvenement("user" + random.nextInt(3));
+            assertEquals(ids(objets.chevauchements(debut, fin)), ids(evenements.chevauchements(debut, fin)));
+            assertEquals(ids(objets.chevauchements(proprietaire, debut, fin)),
+                    ids(evenements.chevauchements(proprietaire, debut, fin)));
+        }
+        for (Event e : presents) {
+            assertTrue(evenements.trouverParId(e.getId()).isPresent());
+        }
+    }
+
+    @Test
+    void shouldKeepContentWhenDeletedRowsAreReclaimed() {
+        Evenements objets = new Evenements();
+        List<Event> presents = new ArrayList<>();
+        Random random = new Random(7);
+        for (int i = 0; i < 4_000; i++) {
+            LocalDateTime debut = ORIGINE.plusMinutes(random.nextInt(60 * 24 * 30));
+            Event e = i % 3 == 0
+                    ? new Reunion(new EventId("event-" + i), new TitreEvenement("Réunion " + i),
+                    new DateEvenement(debut), new HeureDebut(debut.getHour(), debut.getMinute()),
+                    new DureeEvenement(1 + random.nextInt(600)), new LieuEvenement("Salle " + i),
+                    new ProprietaireEvenement("user" + random.nextInt(3)),
+                    new Participants(new String[]{"Invité " + i, "Bob"}))
+                    : rdv("user" + random.nextInt(3), debut, 1 + random.nextInt(600));
+            evenements.ajouter(e);
+            objets.ajouter(e);
+            presents.add(e);
+        }
+        Event longue = rdv("user0", ORIGINE, 60 * 24 * 10);
+        evenements.ajouter(longue);
+        objets.ajouter(longue);
+        List<Event> vue = evenements.instantane();
+
+        assertTrue(evenements.supprimer(longue.getId()));
+        assertTrue(objets.supprimer(longue.getId()));
+        // Assez de suppressions pour que les lignes supprimées dépassent les vivantes
+        for (int i = 0; i < 3_000; i++) {
+            Event retire = presents.remove(random.nextInt(presents.size()));
+            assertTrue(evenements.supprimer(retire.getId()));
+            assertTrue(objets.supprimer(retire.getId()));
+        }
+
+        assertEquals(4_001, vue.size());
+        assertTrue(ids(vue).contains(longue.getId().valeur()));
+        assertEquals(objets.taille(), evenements.taille());
+        assertEquals(ids(objets.instantane()), ids(evenements.instantane()));
+        for (int i = 0; i < 200; i++) {
+            LocalDateTime debut = ORIGINE.plusMinutes(random.nextInt(60 * 24 * 30));
+            LocalDateTime fin = debut.plusMinutes(1 + random.nextInt(600));
+            ProprietaireEvenement proprietaire = new ProprietaireEvenement("user" + random.nextInt(3));
+            assertEquals(ids(objets.chevauchements(proprietaire, debut, fin)),
+                    ids(evenements.chevauchements(proprietaire, debut, fin)));
+        }
+        for (Event e : presents) {
+            assertEquals(e.description(), evenements.trouverParId(e.getId()).orElseThrow().description());
+        }
+    }
+
+    @Test
+    void shouldListOccurrencesInChronologicalOrder() {
+        List<Event> lot = new ArrayList<>();
+        for (int i = 9; i >= 0; i--) {
+            lot.add(rdv("Alice", ORIGINE.plusDays(i).withHour(10), 30));
+        }
+        lot.forEach(evenements::ajouter);
+        evenements.ajouter(new EvenementPeriodique(new TitreEvenement("Footing"), new DateEvenement(ORIGINE),
+                new HeureDebut(7, 0), new DureeEvenement(30), 2, new ProprietaireEvenement("Alice")));
+
+        Iterator<Event> it = evenements.occurrences(new ProprietaireEvenement("Alice"),
+                new Periode(ORIGINE.plusDays(2), ORIGINE.plusDays(6)));
+        List<Long> debuts = new ArrayList<>();
+        it.forEachRemaining(e -> debuts.add(e.debutEnMinutes()));
+
+        // 4 rendez-vous (jours 2 à 5) et 2 footings (jours 2 et 4)
+        assertEquals(6, debuts.size());
+        assertEquals(debuts.stream().sorted().toList(), debuts);
+    }
+
+    @Test
+    void shouldKeepPublishedSnapshotReadableAfterChanges() {
+        Event matin = rdv("Alice", ORIGINE.withHour(9), 60);
+        Event soir = rdv("Alice", ORIGINE.withHour(18), 60);
+        evenements.ajouter(soir);
+        evenements.ajouter(matin);
+        List<Event> vue = evenements.instantane();
+
+        evenements.supprimer(matin.getId());
+        evenements.clear();
+
+        assertEquals(List.of(matin.getId(), soir.getId()), vue.stream().map(Event::getId).toList());
+        assertEquals(0, evenements.taille());
+        assertTrue(evenements.instantane().isEmpty());
+    }
+
+    @Test
+    void shouldRejectDuplicateIds() {
+        Event e = rdv("Alice", ORIGINE.withHour(9), 60);
+        evenements.ajouter(e);
+
+        assertThrows(IllegalArgumentException.class, () -> evenements.ajouter(e));
+        assertThrows(IllegalArgumentException.class,
+                () -> evenements.ajouterTries(e.getProprietaire(), List.of(e)));
+    }
+
+    @Test
+    void shouldDetectConflictsThroughCalendarManager() {
+        CalendarManager calendar = new CalendarManager(Evenements.enColonnes());
+        calendar.ajouterEvenement(rdv("Alice", ORIGINE.withHour(9), 60));
+        List<Event> lot = new ArrayList<>();
+        for (int i = 0; i < 1_000; i++) {
+            lot.add(rdv("Alice", ORIGINE.plusHours(10 + i), 60));
+        }
+        lot.add(rdv("Alice", ORIGINE.withHour(9).withMinute(30), 60));
+
+        CalendarManager.RapportChargement rapport = calendar.ajouterEnMasse(lot);
+
+        assertEquals(1_000, rapport.ajoutes());
+        assertEquals(1, rapport.rejetes().size());
+        assertThrows(CalendarManager.ConflitEvenementException.class,
+                () -> calendar.ajouterEvenement(rdv("Alice", ORIGINE.plusHours(500).plusMinutes(30), 10)));
+        assertEquals(1_001, calendar.getAllEvents().size());
+    }
+}
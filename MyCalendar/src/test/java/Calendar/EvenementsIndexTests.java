@@ -0,0 +1,128 @@
+package Calendar;
+
+import Calendar.Events.*;
+import Calendar.vo.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EvenementsIndexTests {
+
+    private static final LocalDateTime ORIGINE = LocalDateTime.of(2025, 1, 1, 0, 0);
+
+    private Evenements evenements;
+    private List<Event> references;
+
+    @BeforeEach
+    void setUp() {
+        evenements = new Evenements();
+        references = new ArrayList<>();
+    }
+
+    private Event rdv(String titre, LocalDateTime debut, int minutes) {
+        return new RendezVous(
+                new TitreEvenement(titre),
+                new DateEvenement(debut),
+                new HeureDebut(debut.getHour(), debut.getMinute()),
+                new DureeEvenement(minutes),
+                new ProprietaireEvenement("Alice")
+        );
+    }
+
+    private List<Event> chevauchementsNaifs(LocalDateTime debut, LocalDateTime fin) {
+        return references.stream()
+                .filter(e -> e.getStartDateTime().isBefore(fin) && e.getEndDateTime().isAfter(debut))
+                .toList();
+    }
+
+    private static List<String> ids(List<Event> events) {
+        return events.stream()
+                .map(e -> e.getId().valeur())
+                .sorted(Comparator.naturalOrder())
+                .toList();
+    }
+
+    @Test
+    void shouldFindOnlyOverlappingEvents() {
+        Event matin = rdv("Matin", ORIGINE.withHour(9), 60);
+        Event midi = rdv("Midi", ORIGINE.withHour(12), 30);
+        Event soir = rdv("Soir", ORIGINE.withHour(18), 120);
+        evenements.ajouter(matin);
+        evenements.ajouter(midi);
+        evenements.ajouter(soir);
+
+        List<Event> resultat = evenements.chevauchements(ORIGINE.withHour(9).withMinute(30), ORIGINE.withHour(12));
+
+        assertEquals(List.of(matin), resultat);
+    }
+
+    @Test
+    void shouldTreatIntervalsAsHalfOpen() {
+        evenements.ajouter(rdv("Avant", ORIGINE.withHour(9), 60));
+        evenements.ajouter(rdv("Après", ORIGINE.withHour(11), 60));
+
+        assertTrue(evenements.chevauchements(ORIGINE.withHour(10), ORIGINE.withHour(11)).isEmpty());
+    }
+
+    @Test
+    void shouldMatchBruteForceAfterRandomInsertionsAndDeletions() {
+        Random random = new Random(42);
+        for (int i = 0; i < 2_000; i++) {
+            Event e = rdv("E" + i, ORIGINE.plusMinutes(random.nextInt(60 * 24 * 30)), 1 + random.nextInt(600));
+            evenements.ajouter(e);
+            references.add(e);
+        }
+        for (int i = 0; i < 500; i++) {
+            Event retire = references.remove(random.nextInt(references.size()));
+            assertTrue(evenements.supprimer(retire.getId()));
+        }
+
+        for (int i = 0; i < 200; i++) {
+            LocalDateTime debut = ORIGINE.plusMinutes(random.nextInt(60 * 24 * 30));
+            LocalDateTime fin = debut.plusMinutes(1 + random.nextInt(600));
+            assertEquals(ids(chevauchementsNaifs(debut, fin)), ids(evenements.chevauchements(debut, fin)));
+        }
+    }
+
+    @Test
+    void shouldForgetEverythingOnClear() {
+        evenements.ajouter(rdv("Matin", ORIGINE.withHour(9), 60));
+        evenements.clear();
+
+        assertTrue(evenements.chevauchements(ORIGINE, ORIGINE.plusDays(1)).isEmpty());
+    }
+
+    @Test
+    void shouldKeepIdIndexConsistentAfterRemovals() {
+        Event premier = rdv("Premier", ORIGINE.withHour(8), 30);
+        Event second = rdv("Second", ORIGINE.withHour(9), 30);
+        Event dernier = rdv("Dernier", ORIGINE.withHour(10), 30);
+        evenements.ajouter(premier);
+        evenements.ajouter(second);
+        evenements.ajouter(dernier);
+
+        assertTrue(evenements.supprimer(premier.getId()));
+
+        assertTrue(evenements.trouverParId(premier.getId()).isEmpty());
+        assertSame(dernier, evenements.trouverParId(dernier.getId()).orElseThrow());
+        assertSame(second, evenements.trouverParId(second.getId()).orElseThrow());
+        assertTrue(evenements.supprimer(dernier.getId()));
+        assertFalse(evenements.supprimer(dernier.getId()));
+        assertEquals(List.of(second), evenements.chevauchements(ORIGINE, ORIGINE.plusDays(1)));
+    }
+
+    @Test
+    void shouldRejectDuplicateIds() {
+        Event e = rdv("Matin", ORIGINE.withHour(9), 60);
+        evenements.ajouter(e);
+
+        assertThrows(IllegalArgumentException.class, () -> evenements.ajouter(e));
+    }
+}
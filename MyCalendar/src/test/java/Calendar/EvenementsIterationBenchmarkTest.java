@@ -0,0 +1,82 @@
+package Calendar;
+
+import Calendar.Events.*;
+import Calendar.vo.*;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Compare les octets alloués par itération : copie défensive à chaque appel
+ * contre instantané partagé. Lancer avec : mvn test -Pbenchmark
+ */
+@Tag("benchmark")
+class EvenementsIterationBenchmarkTest {
+
+    private static final int NB_EVENEMENTS = 100_000;
+    private static final int NB_ITERATIONS = 200;
+
+    private final com.sun.management.ThreadMXBean threads =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    @Test
+    void iterationSurInstantaneNAllouePlusLaListe() {
+        Evenements evenements = new Evenements();
+        List<Event> reference = new ArrayList<>();
+        LocalDateTime origine = LocalDateTime.of(2025, 1, 1, 0, 0);
+        for (int i = 0; i < NB_EVENEMENTS; i++) {
+            LocalDateTime debut = origine.plusMinutes(30L * i);
+            Event e = new RendezVous(
+                    new TitreEvenement("RDV " + i),
+                    new DateEvenement(debut),
+                    new HeureDebut(debut.getHour(), debut.getMinute()),
+                    new DureeEvenement(15),
+                    new ProprietaireEvenement("Alice")
+            );
+            evenements.ajouter(e);
+            reference.add(e);
+        }
+
+        // Ancien comportement : copie défensive de la liste à chaque itération
+        long copie = octetsParIteration(() -> new ArrayList<>(reference).iterator());
+        long instantane = octetsParIteration(evenements::iterator);
+
+        System.out.printf("Itération sur %d événements : copie défensive %d o/appel, instantané %d o/appel%n",
+                NB_EVENEMENTS, copie, instantane);
+        assertTrue(instantane * 100 < copie,
+                "L'itération sur l'instantané devrait allouer au moins 100 fois moins");
+    }
+
+    private long octetsParIteration(Supplier<Iterator<Event>> source) {
+        long id = Thread.currentThread().threadId();
+        long checksum = 0;
+        // Préchauffage : publication de l'instantané et compilation JIT
+        for (int i = 0; i < NB_ITERATIONS; i++) {
+            checksum += parcourir(source.get());
+        }
+        long avant = threads.getThreadAllocatedBytes(id);
+        for (int i = 0; i < NB_ITERATIONS; i++) {
+            checksum += parcourir(source.get());
+        }
+        long apres = threads.getThreadAllocatedBytes(id);
+        assertEquals(2L * NB_ITERATIONS * NB_EVENEMENTS, checksum);
+        return (apres - avant) / NB_ITERATIONS;
+    }
+
+    private static long parcourir(Iterator<Event> it) {
+        long n = 0;
+        while (it.hasNext()) {
+            it.next();
+            n++;
+        }
+        return n;
+    }
+}
@@ -1,7 +1,19 @@
 package Calendar;
 
+import Calendar.Serialization.JsonCalendarSerializer;
 import Calendar.vo.EventId;
+import Calendar.vo.GenerateurIdentifiants;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import static org.junit.jupiter.api.Assertions.*;
 
 public class EventIdTest {
@@ -50,4 +62,117 @@ public class EventIdTest {
         assertNotEquals(id1, id3);
         assertEquals(id1.hashCode(), id2.hashCode());
     }
+
+    @Test
+    void shouldStoreCanonicalUuidOnTwoLongs() {
+        // Given
+        EventId genere = EventId.generate();
+
+        // When
+        EventId relu = new EventId(genere.valeur());
+
+        // Then
+        assertTrue(genere.estCompact());
+        assertTrue(relu.estCompact());
+        assertEquals(genere, relu);
+        assertEquals(genere.hashCode(), relu.hashCode());
+        assertEquals(genere.valeur(), relu.valeur());
+        assertEquals(new EventId(genere.poidsFort(), genere.poidsFaible()), genere);
+        // Le texte lu n'est pas gardé ; il est recalculé une fois puis réutilisé
+        String texte = genere.valeur();
+        assertNotSame(texte, new EventId(texte).valeur());
+        assertSame(relu.valeur(), relu.valeur());
+    }
+
+    @Test
+    void shouldKeepNonCanonicalIdsAsText() {
+        // Given
+        String majuscules = "6F9619FF-8B86-D011-B42D-00CF4FC964FF";
+
+        // When
+        EventId id = new EventId(majuscules);
+
+        // Then
+        assertFalse(id.estCompact());
+        assertEquals(majuscules, id.valeur());
+        assertNotEquals(new EventId(majuscules.toLowerCase()), id);
+        assertFalse(new EventId("event-123").estCompact());
+    }
+
+    @Test
+    void shouldKeepJsonFormat() throws Exception {
+        // Given
+        ObjectMapper mapper = new JsonCalendarSerializer().getObjectMapper();
+        EventId uuid = new EventId("0f8fad5b-d9cb-469f-a165-70867728950e");
+
+        // When
+        String json = mapper.writeValueAsString(uuid);
+
+        // Then
+        assertEquals("{\"valeur\":\"0f8fad5b-d9cb-469f-a165-70867728950e\"}", json);
+        assertEquals(uuid, mapper.readValue(json, EventId.class));
+        assertEquals(new EventId("event-123"), mapper.readValue("{\"valeur\":\"event-123\"}", EventId.class));
+    }
+
+    @Test
+    void shouldGenerateTimeOrderedIds() {
+        // Given
+        long avant = System.currentTimeMillis();
+
+        // When
+        EventId precedent = EventId.generate();
+        for (int i = 0; i < 100_000; i++) {
+            EventId suivant = EventId.generate();
+
+            // Then
+            assertTrue(precedent.compareTo(suivant) < 0);
+            precedent = suivant;
+        }
+        UUID uuid = UUID.fromString(precedent.valeur());
+        assertEquals(7, uuid.version());
+        assertEquals(2, uuid.variant());
+        assertTrue(precedent.poidsFort() >>> 16 >= avant);
+        assertTrue(precedent.poidsFort() >>> 16 <= System.currentTimeMillis() + 1);
+    }
+
+    @Test
+    void shouldGenerateDistinctIdsAcrossThreads() throws Exception {
+        // Given
+        Set<EventId> ids = ConcurrentHashMap.newKeySet();
+        ExecutorService executeur = Executors.newFixedThreadPool(8);
+        List<Future<?>> taches = new ArrayList<>();
+
+        // When
+        for (int t = 0; t < 8; t++) {
+            taches.add(executeur.submit(() -> {
+                for (int i = 0; i < 50_000; i++) {
+                    ids.add(EventId.generate());
+                }
+            }));
+        }
+        for (Future<?> tache : taches) {
+            tache.get();
+        }
+        executeur.shutdown();
+
+        // Then
+        assertEquals(400_000, ids.size());
+    }
+
+    @Test
+    void shouldUseConfiguredGenerator() {
+        // Given
+        EventId fixe = new EventId("event-fixe");
+        try {
+            // When
+            EventId.utiliserGenerateur(() -> fixe);
+
+            // Then
+            assertSame(fixe, EventId.generate());
+            EventId.utiliserGenerateur(GenerateurIdentifiants.aleatoire());
+            assertEquals(4, UUID.fromString(EventId.generate().valeur()).version());
+        } finally {
+            EventId.utiliserGenerateur(GenerateurIdentifiants.chronologique());
+        }
+    }
 }
\ No newline at end of file
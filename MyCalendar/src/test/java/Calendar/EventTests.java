@@ -1,6 +1,7 @@
 package Calendar;
 
 import Calendar.Events.*;
+import Calendar.Serialization.JsonCalendarSerializer;
 import Calendar.Util.EventConflitDetector;
 import Calendar.vo.*;
 import org.junit.jupiter.api.BeforeEach;
@@ -520,4 +521,105 @@ class EventTests {
                         (first.getTitre().valeur().equals("RDV Test 2") && second.getTitre().valeur().equals("RDV Test"))
         );
     }
-}
\ No newline at end of file
+
+    @Test
+    void testOccurrencesPeriodiquesSautentDirectementALaPeriode() {
+        EvenementPeriodique quotidien = new EvenementPeriodique(
+                titre,
+                new DateEvenement(LocalDateTime.of(2015, 1, 1, 8, 0)),
+                new HeureDebut(8, 0),
+                duree,
+                1,
+                proprietaire
+        );
+
+        Iterator<Event> it = quotidien.occurrences(new Periode(
+                LocalDateTime.of(2026, 3, 2, 0, 0),
+                LocalDateTime.of(2026, 3, 9, 0, 0)
+        ));
+
+        Event premiere = it.next();
+        assertEquals(LocalDateTime.of(2026, 3, 2, 8, 0), premiere.getDateDebut().valeur());
+        int total = 1;
+        while (it.hasNext()) {
+            it.next();
+            total++;
+        }
+        assertEquals(7, total);
+        assertThrows(NoSuchElementException.class, it::next);
+    }
+
+    @Test
+    void testOccurrencesPeriodiquesPartagentLIdentifiantDeLaSerie() {
+        EvenementPeriodique hebdo = new EvenementPeriodique(
+                titre,
+                date,
+                heureDebut,
+                duree,
+                7,
+                proprietaire
+        );
+
+        Iterator<Event> it = hebdo.occurrences(new Periode(date.valeur(), date.valeur().plusDays(21)));
+
+        int total = 0;
+        while (it.hasNext()) {
+            Event occurrence = it.next();
+            assertEquals(hebdo.getId(), occurrence.getId());
+            assertSame(hebdo.getTitre(), occurrence.getTitre());
+            total++;
+        }
+        assertEquals(3, total);
+    }
+
+    @Test
+    void testOccurrencesFrequenceNulleTermine() {
+        Event event = new EvenementPeriodique(
+                titre,
+                date,
+                heureDebut,
+                duree,
+                0,
+                proprietaire
+        );
+
+        Iterator<Event> it = event.occurrences(new Periode(date.valeur().minusDays(1), date.valeur().plusDays(30)));
+
+        assertTrue(it.hasNext());
+        assertSame(event, it.next());
+        assertFalse(it.hasNext());
+    }
+
+    @Test
+    void testProprietaireEtTitrePartagesEntreEvenements() throws Exception {
+        Event premier = new RendezVous(new TitreEvenement("Daily standup"), date, heureDebut, duree,
+                new ProprietaireEvenement("Michel"));
+        Event second = new RendezVous(new TitreEvenement("Daily standup"), new DateEvenement(date.valeur().plusDays(1)), heureDebut, duree,
+                new ProprietaireEvenement("Michel"));
+
+        assertSame(premier.getProprietaire(), second.getProprietaire());
+        assertSame(premier.getTitre(), second.getTitre());
+        assertSame(premier.getProprietaire(), ProprietaireEvenement.de("Michel"));
+
+        // Les désérialiseurs passent aussi par les instances partagées
+        JsonCalendarSerializer json = new JsonCalendarSerializer();
+        Event relu = json.deserializeEvents(json.serializeEvents(List.of(premier))).get(0);
+        assertSame(premier.getProprietaire(), relu.getProprietaire());
+        assertSame(premier.getTitre(), relu.getTitre());
+        assertTrue(json.serializeEvents(List.of(premier)).replaceAll("\\s", "")
+                .contains("\"proprietaire\":{\"valeur\":\"Michel\"}"));
+    }
+
+    @Test
+    void testInstancesPartageesRestentCanoniques() {
+        Event premier = new RendezVous(new TitreEvenement("Revue de code"), date, heureDebut, duree,
+                new ProprietaireEvenement("Michel"));
+        // Beaucoup d'autres valeurs ne chassent pas une instance encore portée par un événement
+        for (int i = 0; i < 20_000; i++) {
+            TitreEvenement.de("Titre " + i);
+            ProprietaireEvenement.de("Propriétaire " + i);
+        }
+        assertSame(premier.getTitre(), TitreEvenement.de("Revue de code"));
+        assertSame(premier.getProprietaire(), new ProprietaireEvenement("Michel").partage());
+    }
+}
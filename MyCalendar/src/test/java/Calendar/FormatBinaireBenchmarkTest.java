@@ -0,0 +1,75 @@
+package Calendar;
+
+import Calendar.Events.*;
+import Calendar.Serialization.BinaryCalendarSerializer;
+import Calendar.Serialization.CalendarSerializer;
+import Calendar.Serialization.JsonCalendarSerializer;
+import Calendar.vo.*;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Compare taille de fichier et temps de chargement entre JSON compact et format binaire.
+ * Lancer avec : mvn test -Pbenchmark
+ */
+@Tag("benchmark")
+class FormatBinaireBenchmarkTest {
+
+    private static final int NB_EVENEMENTS = 200_000;
+    private static final int NB_CHARGEMENTS = 5;
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void chargementBinaireContreJson() throws IOException {
+        CalendarManager calendar = new CalendarManager();
+        List<Event> lot = new ArrayList<>(NB_EVENEMENTS);
+        LocalDateTime origine = LocalDateTime.of(2025, 1, 1, 0, 0);
+        for (int i = 0; i < NB_EVENEMENTS; i++) {
+            LocalDateTime debut = origine.plusMinutes(30L * i);
+            lot.add(new RendezVous(
+                    new TitreEvenement("Consultation " + (i % 50)),
+                    new DateEvenement(debut),
+                    new HeureDebut(debut.getHour(), debut.getMinute()),
+                    new DureeEvenement(15),
+                    new ProprietaireEvenement("user" + (i % 10))
+            ));
+        }
+        calendar.ajouterEnMasse(lot);
+
+        Path json = tempDir.resolve("benchmark.json");
+        Path binaire = tempDir.resolve("benchmark" + BinaryCalendarSerializer.EXTENSION);
+        calendar.sauvegarder(json.toString());
+        calendar.sauvegarder(binaire.toString());
+
+        long tempsJson = tempsDeChargement(new JsonCalendarSerializer(), json);
+        long tempsBinaire = tempsDeChargement(new BinaryCalendarSerializer(), binaire);
+
+        System.out.printf("%,d événements : JSON %,d Ko en %,d ms, binaire %,d Ko en %,d ms%n",
+                NB_EVENEMENTS, Files.size(json) >> 10, tempsJson, Files.size(binaire) >> 10, tempsBinaire);
+        assertTrue(Files.size(binaire) * 5 < Files.size(json));
+        assertTrue(tempsBinaire < tempsJson);
+    }
+
+    private static long tempsDeChargement(CalendarSerializer serializer, Path fichier) throws IOException {
+        CalendarManager cible = new CalendarManager();
+        long meilleur = Long.MAX_VALUE;
+        for (int i = 0; i < NB_CHARGEMENTS; i++) {
+            long debut = System.nanoTime();
+            assertEquals(NB_EVENEMENTS, serializer.loadCalendarFromFile(cible, fichier.toString()).ajoutes());
+            meilleur = Math.min(meilleur, System.nanoTime() - debut);
+        }
+        return meilleur / 1_000_000;
+    }
+}
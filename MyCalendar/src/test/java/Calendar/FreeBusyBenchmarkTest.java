@@ -0,0 +1,65 @@
+package Calendar;
+
+import Calendar.Events.*;
+import Calendar.vo.*;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Créneaux occupés et libres sur un mois, pour un propriétaire de 50 000 événements.
+ * Lancer avec : mvn test -Pbenchmark
+ */
+@Tag("benchmark")
+class FreeBusyBenchmarkTest {
+
+    private static final int NB_EVENEMENTS = 50_000;
+    private static final int NB_REQUETES = 20_000;
+    private static final LocalDateTime ORIGINE = LocalDateTime.of(2025, 1, 1, 0, 0);
+
+    @Test
+    void unMoisSurCinquanteMilleEvenements() {
+        long objets = mesurer(Evenements::new);
+        long colonnes = mesurer(Evenements::enColonnes);
+
+        System.out.printf("freeBusy sur un mois, %,d événements%n  objets   : %,d ns%n  colonnes : %,d ns%n",
+                NB_EVENEMENTS, objets, colonnes);
+        assertTrue(objets < 1_000_000, "Moins d'une milliseconde attendue");
+        assertTrue(colonnes < 1_000_000, "Moins d'une milliseconde attendue");
+    }
+
+    private long mesurer(Supplier<Evenements> fabrique) {
+        CalendarManager calendar = new CalendarManager(fabrique.get());
+        ProprietaireEvenement alice = new ProprietaireEvenement("alice");
+        List<Event> lot = new ArrayList<>(NB_EVENEMENTS);
+        // Un rendez-vous de 20 minutes toutes les 30 minutes, sur un peu plus de deux ans et demi
+        for (int i = 0; i < NB_EVENEMENTS; i++) {
+            LocalDateTime debut = ORIGINE.plusMinutes(30L * i);
+            lot.add(new RendezVous(new TitreEvenement("RDV " + i), new DateEvenement(debut),
+                    new HeureDebut(debut.getHour(), debut.getMinute()), new DureeEvenement(20), alice));
+        }
+        lot.add(new EvenementPeriodique(new TitreEvenement("Footing"), new DateEvenement(ORIGINE),
+                new HeureDebut(7, 25), new DureeEvenement(5), 1, alice));
+        assertEquals(NB_EVENEMENTS + 1, calendar.ajouterEnMasse(lot).ajoutes());
+
+        int occupes = 0;
+        long debut = 0;
+        for (int i = 0; i < 2 * NB_REQUETES; i++) {
+            if (i == NB_REQUETES) {
+                // Première moitié : échauffement
+                debut = System.nanoTime();
+            }
+            LocalDateTime de = ORIGINE.plusDays(i % 900);
+            occupes += calendar.freeBusy(alice, new Periode(de, de.plusMonths(1))).occupes().size();
+        }
+        long parRequete = (System.nanoTime() - debut) / NB_REQUETES;
+        assertTrue(occupes > 0);
+        return parRequete;
+    }
+}
@@ -0,0 +1,65 @@
+package Calendar;
+
+import Calendar.vo.EventId;
+import Calendar.vo.GenerateurIdentifiants;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Création d'identifiants depuis plusieurs threads : UUID aléatoires (SecureRandom partagé)
+ * contre UUID chronologiques. Lancer avec : mvn test -Pbenchmark
+ */
+@Tag("benchmark")
+class GenerateurIdentifiantsBenchmarkTest {
+
+    private static final int NB_THREADS = 8;
+    private static final int PAR_THREAD = 1_000_000;
+
+    @Test
+    void aleatoireContreChronologique() throws Exception {
+        try {
+            mesurer(GenerateurIdentifiants.aleatoire());
+            long aleatoire = mesurer(GenerateurIdentifiants.aleatoire());
+            mesurer(GenerateurIdentifiants.chronologique());
+            long chronologique = mesurer(GenerateurIdentifiants.chronologique());
+
+            System.out.printf("%d threads x %,d identifiants%n  aléatoires    : %,d ms%n  chronologiques : %,d ms%n",
+                    NB_THREADS, PAR_THREAD, aleatoire, chronologique);
+            assertTrue(chronologique < aleatoire, "Les identifiants chronologiques devraient être plus rapides à créer");
+        } finally {
+            EventId.utiliserGenerateur(GenerateurIdentifiants.chronologique());
+        }
+    }
+
+    private long mesurer(GenerateurIdentifiants generateur) throws Exception {
+        EventId.utiliserGenerateur(generateur);
+        ExecutorService executeur = Executors.newFixedThreadPool(NB_THREADS);
+        try {
+            long depart = System.nanoTime();
+            List<Future<Long>> taches = new ArrayList<>();
+            for (int t = 0; t < NB_THREADS; t++) {
+                taches.add(executeur.submit(() -> {
+                    long somme = 0;
+                    for (int i = 0; i < PAR_THREAD; i++) {
+                        somme += EventId.generate().poidsFaible();
+                    }
+                    return somme;
+                }));
+            }
+            for (Future<Long> tache : taches) {
+                tache.get();
+            }
+            return (System.nanoTime() - depart) / 1_000_000;
+        } finally {
+            executeur.shutdown();
+        }
+    }
+}
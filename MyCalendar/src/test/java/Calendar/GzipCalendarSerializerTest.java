@@ -0,0 +1,114 @@
+package Calendar;
+
+import Calendar.Events.*;
+import Calendar.Serialization.BinaryCalendarSerializer;
+import Calendar.Serialization.CalendarSerializer;
+import Calendar.Serialization.GzipCalendarSerializer;
+import Calendar.Serialization.JsonCalendarSerializer;
+import Calendar.vo.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GzipCalendarSerializerTest {
+
+    private CalendarManager calendar;
+
+    @TempDir
+    Path tempDir;
+
+    @BeforeEach
+    void setUp() {
+        calendar = new CalendarManager();
+        LocalDateTime base = LocalDateTime.of(2025, 3, 24, 10, 0);
+        List<Event> lot = new ArrayList<>();
+        for (int i = 0; i < 2_000; i++) {
+            LocalDateTime debut = base.plusMinutes(30L * i);
+            lot.add(new RendezVous(new TitreEvenement("Consultation " + i), new DateEvenement(debut),
+                    new HeureDebut(debut.getHour(), debut.getMinute()), new DureeEvenement(30),
+                    new ProprietaireEvenement("user" + (i % 5))));
+        }
+        lot.add(new Reunion(new TitreEvenement("Réunion d'équipe €"), new DateEvenement(base.minusDays(1)),
+                new HeureDebut(14, 30), new DureeEvenement(90), new LieuEvenement("Salle 1"),
+                new ProprietaireEvenement("Alice"), new Participants(new String[]{"Bob", "Charlie"})));
+        lot.add(new EvenementPeriodique(new TitreEvenement("Footing"), new DateEvenement(base.minusDays(10)),
+                new HeureDebut(7, 0), new DureeEvenement(30), 7, new ProprietaireEvenement("Bob")));
+        calendar.ajouterEnMasse(lot);
+    }
+
+    @Test
+    void testChoixDuFormatParExtension() {
+        assertInstanceOf(GzipCalendarSerializer.class, CalendarSerializer.pourFichier("agenda.json.gz"));
+        assertInstanceOf(GzipCalendarSerializer.class, CalendarSerializer.pourFichier("agenda.mcal.gz"));
+        assertInstanceOf(JsonCalendarSerializer.class, CalendarSerializer.pourFichier("agenda.json"));
+    }
+
+    @Test
+    void testAllerRetourJsonCompresse() throws IOException {
+        Path fichier = tempDir.resolve("agenda.json.gz");
+        calendar.sauvegarder(fichier.toString());
+
+        // Un gzip standard, lisible par les outils habituels
+        try (GZIPInputStream gzip = new GZIPInputStream(Files.newInputStream(fichier))) {
+            assertEquals('[', new String(gzip.readNBytes(16)).strip().charAt(0));
+        }
+        Path json = tempDir.resolve("agenda.json");
+        calendar.sauvegarder(json.toString());
+        assertTrue(Files.size(fichier) * 5 < Files.size(json),
+                "gzip " + Files.size(fichier) + " o, JSON " + Files.size(json) + " o");
+
+        CalendarManager recharge = new CalendarManager();
+        recharge.charger(fichier.toString());
+        assertEquals(calendar.getAllEvents().size(), recharge.getAllEvents().size());
+        for (Event original : calendar.getAllEvents()) {
+            Event relu = recharge.trouverParId(original.getId()).orElseThrow();
+            assertEquals(original.description(), relu.description());
+        }
+    }
+
+    @Test
+    void testAllerRetourBinaireCompresse() throws IOException {
+        Path fichier = tempDir.resolve("agenda" + BinaryCalendarSerializer.EXTENSION + GzipCalendarSerializer.EXTENSION);
+        calendar.sauvegarder(fichier.toString());
+
+        CalendarManager recharge = new CalendarManager();
+        recharge.charger(fichier.toString());
+        assertEquals(calendar.getAllEvents().size(), recharge.getAllEvents().size());
+    }
+
+    @Test
+    void testNiveauxDeCompression() throws IOException {
+        ByteArrayOutputStream rapide = new ByteArrayOutputStream();
+        ByteArrayOutputStream meilleur = new ByteArrayOutputStream();
+        JsonCalendarSerializer json = new JsonCalendarSerializer(true);
+        new GzipCalendarSerializer(json, Deflater.BEST_SPEED).saveCalendarToStream(calendar, rapide);
+        new GzipCalendarSerializer(json, Deflater.BEST_COMPRESSION).saveCalendarToStream(calendar, meilleur);
+        assertTrue(meilleur.size() <= rapide.size());
+
+        CalendarManager recharge = new CalendarManager();
+        new GzipCalendarSerializer(json).loadCalendarFromStream(recharge, new ByteArrayInputStream(meilleur.toByteArray()));
+        assertEquals(calendar.getAllEvents().size(), recharge.getAllEvents().size());
+
+        assertThrows(IllegalArgumentException.class, () -> new GzipCalendarSerializer(json, 10));
+    }
+
+    @Test
+    void testFichierNonCompresseRejete() throws IOException {
+        Path fichier = tempDir.resolve("agenda.json.gz");
+        Files.writeString(fichier, "[]");
+        assertThrows(IOException.class, () -> new CalendarManager().charger(fichier.toString()));
+    }
+}
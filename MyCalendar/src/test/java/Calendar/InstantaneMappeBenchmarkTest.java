@@ -0,0 +1,69 @@
+package Calendar;
+
+import Calendar.Events.*;
+import Calendar.Persistence.InstantaneMappe;
+import Calendar.vo.*;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Mesure l'ouverture d'un instantané projeté et une première recherche, sans chargement
+ * des événements. Lancer avec : mvn test -Pbenchmark
+ */
+@Tag("benchmark")
+class InstantaneMappeBenchmarkTest {
+
+    private static final int NB_EVENEMENTS = 1_000_000;
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void ouvertureSansChargement() throws IOException {
+        List<Event> lot = new ArrayList<>(NB_EVENEMENTS);
+        LocalDateTime origine = LocalDateTime.of(2020, 1, 1, 0, 0);
+        for (int i = 0; i < NB_EVENEMENTS; i++) {
+            LocalDateTime debut = origine.plusMinutes(30L * i);
+            lot.add(new RendezVous(
+                    new TitreEvenement("Consultation " + (i % 50)),
+                    new DateEvenement(debut),
+                    new HeureDebut(debut.getHour(), debut.getMinute()),
+                    new DureeEvenement(15),
+                    new ProprietaireEvenement("user" + (i % 10))
+            ));
+        }
+        Path fichier = tempDir.resolve("benchmark" + InstantaneMappe.EXTENSION);
+        InstantaneMappe.ecrire(lot, fichier);
+        Event cherche = lot.get(NB_EVENEMENTS / 2);
+        lot = null;
+
+        long debut = System.nanoTime();
+        CalendarManager calendar = new CalendarManager();
+        calendar.ajouterSource(InstantaneMappe.ouvrir(fichier));
+        long ouverture = System.nanoTime() - debut;
+
+        debut = System.nanoTime();
+        LocalDateTime jour = cherche.getStartDateTime().toLocalDate().atStartOfDay();
+        List<Event> journee = calendar.eventsDansPeriode(new Periode(jour, jour.plusDays(1)));
+        long periode = System.nanoTime() - debut;
+
+        debut = System.nanoTime();
+        assertTrue(calendar.trouverParId(cherche.getId()).isPresent());
+        long parId = System.nanoTime() - debut;
+
+        assertEquals(48, journee.size());
+        System.out.printf("%,d événements, fichier %,d Ko : ouverture %,d µs, journée %,d µs, identifiant %,d µs%n",
+                NB_EVENEMENTS, Files.size(fichier) >> 10, ouverture / 1000, periode / 1000, parId / 1000);
+        assertTrue(ouverture < 1_000_000_000L, "L'ouverture ne doit pas dépendre du nombre d'événements");
+    }
+}
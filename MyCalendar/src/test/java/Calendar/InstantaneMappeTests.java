@@ -0,0 +1,142 @@
+package Calendar;
+
+import Calendar.Events.*;
+import Calendar.Persistence.InstantaneMappe;
+import Calendar.vo.*;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InstantaneMappeTests {
+
+    private static final LocalDateTime ORIGINE = LocalDateTime.of(2025, 3, 1, 8, 0);
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void shouldAnswerQueriesLikeTheInMemoryCalendar() throws IOException {
+        CalendarManager calendar = new CalendarManager();
+        for (int i = 0; i < 200; i++) {
+            calendar.ajouterEvenement(rdv("RDV " + i, ORIGINE.plusHours(5L * i), i % 2 == 0 ? "Alice" : "Bob"));
+        }
+        LocalDateTime jour = ORIGINE.plusDays(50);
+        Reunion reunion = new Reunion(new TitreEvenement("Comité"), new DateEvenement(jour),
+                new HeureDebut(14, 0), new DureeEvenement(90), new LieuEvenement("Salle 2"),
+                new ProprietaireEvenement("Alice"), new Participants(new String[]{"Bob", "Chloé"}));
+        Anniversaire anniversaire = new Anniversaire(new TitreEvenement("Fête"), new DateEvenement(jour.plusDays(1)),
+                new HeureDebut(19, 0), new DureeEvenement(120), new ProprietaireEvenement("Bob"), "Chloé");
+        // Les rendez-vous d'Alice commencent aux heures paires : le footing ne les croise jamais
+        EvenementPeriodique footing = new EvenementPeriodique(new TitreEvenement("Footing"), new DateEvenement(ORIGINE),
+                new HeureDebut(7, 0), new DureeEvenement(20), 3, new ProprietaireEvenement("Alice"));
+        calendar.ajouterEvenement(reunion);
+        calendar.ajouterEvenement(anniversaire);
+        calendar.ajouterEvenement(footing);
+
+        Path fichier = tempDir.resolve("calendrier" + InstantaneMappe.EXTENSION);
+        InstantaneMappe.ecrire(calendar.getAllEvents(), fichier);
+        CalendarManager mappe = new CalendarManager();
+        InstantaneMappe instantane = InstantaneMappe.ouvrir(fichier);
+        mappe.ajouterSource(instantane);
+
+        assertEquals(calendar.getAllEvents().size(), instantane.taille());
+        assertTrue(mappe.getAllEvents().isEmpty());
+        Periode periode = new Periode(ORIGINE.plusDays(10), ORIGINE.plusDays(60));
+        assertEquals(descriptions(calendar.eventsDansPeriode(periode)), descriptions(mappe.eventsDansPeriode(periode)));
+        ProprietaireEvenement alice = new ProprietaireEvenement("Alice");
+        assertEquals(descriptions(calendar.eventsDansPeriode(alice, periode)),
+                descriptions(mappe.eventsDansPeriode(alice, periode)));
+        assertTrue(mappe.eventsDansPeriode(new ProprietaireEvenement("Inconnu"), periode).isEmpty());
+
+        assertEquals(reunion.description(), mappe.trouverParId(reunion.getId()).orElseThrow().description());
+        assertEquals(anniversaire.getStartDateTime(), mappe.trouverParId(anniversaire.getId()).orElseThrow().getStartDateTime());
+        assertTrue(mappe.trouverParId(new EventId("event-123")).isEmpty());
+        // Un identifiant textuel et un UUID ne se confondent pas dans le sondage
+        CalendarManager mixte = new CalendarManager();
+        Event textuel = new RendezVous(new EventId("event-123"), new TitreEvenement("Importé"),
+                new DateEvenement(ORIGINE), new HeureDebut(9, 0), new DureeEvenement(30), new ProprietaireEvenement("Alice"));
+        mixte.ajouterEvenement(textuel);
+        mixte.ajouterEvenement(footing);
+        Path fichierMixte = tempDir.resolve("mixte" + InstantaneMappe.EXTENSION);
+        InstantaneMappe.ecrire(mixte.getAllEvents(), fichierMixte);
+        InstantaneMappe instantaneMixte = InstantaneMappe.ouvrir(fichierMixte);
+        assertEquals("Importé", instantaneMixte.trouverParId(new EventId("event-123")).orElseThrow().getTitre().valeur());
+        assertEquals(footing.getId(), instantaneMixte.trouverParId(footing.getId()).orElseThrow().getId());
+        assertTrue(instantaneMixte.trouverParId(reunion.getId()).isEmpty());
+
+        // Les événements de l'instantané sont en lecture seule : rien n'est supprimé ni signalé
+        List<Event> supprimes = new ArrayList<>();
+        mappe.ajouterEcouteur(new EcouteurCalendrier() {
+            @Override
+            public void evenementAjoute(Event evenement) {
+            }
+
+            @Override
+            public void evenementSupprime(Event evenement) {
+                supprimes.add(evenement);
+            }
+
+            @Override
+            public void calendrierVide() {
+            }
+        });
+        assertFalse(mappe.supprimerEvenement(reunion.getId()));
+        assertTrue(mappe.trouverParId(reunion.getId()).isPresent());
+        assertTrue(supprimes.isEmpty());
+
+        // Recherche sur tous les propriétaires : l'instantané est consulté comme pour un seul
+        Evenements enMemoire = new Evenements();
+        calendar.getAllEvents().forEach(enMemoire::ajouter);
+        Evenements avecInstantane = new Evenements();
+        avecInstantane.ajouterSource(instantane);
+        assertEquals(descriptions(trier(enMemoire.chevauchements(jour, jour.plusDays(2)))),
+                descriptions(trier(avecInstantane.chevauchements(jour, jour.plusDays(2)))));
+
+        // Les créneaux de l'instantané comptent pour les conflits
+        assertThrows(CalendarManager.ConflitEvenementException.class,
+                () -> mappe.ajouterEvenement(rdv("Chevauche", jour.withHour(14).plusMinutes(30), "Alice")));
+        assertDoesNotThrow(() -> mappe.ajouterEvenement(rdv("Libre", jour.withHour(14).plusMinutes(30), "Chloé")));
+    }
+
+    @Test
+    void shouldRejectFileThatIsNotASnapshot() throws IOException {
+        Path fichier = tempDir.resolve("faux" + InstantaneMappe.EXTENSION);
+        Files.writeString(fichier, "ceci n'est pas un instantané de calendrier");
+        assertThrows(IOException.class, () -> InstantaneMappe.ouvrir(fichier));
+
+        // Fichier tronqué : les tailles de l'en-tête ne correspondent plus
+        Path valide = tempDir.resolve("valide" + InstantaneMappe.EXTENSION);
+        InstantaneMappe.ecrire(List.of(rdv("Seul", ORIGINE, "Alice")), valide);
+        byte[] octets = Files.readAllBytes(valide);
+        Files.write(valide, Arrays.copyOf(octets, octets.length - 5));
+        assertThrows(IOException.class, () -> InstantaneMappe.ouvrir(valide));
+    }
+
+    private static List<Event> trier(List<Event> evenements) {
+        return evenements.stream().sorted(Comparator.comparing(e -> e.getId().valeur())).toList();
+    }
+
+    private static List<String> descriptions(List<Event> evenements) {
+        return evenements.stream().map(e -> e.getStartDateTime() + " " + e.description()).toList();
+    }
+
+    private static Event rdv(String titre, LocalDateTime debut, String proprietaire) {
+        return new RendezVous(
+                new TitreEvenement(titre),
+                new DateEvenement(debut),
+                new HeureDebut(debut.getHour(), debut.getMinute()),
+                new DureeEvenement(60),
+                new ProprietaireEvenement(proprietaire)
+        );
+    }
+}
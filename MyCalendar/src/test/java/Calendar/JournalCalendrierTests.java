@@ -0,0 +1,259 @@
+package Calendar;
+
+import Calendar.Events.*;
+import Calendar.Persistence.JournalCalendrier;
+import Calendar.Persistence.StockageCalendrier;
+import Calendar.vo.*;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.zip.CRC32;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JournalCalendrierTests {
+
+    private static final LocalDateTime ORIGINE = LocalDateTime.of(2025, 1, 1, 8, 0);
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void shouldReplayMutationsOnTopOfEmptyCalendar() throws IOException {
+        Path fichier = tempDir.resolve("calendrier.journal");
+        CalendarManager calendar = new CalendarManager();
+        Event garde;
+        try (JournalCalendrier journal = JournalCalendrier.ouvrir(fichier)) {
+            calendar.brancherJournal(journal);
+            calendar.ajouterEvenement(rdv("Jetable", 0, "Alice"));
+            calendar.clearEvents();
+            Event supprime = rdv("Supprimé", 1, "Alice");
+            garde = rdv("Gardé", 2, "Alice");
+            calendar.ajouterEvenement(supprime);
+            calendar.ajouterEvenement(garde);
+            calendar.ajouterEnMasse(List.of(rdv("Bob 1", 0, "Bob"), rdv("Bob 2", 1, "Bob")));
+            calendar.supprimerEvenement(supprime.getId());
+        }
+
+        CalendarManager relu = new CalendarManager();
+        try (JournalCalendrier journal = JournalCalendrier.ouvrir(fichier)) {
+            assertEquals(7, journal.rejouer(relu).rejoues());
+        }
+        assertEquals(ids(calendar), ids(relu));
+        assertEquals(garde.description(), relu.trouverParId(garde.getId()).orElseThrow().description());
+    }
+
+    @Test
+    void shouldReplayDeletionsOfUuidAndTextualIds() throws IOException {
+        Path fichier = tempDir.resolve("calendrier.journal");
+        CalendarManager calendar = new CalendarManager();
+        Event textuel = new RendezVous(new EventId("event-123"), new TitreEvenement("Importé"),
+                new DateEvenement(ORIGINE), new HeureDebut(8, 0), new DureeEvenement(30), new ProprietaireEvenement("Alice"));
+        Event uuid = rdv("Généré", 1, "Alice");
+        Event garde = rdv("Gardé", 2, "Alice");
+        try (JournalCalendrier journal = JournalCalendrier.ouvrir(fichier)) {
+            calendar.brancherJournal(journal);
+            calendar.ajouterEnMasse(List.of(textuel, uuid, garde));
+            calendar.supprimerEvenement(textuel.getId());
+            calendar.supprimerEvenement(uuid.getId());
+        }
+
+        CalendarManager relu = new CalendarManager();
+        try (JournalCalendrier journal = JournalCalendrier.ouvrir(fichier)) {
+            assertEquals(5, journal.rejouer(relu).rejoues());
+        }
+        assertEquals(List.of(garde.getId().valeur()), ids(relu));
+    }
+
+    @Test
+    void shouldReportAddsDroppedForConflictOnReplay() throws IOException {
+        Path fichier = tempDir.resolve("calendrier.journal");
+        Event journalise = rdv("Journalisé", 0, "Alice");
+        try (JournalCalendrier journal = JournalCalendrier.ouvrir(fichier)) {
+            CalendarManager calendar = new CalendarManager();
+            calendar.brancherJournal(journal);
+            calendar.ajouterEvenement(journalise);
+        }
+
+        // Le calendrier rechargé occupe déjà le créneau avec un autre événement
+        CalendarManager relu = new CalendarManager();
+        Event occupant = rdv("Occupant", 0, "Alice");
+        relu.ajouterEvenement(occupant);
+        try (JournalCalendrier journal = JournalCalendrier.ouvrir(fichier)) {
+            JournalCalendrier.Reprise reprise = journal.rejouer(relu);
+            assertEquals(1, reprise.rejoues());
+            assertFalse(reprise.estComplete());
+            assertEquals(List.of(journalise.getId()), reprise.ecartes().stream().map(Event::getId).toList());
+            assertEquals(occupant.getId(), reprise.conflits().get(0).premier().getId());
+        }
+        assertEquals(List.of(occupant.getId().valeur()), ids(relu));
+    }
+
+    @Test
+    void shouldIgnoreAndTruncateTornTail() throws IOException {
+        Path fichier = tempDir.resolve("calendrier.journal");
+        CalendarManager calendar = new CalendarManager();
+        try (JournalCalendrier journal = JournalCalendrier.ouvrir(fichier)) {
+            calendar.brancherJournal(journal);
+            calendar.ajouterEvenement(rdv("Premier", 0, "Alice"));
+            calendar.ajouterEvenement(rdv("Second", 1, "Alice"));
+        }
+        // Arrêt brutal au milieu du dernier enregistrement
+        long taille = Files.size(fichier);
+        try (FileChannel canal = FileChannel.open(fichier, StandardOpenOption.WRITE)) {
+            canal.truncate(taille - 3);
+        }
+
+        CalendarManager relu = new CalendarManager();
+        try (JournalCalendrier journal = JournalCalendrier.ouvrir(fichier)) {
+            assertEquals(1, journal.rejouer(relu).rejoues());
+            // Le journal reste utilisable après la coupure
+            relu.brancherJournal(journal);
+            relu.ajouterEvenement(rdv("Après reprise", 3, "Alice"));
+        }
+        CalendarManager reprise = new CalendarManager();
+        try (JournalCalendrier journal = JournalCalendrier.ouvrir(fichier)) {
+            assertEquals(2, journal.rejouer(reprise).rejoues());
+        }
+        assertEquals(ids(relu), ids(reprise));
+    }
+
+    @Test
+    void shouldNotApplyChangeWhenJournalCannotRecordIt() throws IOException {
+        CalendarManager calendar = new CalendarManager();
+        List<Event> vus = new ArrayList<>();
+        calendar.ajouterEcouteur(new EcouteurCalendrier() {
+            @Override
+            public void evenementAjoute(Event evenement) {
+                vus.add(evenement);
+            }
+
+            @Override
+            public void evenementSupprime(Event evenement) {
+                vus.add(evenement);
+            }
+
+            @Override
+            public void calendrierVide() {
+            }
+        });
+        JournalCalendrier journal = JournalCalendrier.ouvrir(tempDir.resolve("calendrier.journal"));
+        calendar.brancherJournal(journal);
+        Event garde = rdv("Journalisé", 0, "Alice");
+        calendar.ajouterEvenement(garde);
+        journal.close();
+
+        assertThrows(IllegalStateException.class, () -> calendar.ajouterEvenement(rdv("Perdu", 2, "Alice")));
+        assertThrows(IllegalStateException.class, () -> calendar.supprimerEvenement(garde.getId()));
+        assertEquals(List.of(garde.getId().valeur()), ids(calendar));
+        assertEquals(List.of(garde), vus);
+    }
+
+    @Test
+    void shouldFailReplayOnIntactButUndecodableRecord() throws IOException {
+        Path fichier = tempDir.resolve("calendrier.journal");
+        JournalCalendrier.ouvrir(fichier).close();
+        // Enregistrement d'ajout au crc valide, mais dont l'événement est illisible
+        byte[] donnees = {1, (byte) 0xFF};
+        CRC32 crc = new CRC32();
+        crc.update(donnees);
+        try (DataOutputStream sortie = new DataOutputStream(
+                Files.newOutputStream(fichier, StandardOpenOption.APPEND))) {
+            sortie.writeInt(donnees.length);
+            sortie.write(donnees);
+            sortie.writeInt((int) crc.getValue());
+        }
+
+        try (JournalCalendrier journal = JournalCalendrier.ouvrir(fichier)) {
+            assertThrows(IOException.class, () -> journal.rejouer(new CalendarManager()));
+        }
+    }
+
+    @Test
+    void shouldCompactJournalWhenSnapshotIsSaved() throws IOException {
+        String fichier = tempDir.resolve("calendrier.json").toString();
+        Path journal = Path.of(fichier + JournalCalendrier.EXTENSION);
+
+        CalendarManager calendar = new CalendarManager();
+        try (StockageCalendrier stockage = new StockageCalendrier(calendar, fichier)) {
+            stockage.ouvrir();
+            for (int i = 0; i < 20; i++) {
+                calendar.ajouterEvenement(rdv("RDV " + i, i, "Alice"));
+            }
+            long avant = Files.size(journal);
+            stockage.sauvegarder();
+            assertTrue(Files.size(journal) < avant);
+            // Modifications postérieures à l'instantané : seulement dans le journal
+            calendar.supprimerEvenement(calendar.getAllEvents().get(0).getId());
+            calendar.ajouterEvenement(rdv("Après instantané", 30, "Bob"));
+        }
+
+        CalendarManager relu = new CalendarManager();
+        try (StockageCalendrier stockage = new StockageCalendrier(relu, fichier)) {
+            stockage.ouvrir();
+        }
+        assertEquals(ids(calendar), ids(relu));
+    }
+
+    @Test
+    void shouldGroupConcurrentCommits() throws Exception {
+        Path fichier = tempDir.resolve("calendrier.journal");
+        CalendarManager calendar = new CalendarManager();
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try (JournalCalendrier journal = JournalCalendrier.ouvrir(fichier)) {
+            calendar.brancherJournal(journal);
+            List<Future<?>> taches = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                String proprietaire = "user" + t;
+                taches.add(pool.submit(() -> {
+                    for (int i = 0; i < 50; i++) {
+                        calendar.ajouterEvenement(rdv("RDV " + i, i, proprietaire));
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> tache : taches) {
+                tache.get();
+            }
+        } finally {
+            pool.shutdown();
+        }
+
+        CalendarManager relu = new CalendarManager();
+        try (JournalCalendrier journal = JournalCalendrier.ouvrir(fichier)) {
+            assertEquals(400, journal.rejouer(relu).rejoues());
+        }
+        assertEquals(ids(calendar), ids(relu));
+    }
+
+    private static List<String> ids(CalendarManager calendar) {
+        return calendar.getAllEvents().stream()
+                .map(e -> e.getId().valeur())
+                .sorted(Comparator.naturalOrder())
+                .toList();
+    }
+
+    private static Event rdv(String titre, int heures, String proprietaire) {
+        LocalDateTime debut = ORIGINE.plusHours(heures);
+        return new RendezVous(
+                new TitreEvenement(titre),
+                new DateEvenement(debut),
+                new HeureDebut(debut.getHour(), debut.getMinute()),
+                new DureeEvenement(30),
+                new ProprietaireEvenement(proprietaire)
+        );
+    }
+}
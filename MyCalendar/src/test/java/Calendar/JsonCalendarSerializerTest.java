@@ -10,16 +10,23 @@ import org.junit.jupiter.api.DisplayName;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.FileSystems;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermission;
+import java.nio.file.attribute.PosixFilePermissions;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Set;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
 
 /**
  * Tests complets pour la sérialisation/désérialisation des événements du calendrier
@@ -225,6 +232,132 @@ class JsonCalendarSerializerTest {
                 "Une exception aurait dû être levée pour un fichier inexistant");
     }
 
+    @Test
+    @DisplayName("Test des formats compact et indenté de la sauvegarde en flux")
+    void testSauvegardeCompacteEtIndentee() throws IOException {
+        File compact = tempDir.resolve("test-calendar-compact.json").toFile();
+        File indente = tempDir.resolve("test-calendar-indente.json").toFile();
+        JsonCalendarSerializer.compact().saveCalendarToFile(calendar, compact.getPath());
+        serializer.saveCalendarToFile(calendar, indente.getPath());
+
+        // Le format indenté, par défaut, reste identique à celui de serializeEvents
+        assertEquals(serializer.serializeEvents(calendar.getAllEvents()), Files.readString(indente.toPath()));
+        String json = Files.readString(compact.toPath());
+        assertFalse(json.contains("\n"));
+        assertEquals(serializer.getObjectMapper().readTree(Files.readString(indente.toPath())),
+                serializer.getObjectMapper().readTree(json));
+
+        CalendarManager recharge = new CalendarManager();
+        serializer.loadCalendarFromFile(recharge, compact.getPath());
+        assertEquals(calendar.getAllEvents().size(), recharge.getAllEvents().size());
+    }
+
+    @Test
+    @DisplayName("Test de chargement en flux d'un calendrier volumineux")
+    void testChargementEnFlux() throws IOException {
+        // Étant donné: un fichier de 20 000 rendez-vous sans chevauchement
+        CalendarManager gros = new CalendarManager();
+        List<Event> lot = new ArrayList<>();
+        for (int i = 0; i < 20_000; i++) {
+            LocalDateTime debut = baseDateTime.plusMinutes(30L * i);
+            lot.add(new RendezVous(new TitreEvenement("RDV " + i), new DateEvenement(debut),
+                    new HeureDebut(debut.getHour(), debut.getMinute()), new DureeEvenement(30),
+                    new ProprietaireEvenement("user" + (i % 3))));
+        }
+        gros.ajouterEnMasse(lot);
+        File tempFile = tempDir.resolve("test-calendar-flux.json").toFile();
+        serializer.saveCalendarToFile(gros, tempFile.getPath());
+
+        // Quand: on le recharge dans le calendrier de test
+        CalendarManager.RapportChargement rapport = serializer.loadCalendarFromFile(calendar, tempFile.getPath());
+
+        // Alors: il remplace entièrement l'ancien contenu
+        assertTrue(rapport.estComplet());
+        assertEquals(20_000, rapport.ajoutes());
+        assertEquals(20_000, calendar.getAllEvents().size());
+        assertTrue(calendar.trouverParId(lot.get(12_345).getId()).isPresent());
+    }
+
+    @Test
+    @DisplayName("Test de chargement d'un fichier tronqué")
+    void testChargementFichierTronqueLaisseLeCalendrierIntact() throws IOException {
+        // Étant donné: un fichier coupé au milieu d'un événement
+        File tempFile = tempDir.resolve("test-calendar-tronque.json").toFile();
+        serializer.saveCalendarToFile(calendar, tempFile.getPath());
+        String json = Files.readString(tempFile.toPath());
+        Files.writeString(tempFile.toPath(), json.substring(0, json.length() / 2));
+        List<Event> avant = calendar.getAllEvents();
+
+        // Alors: le chargement échoue sans toucher au calendrier
+        assertThrows(IOException.class, () -> serializer.loadCalendarFromFile(calendar, tempFile.getPath()));
+        assertEquals(avant, calendar.getAllEvents());
+    }
+
+    @Test
+    @DisplayName("Test de sauvegarde interrompue")
+    void testSauvegardeInterrompueConserveLAncienFichier() throws IOException {
+        // Étant donné: un calendrier déjà sauvegardé
+        File tempFile = tempDir.resolve("test-calendar-atomique.json").toFile();
+        serializer.saveCalendarToFile(calendar, tempFile.getPath());
+        byte[] ancien = Files.readAllBytes(tempFile.toPath());
+
+        // Quand: une sauvegarde échoue après avoir commencé à écrire
+        JsonCalendarSerializer defaillant = new JsonCalendarSerializer() {
+            @Override
+            public void saveCalendarToStream(CalendarManager calendar, OutputStream out) throws IOException {
+                out.write("[{\"type\":".getBytes());
+                throw new IOException("Disque plein");
+            }
+        };
+        assertThrows(IOException.class, () -> defaillant.saveCalendarToFile(calendar, tempFile.getPath()));
+
+        // Alors: l'ancien fichier est intact et le fichier temporaire a disparu
+        assertArrayEquals(ancien, Files.readAllBytes(tempFile.toPath()));
+        try (Stream<Path> fichiers = Files.list(tempDir)) {
+            assertEquals(List.of(tempFile.toPath()), fichiers.toList());
+        }
+    }
+
+    @Test
+    @DisplayName("Test des droits du fichier sauvegardé")
+    void testSauvegardeConserveLesDroitsDuFichier() throws IOException {
+        assumeTrue(FileSystems.getDefault().supportedFileAttributeViews().contains("posix"));
+        Path fichier = tempDir.resolve("test-calendar-droits.json");
+        serializer.saveCalendarToFile(calendar, fichier.toString());
+        Set<PosixFilePermission> droits = PosixFilePermissions.fromString("rw-r-----");
+        Files.setPosixFilePermissions(fichier, droits);
+
+        serializer.saveCalendarToFile(calendar, fichier.toString());
+
+        assertEquals(droits, Files.getPosixFilePermissions(fichier));
+    }
+
+    @Test
+    @DisplayName("Test de la somme de contrôle")
+    void testSommeDeControleDetecteLaCorruption() throws IOException {
+        // Étant donné: un fichier sauvegardé avec sa ligne de contrôle
+        File tempFile = tempDir.resolve("test-calendar-controle.json").toFile();
+        serializer.saveCalendarToFile(calendar, tempFile.getPath(), true);
+        CalendarManager relu = new CalendarManager();
+        assertEquals(testEvents.size(), serializer.loadCalendarFromFile(relu, tempFile.getPath()).ajoutes());
+
+        // Quand: un octet du calendrier est modifié
+        byte[] octets = Files.readAllBytes(tempFile.toPath());
+        octets[octets.length / 3] ^= 0x01;
+        Files.write(tempFile.toPath(), octets);
+        List<Event> avant = relu.getAllEvents();
+
+        // Alors: la corruption est détectée avant l'analyse, sans toucher au calendrier
+        IOException erreur = assertThrows(IOException.class,
+                () -> serializer.loadCalendarFromFile(relu, tempFile.getPath()));
+        assertTrue(erreur.getMessage().contains("somme de contrôle"));
+        assertEquals(avant, relu.getAllEvents());
+
+        // Et un fichier tronqué est signalé par sa longueur
+        Files.write(tempFile.toPath(), Arrays.copyOfRange(octets, 10, octets.length));
+        assertThrows(IOException.class, () -> serializer.loadCalendarFromFile(relu, tempFile.getPath()));
+    }
+
     @Test
     @DisplayName("Test de sérialisation avec des caractères spéciaux")
     void testSpecialCharactersSerialization() throws Exception {
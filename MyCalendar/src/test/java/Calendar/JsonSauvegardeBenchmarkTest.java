@@ -0,0 +1,106 @@
+package Calendar;
+
+import Calendar.Events.*;
+import Calendar.Serialization.JsonCalendarSerializer;
+import Calendar.vo.*;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Compare la sauvegarde historique (chaîne indentée puis Files.writeString) à l'écriture
+ * en flux, compacte et indentée. Lancer avec : mvn test -Pbenchmark
+ */
+@Tag("benchmark")
+class JsonSauvegardeBenchmarkTest {
+
+    private static final int[] TAILLES = {10_000, 100_000, 1_000_000};
+
+    private final com.sun.management.ThreadMXBean threads =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void sauvegardeEnFlux() throws IOException {
+        for (int nbEvenements : TAILLES) {
+            comparer(nbEvenements);
+        }
+    }
+
+    private void comparer(int nbEvenements) throws IOException {
+        CalendarManager calendar = new CalendarManager();
+        List<Event> lot = new ArrayList<>(nbEvenements);
+        LocalDateTime origine = LocalDateTime.of(2025, 1, 1, 0, 0);
+        for (int i = 0; i < nbEvenements; i++) {
+            LocalDateTime debut = origine.plusMinutes(30L * i);
+            lot.add(new RendezVous(
+                    new TitreEvenement("RDV " + i),
+                    new DateEvenement(debut),
+                    new HeureDebut(debut.getHour(), debut.getMinute()),
+                    new DureeEvenement(15),
+                    new ProprietaireEvenement("user" + (i % 10))
+            ));
+        }
+        assertEquals(nbEvenements, calendar.ajouterEnMasse(lot).ajoutes());
+
+        JsonCalendarSerializer serializer = JsonCalendarSerializer.compact();
+        JsonCalendarSerializer serializerIndente = new JsonCalendarSerializer();
+        Path fichier = tempDir.resolve("benchmark.json");
+
+        Mesure indente = mesurer(() -> serializerIndente.saveCalendarToFile(calendar, fichier.toString()), fichier);
+        Mesure compact = mesurer(() -> serializer.saveCalendarToFile(calendar, fichier.toString()), fichier);
+        String historique;
+        try {
+            Mesure mesure = mesurer(() -> {
+                List<Event> copie = new ArrayList<>(calendar.getAllEvents());
+                Files.writeString(fichier, serializer.serializeEvents(copie));
+            }, fichier);
+            historique = mesure.toString();
+            assertTrue(compact.octetsAlloues() < mesure.octetsAlloues(),
+                    "L'écriture en flux ne devrait pas allouer la chaîne complète");
+        } catch (OutOfMemoryError e) {
+            // Le chemin historique tient tout le JSON en mémoire : il échoue là où le flux passe
+            historique = "mémoire insuffisante";
+        }
+
+        System.out.printf("%,d événements%n  historique : %s%n  flux indenté : %s%n  flux compact : %s%n",
+                nbEvenements, historique, indente, compact);
+    }
+
+    private Mesure mesurer(Sauvegarde sauvegarde, Path fichier) throws IOException {
+        // Préchauffage
+        sauvegarde.executer();
+        long id = Thread.currentThread().threadId();
+        long allouesAvant = threads.getThreadAllocatedBytes(id);
+        long debut = System.nanoTime();
+        sauvegarde.executer();
+        long duree = System.nanoTime() - debut;
+        long alloues = threads.getThreadAllocatedBytes(id) - allouesAvant;
+        return new Mesure(duree / 1_000_000, alloues, Files.size(fichier));
+    }
+
+    @FunctionalInterface
+    private interface Sauvegarde {
+        void executer() throws IOException;
+    }
+
+    private record Mesure(long millis, long octetsAlloues, long tailleFichier) {
+        @Override
+        public String toString() {
+            return String.format("%,d ms, %,d Mo alloués, fichier %,d Ko",
+                    millis, octetsAlloues >> 20, tailleFichier >> 10);
+        }
+    }
+}
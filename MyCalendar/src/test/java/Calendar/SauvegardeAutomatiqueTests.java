@@ -0,0 +1,152 @@
+package Calendar;
+
+import Calendar.Events.*;
+import Calendar.Persistence.SauvegardeAutomatique;
+import Calendar.Persistence.StockageCalendrier;
+import Calendar.vo.*;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SauvegardeAutomatiqueTests {
+
+    private static final LocalDateTime ORIGINE = LocalDateTime.of(2025, 1, 1, 8, 0);
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void shouldCoalesceBurstIntoSingleBackgroundSave() throws Exception {
+        String fichier = tempDir.resolve("calendrier.json").toString();
+        CalendarManager calendar = new CalendarManager();
+        try (StockageCalendrier stockage = new StockageCalendrier(calendar, fichier)) {
+            stockage.ouvrir();
+            SauvegardeAutomatique sauvegarde = new SauvegardeAutomatique(calendar, stockage, Duration.ofMillis(200));
+            sauvegarde.demarrer();
+            try {
+                for (int i = 0; i < 10; i++) {
+                    calendar.ajouterEvenement(rdv("RDV " + i, i));
+                }
+                // Aucune écriture sur le thread appelant
+                assertEquals(10, sauvegarde.modificationsEnAttente());
+                assertFalse(Files.exists(Path.of(fichier)));
+
+                long limite = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+                while (sauvegarde.nombreSauvegardes() == 0 && System.nanoTime() < limite) {
+                    Thread.sleep(20);
+                }
+                assertEquals(1, sauvegarde.nombreSauvegardes());
+                assertEquals(0, sauvegarde.modificationsEnAttente());
+                assertNotNull(sauvegarde.derniereSauvegarde());
+                assertNull(sauvegarde.derniereErreur());
+                assertTrue(Files.readString(Path.of(fichier)).contains("RDV 9"));
+            } finally {
+                sauvegarde.close();
+            }
+        }
+    }
+
+    @Test
+    void shouldPostponeSaveWhileChangesKeepComing() throws Exception {
+        String fichier = tempDir.resolve("calendrier.json").toString();
+        CalendarManager calendar = new CalendarManager();
+        try (StockageCalendrier stockage = new StockageCalendrier(calendar, fichier)) {
+            stockage.ouvrir();
+            SauvegardeAutomatique sauvegarde = new SauvegardeAutomatique(calendar, stockage, Duration.ofMillis(300));
+            sauvegarde.demarrer();
+            try {
+                // Une modification toutes les 50 ms, plus longtemps que le délai : rien n'est encore écrit
+                for (int i = 0; i < 10; i++) {
+                    calendar.ajouterEvenement(rdv("RDV " + i, i));
+                    Thread.sleep(50);
+                }
+                assertEquals(0, sauvegarde.nombreSauvegardes());
+
+                long limite = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+                while (sauvegarde.nombreSauvegardes() == 0 && System.nanoTime() < limite) {
+                    Thread.sleep(20);
+                }
+                assertEquals(1, sauvegarde.nombreSauvegardes());
+                assertEquals(0, sauvegarde.modificationsEnAttente());
+            } finally {
+                sauvegarde.close();
+            }
+        }
+    }
+
+    @Test
+    void shouldRetryFailedBackgroundSave() throws Exception {
+        String fichier = tempDir.resolve("calendrier.json").toString();
+        CalendarManager calendar = new CalendarManager();
+        AtomicInteger echecsRestants = new AtomicInteger(2);
+        StockageCalendrier defaillant = new StockageCalendrier(calendar, fichier) {
+            @Override
+            public void sauvegarder() throws IOException {
+                if (echecsRestants.getAndDecrement() > 0) {
+                    throw new IOException("Disque plein");
+                }
+                super.sauvegarder();
+            }
+        };
+        try (StockageCalendrier stockage = defaillant) {
+            stockage.ouvrir();
+            SauvegardeAutomatique sauvegarde = new SauvegardeAutomatique(calendar, stockage, Duration.ofMillis(20));
+            sauvegarde.demarrer();
+            try {
+                calendar.ajouterEvenement(rdv("Retenté", 0));
+
+                // Sans nouvelle modification, la sauvegarde est retentée jusqu'à réussir
+                long limite = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+                while (sauvegarde.nombreSauvegardes() == 0 && System.nanoTime() < limite) {
+                    Thread.sleep(20);
+                }
+                assertEquals(1, sauvegarde.nombreSauvegardes());
+                assertTrue(echecsRestants.get() < 0);
+                assertNull(sauvegarde.derniereErreur());
+                assertEquals(0, sauvegarde.modificationsEnAttente());
+            } finally {
+                sauvegarde.close();
+            }
+        }
+        assertTrue(Files.readString(Path.of(fichier)).contains("Retenté"));
+    }
+
+    @Test
+    void shouldFlushPendingChangesOnClose() throws IOException {
+        String fichier = tempDir.resolve("calendrier.json").toString();
+        CalendarManager calendar = new CalendarManager();
+        try (StockageCalendrier stockage = new StockageCalendrier(calendar, fichier)) {
+            stockage.ouvrir();
+            SauvegardeAutomatique sauvegarde = new SauvegardeAutomatique(calendar, stockage, Duration.ofHours(1));
+            sauvegarde.demarrer();
+            calendar.ajouterEvenement(rdv("Avant de quitter", 0));
+            sauvegarde.close();
+
+            assertEquals(0, sauvegarde.modificationsEnAttente());
+            assertEquals(1, sauvegarde.nombreSauvegardes());
+            // Plus suivi après la fermeture
+            calendar.ajouterEvenement(rdv("Après", 2));
+            assertEquals(0, sauvegarde.modificationsEnAttente());
+        }
+        assertTrue(Files.readString(Path.of(fichier)).contains("Avant de quitter"));
+    }
+
+    private static Event rdv(String titre, int heures) {
+        LocalDateTime debut = ORIGINE.plusHours(heures);
+        return new RendezVous(
+                new TitreEvenement(titre),
+                new DateEvenement(debut),
+                new HeureDebut(debut.getHour(), debut.getMinute()),
+                new DureeEvenement(30),
+                new ProprietaireEvenement("Alice")
+        );
+    }
+}
@@ -0,0 +1,74 @@
+package Calendar;
+
+import Calendar.Events.*;
+import Calendar.Persistence.StockageCalendrier;
+import Calendar.vo.*;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Compare une sauvegarde après une seule modification à la réécriture complète de
+ * l'instantané. Lancer avec : mvn test -Pbenchmark
+ */
+@Tag("benchmark")
+class SauvegardeIncrementaleBenchmarkTest {
+
+    private static final int NB_EVENEMENTS = 500_000;
+    private static final int NB_SAUVEGARDES = 20;
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void sauvegardeApresUneModification() throws IOException {
+        CalendarManager initial = new CalendarManager();
+        List<Event> lot = new ArrayList<>(NB_EVENEMENTS);
+        LocalDateTime origine = LocalDateTime.of(2025, 1, 1, 0, 0);
+        for (int i = 0; i < NB_EVENEMENTS; i++) {
+            lot.add(rdv("RDV " + i, origine.plusMinutes(30L * i), "user" + (i % 10)));
+        }
+        initial.ajouterEnMasse(lot);
+        String fichier = tempDir.resolve("calendrier.json").toString();
+        initial.sauvegarder(fichier);
+
+        CalendarManager calendar = new CalendarManager();
+        try (StockageCalendrier stockage = new StockageCalendrier(calendar, fichier)) {
+            assertEquals(NB_EVENEMENTS, stockage.ouvrir().ajoutes());
+
+            long meilleure = Long.MAX_VALUE;
+            for (int i = 0; i < NB_SAUVEGARDES; i++) {
+                calendar.ajouterEvenement(rdv("Ajout " + i, origine.minusHours(i + 1), "user0"));
+                long debut = System.nanoTime();
+                stockage.sauvegarder();
+                meilleure = Math.min(meilleure, System.nanoTime() - debut);
+            }
+
+            long debut = System.nanoTime();
+            stockage.sauvegarderTout();
+            long complete = System.nanoTime() - debut;
+
+            System.out.printf("%,d événements : sauvegarde d'une modification %,d µs, instantané complet %,d ms%n",
+                    NB_EVENEMENTS, meilleure / 1000, complete / 1_000_000);
+            assertTrue(meilleure * 20 < complete);
+        }
+    }
+
+    private static Event rdv(String titre, LocalDateTime debut, String proprietaire) {
+        return new RendezVous(
+                new TitreEvenement(titre),
+                new DateEvenement(debut),
+                new HeureDebut(debut.getHour(), debut.getMinute()),
+                new DureeEvenement(15),
+                new ProprietaireEvenement(proprietaire)
+        );
+    }
+}
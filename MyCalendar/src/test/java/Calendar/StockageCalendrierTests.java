@@ -0,0 +1,175 @@
+package Calendar;
+
+import Calendar.Events.*;
+import Calendar.Persistence.FichierModifications;
+import Calendar.Persistence.StockageCalendrier;
+import Calendar.vo.*;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StockageCalendrierTests {
+
+    private static final LocalDateTime ORIGINE = LocalDateTime.of(2025, 1, 1, 8, 0);
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void shouldWriteOnlyTheDeltaAfterFirstSave() throws IOException {
+        String fichier = tempDir.resolve("calendrier.json").toString();
+        Path modifications = Path.of(fichier + FichierModifications.EXTENSION);
+        CalendarManager calendar = new CalendarManager();
+        try (StockageCalendrier stockage = new StockageCalendrier(calendar, fichier)) {
+            stockage.ouvrir();
+            for (int i = 0; i < 50; i++) {
+                calendar.ajouterEvenement(rdv("RDV " + i, i));
+            }
+            stockage.sauvegarder();
+            byte[] instantane = Files.readAllBytes(Path.of(fichier));
+
+            calendar.supprimerEvenement(calendar.getAllEvents().get(0).getId());
+            calendar.ajouterEvenement(rdv("Nouveau", 100));
+            assertEquals(2, stockage.nombreModifications());
+            long avant = Files.size(modifications);
+            stockage.sauvegarder();
+
+            assertEquals(0, stockage.nombreModifications());
+            assertArrayEquals(instantane, Files.readAllBytes(Path.of(fichier)));
+            assertTrue(Files.size(modifications) > avant);
+        }
+
+        assertEquals(ids(calendar), ids(rouvrir(fichier)));
+    }
+
+    @Test
+    void shouldRewriteSnapshotAfterClear() throws IOException {
+        String fichier = tempDir.resolve("calendrier.json").toString();
+        Path modifications = Path.of(fichier + FichierModifications.EXTENSION);
+        CalendarManager calendar = new CalendarManager();
+        try (StockageCalendrier stockage = new StockageCalendrier(calendar, fichier)) {
+            stockage.ouvrir();
+            calendar.ajouterEvenement(rdv("Avant", 0));
+            stockage.sauvegarder();
+            calendar.ajouterEvenement(rdv("Segment", 1));
+            stockage.sauvegarder();
+            long segments = Files.size(modifications);
+
+            calendar.clearEvents();
+            calendar.ajouterEvenement(rdv("Après vidage", 2));
+            stockage.sauvegarder();
+            assertTrue(Files.size(modifications) < segments);
+            assertTrue(Files.readString(Path.of(fichier)).contains("Après vidage"));
+        }
+
+        assertEquals(ids(calendar), ids(rouvrir(fichier)));
+    }
+
+    @Test
+    void shouldFoldSegmentsIntoSnapshot() throws IOException {
+        String fichier = tempDir.resolve("calendrier.json").toString();
+        Path modifications = Path.of(fichier + FichierModifications.EXTENSION);
+        CalendarManager calendar = new CalendarManager();
+        try (StockageCalendrier stockage = new StockageCalendrier(calendar, fichier)) {
+            stockage.ouvrir();
+            stockage.sauvegarder();
+            for (int i = 0; i < 5; i++) {
+                calendar.ajouterEvenement(rdv("RDV " + i, i));
+                stockage.sauvegarder();
+            }
+            long vide = Files.size(modifications);
+            stockage.replier();
+            assertTrue(Files.size(modifications) < vide);
+            assertTrue(Files.readString(Path.of(fichier)).contains("RDV 4"));
+            calendar.ajouterEvenement(rdv("Après repliage", 10));
+            stockage.sauvegarder();
+        }
+
+        assertEquals(ids(calendar), ids(rouvrir(fichier)));
+    }
+
+    @Test
+    void shouldIgnoreTornSegment() throws IOException {
+        String fichier = tempDir.resolve("calendrier.json").toString();
+        Path modifications = Path.of(fichier + FichierModifications.EXTENSION);
+        CalendarManager calendar = new CalendarManager();
+        try (StockageCalendrier stockage = new StockageCalendrier(calendar, fichier)) {
+            stockage.ouvrir();
+            calendar.ajouterEvenement(rdv("Instantané", 0));
+            stockage.sauvegarder();
+            calendar.ajouterEvenement(rdv("Segment", 1));
+            stockage.sauvegarder();
+        }
+        // Sauvegarde interrompue au milieu d'un second segment
+        try (FileChannel canal = FileChannel.open(modifications, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            canal.write(ByteBuffer.wrap(new byte[]{0, 0, 0, 40, 1, 2, 3}));
+        }
+
+        assertEquals(ids(calendar), ids(rouvrir(fichier)));
+    }
+
+    @Test
+    void shouldReportSegmentAddsRejectedOnReopen() throws IOException {
+        String fichier = tempDir.resolve("calendrier.json").toString();
+        CalendarManager calendar = new CalendarManager();
+        Event segment = rdv("Segment", 1);
+        try (StockageCalendrier stockage = new StockageCalendrier(calendar, fichier)) {
+            stockage.ouvrir();
+            calendar.ajouterEvenement(rdv("Instantané", 0));
+            stockage.sauvegarder();
+            calendar.ajouterEvenement(segment);
+            stockage.sauvegarder();
+        }
+        // Un instantané remplacé à la main occupe désormais le créneau du segment
+        CalendarManager autre = new CalendarManager();
+        Event occupant = rdv("Occupant", 1);
+        autre.ajouterEvenement(occupant);
+        autre.sauvegarder(fichier);
+
+        CalendarManager relu = new CalendarManager();
+        try (StockageCalendrier stockage = new StockageCalendrier(relu, fichier)) {
+            CalendarManager.RapportChargement rapport = stockage.ouvrir();
+            assertFalse(rapport.estComplet());
+            assertEquals(List.of(segment.getId()), rapport.rejetes().stream().map(Event::getId).toList());
+            assertEquals(occupant.getId(), rapport.conflits().get(0).premier().getId());
+        }
+        assertEquals(List.of(occupant.getId().valeur()), ids(relu));
+    }
+
+    private static CalendarManager rouvrir(String fichier) throws IOException {
+        CalendarManager relu = new CalendarManager();
+        try (StockageCalendrier stockage = new StockageCalendrier(relu, fichier)) {
+            stockage.ouvrir();
+        }
+        return relu;
+    }
+
+    private static List<String> ids(CalendarManager calendar) {
+        return calendar.getAllEvents().stream()
+                .map(e -> e.getId().valeur())
+                .sorted(Comparator.naturalOrder())
+                .toList();
+    }
+
+    private static Event rdv(String titre, int heures) {
+        LocalDateTime debut = ORIGINE.plusHours(heures);
+        return new RendezVous(
+                new TitreEvenement(titre),
+                new DateEvenement(debut),
+                new HeureDebut(debut.getHour(), debut.getMinute()),
+                new DureeEvenement(30),
+                new ProprietaireEvenement("Alice")
+        );
+    }
+}